@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.benchmarks;
+
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.items.parsing.ItemParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the datasets of the benchmarks. The data only depends on the number of objects and on the seed, so that
+ * measurements taken on different versions of RumbleDB are comparable.
+ */
+public class BenchmarkData {
+
+    public static final long SEED = 42;
+    public static final int NUMBER_OF_KEYS = 100;
+
+    /**
+     * Generates JSON objects, one per line, of the form { "id" : 1, "key" : "k12", "value" : 345, "price" : 67.89,
+     * "active" : true, "tags" : [ "t1", "t2" ], "address" : { "city" : "c3", "zip" : 12345 } }.
+     *
+     * @param count the number of objects.
+     * @param seed the seed of the pseudo-random values.
+     * @return the JSON lines.
+     */
+    public static List<String> generateJSONLines(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> result = new ArrayList<>(count);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            sb.setLength(0);
+            sb.append("{ \"id\" : ").append(i);
+            sb.append(", \"key\" : \"k").append(random.nextInt(NUMBER_OF_KEYS)).append("\"");
+            sb.append(", \"value\" : ").append(random.nextInt(1000));
+            sb.append(", \"price\" : ").append(random.nextInt(10000) / 100.0);
+            sb.append(", \"active\" : ").append(random.nextBoolean());
+            sb.append(", \"tags\" : [ ");
+            int numberOfTags = random.nextInt(4);
+            for (int j = 0; j < numberOfTags; ++j) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append("\"t").append(random.nextInt(20)).append("\"");
+            }
+            sb.append(" ]");
+            sb.append(", \"address\" : { \"city\" : \"c").append(random.nextInt(50)).append("\"");
+            sb.append(", \"zip\" : ").append(10000 + random.nextInt(90000)).append(" } }");
+            result.add(sb.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Generates the objects described in generateJSONLines as items.
+     *
+     * @param count the number of objects.
+     * @param seed the seed of the pseudo-random values.
+     * @return the object items.
+     */
+    public static List<Item> generateObjects(int count, long seed) {
+        List<Item> result = new ArrayList<>(count);
+        for (String line : generateJSONLines(count, seed)) {
+            result.add(ItemParser.getItemFromString(line, ExceptionMetadata.EMPTY_METADATA));
+        }
+        return result;
+    }
+}
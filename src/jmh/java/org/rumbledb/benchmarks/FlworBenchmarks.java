@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.benchmarks;
+
+import org.apache.spark.SparkConf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rumbledb.api.Rumble;
+import org.rumbledb.api.SequenceOfItems;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.context.Name;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end local FLWOR expressions with group by and order by clauses over a generated dataset, bound to
+ * the external variable $data. The queries include their compilation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlworBenchmarks {
+
+    private static final String PROLOG = "declare variable $data external; ";
+
+    @Param({ "100000" })
+    public int count;
+
+    private Rumble rumble;
+
+    @Setup
+    public void setup() {
+        SparkConf sparkConfiguration = new SparkConf();
+        sparkConfiguration.setMaster("local[*]");
+        sparkConfiguration.set("spark.submit.deployMode", "client");
+        sparkConfiguration.set("spark.driver.host", "127.0.0.1");
+        sparkConfiguration.set("spark.driver.bindAddress", "127.0.0.1");
+        SparkSessionManager.getInstance().initializeConfigurationAndSession(sparkConfiguration, true);
+        RumbleRuntimeConfiguration configuration = new RumbleRuntimeConfiguration(new String[] {});
+        configuration.setExternalVariableValue(
+            Name.createVariableInNoNamespace("data"),
+            BenchmarkData.generateObjects(this.count, BenchmarkData.SEED)
+        );
+        this.rumble = new Rumble(configuration);
+    }
+
+    private void run(String query, Blackhole blackhole) {
+        SequenceOfItems sequence = this.rumble.runQuery(PROLOG + query);
+        sequence.open();
+        while (sequence.hasNext()) {
+            blackhole.consume(sequence.next());
+        }
+        sequence.close();
+    }
+
+    @Benchmark
+    public void groupBy(Blackhole blackhole) {
+        run(
+            "for $o in $data "
+                + "group by $k := $o.key "
+                + "return { \"key\" : $k, \"count\" : count($o), \"total\" : sum($o.value) }",
+            blackhole
+        );
+    }
+
+    @Benchmark
+    public void groupByWithAggregatedVariables(Blackhole blackhole) {
+        run(
+            "for $o in $data "
+                + "let $v := $o.value "
+                + "group by $k := $o.key "
+                + "return { \"key\" : $k, \"count\" : count($v), \"total\" : sum($v), \"max\" : max($v) }",
+            blackhole
+        );
+    }
+
+    @Benchmark
+    public void orderBy(Blackhole blackhole) {
+        run(
+            "for $o in $data "
+                + "order by $o.value descending, $o.id "
+                + "return $o.id",
+            blackhole
+        );
+    }
+
+    @Benchmark
+    public void orderByFirstTuples(Blackhole blackhole) {
+        run(
+            "(for $o in $data "
+                + "order by $o.price descending, $o.id "
+                + "return $o.id)[position() le 10]",
+            blackhole
+        );
+    }
+
+    @Benchmark
+    public void whereGroupByOrderBy(Blackhole blackhole) {
+        run(
+            "for $o in $data "
+                + "where $o.active "
+                + "group by $city := $o.address.city "
+                + "order by count($o) descending, $city "
+                + "return { \"city\" : $city, \"average\" : avg($o.price) }",
+            blackhole
+        );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rumbledb.api.Item;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.context.Name;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.expressions.ExecutionMode;
+import org.rumbledb.expressions.comparison.ComparisonExpression;
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.arithmetics.AdditiveOperationIterator;
+import org.rumbledb.runtime.misc.ComparisonIterator;
+import org.rumbledb.runtime.navigation.ObjectLookupIterator;
+import org.rumbledb.runtime.primary.IntegerRuntimeIterator;
+import org.rumbledb.runtime.primary.StringRuntimeIterator;
+import org.rumbledb.runtime.primary.VariableReferenceIterator;
+import org.rumbledb.types.SequenceType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the local evaluation of expressions on the objects of a generated dataset, as done for every tuple of a
+ * FLWOR expression: $o.address.city, $o.value gt 500 and $o.value + 1.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IteratorBenchmarks {
+
+    private static final ExceptionMetadata METADATA = ExceptionMetadata.EMPTY_METADATA;
+    private static final Name OBJECT = Name.createVariableInNoNamespace("o");
+
+    @Param({ "10000" })
+    public int count;
+
+    private List<Item> objects;
+    private DynamicContext context;
+    private RuntimeIterator objectLookup;
+    private RuntimeIterator comparison;
+    private RuntimeIterator addition;
+
+    @Setup
+    public void setup() {
+        this.objects = BenchmarkData.generateObjects(this.count, BenchmarkData.SEED);
+        this.context = new DynamicContext(RumbleRuntimeConfiguration.getDefaultConfiguration());
+        this.objectLookup = new ObjectLookupIterator(
+                new ObjectLookupIterator(
+                        variableReference(),
+                        new StringRuntimeIterator("address", ExecutionMode.LOCAL, METADATA),
+                        ExecutionMode.LOCAL,
+                        METADATA
+                ),
+                new StringRuntimeIterator("city", ExecutionMode.LOCAL, METADATA),
+                ExecutionMode.LOCAL,
+                METADATA
+        );
+        this.comparison = new ComparisonIterator(
+                valueLookup(),
+                new IntegerRuntimeIterator("500", ExecutionMode.LOCAL, METADATA),
+                ComparisonExpression.ComparisonOperator.VC_GT,
+                ExecutionMode.LOCAL,
+                METADATA
+        );
+        this.addition = new AdditiveOperationIterator(
+                valueLookup(),
+                new IntegerRuntimeIterator("1", ExecutionMode.LOCAL, METADATA),
+                false,
+                ExecutionMode.LOCAL,
+                METADATA
+        );
+    }
+
+    private static RuntimeIterator variableReference() {
+        return new VariableReferenceIterator(OBJECT, SequenceType.ITEM, ExecutionMode.LOCAL, METADATA);
+    }
+
+    private static RuntimeIterator valueLookup() {
+        return new ObjectLookupIterator(
+                variableReference(),
+                new StringRuntimeIterator("value", ExecutionMode.LOCAL, METADATA),
+                ExecutionMode.LOCAL,
+                METADATA
+        );
+    }
+
+    private void evaluate(RuntimeIterator iterator, Blackhole blackhole) {
+        for (Item object : this.objects) {
+            this.context.getVariableValues().addVariableValue(OBJECT, Collections.singletonList(object));
+            blackhole.consume(iterator.materializeFirstItemOrNull(this.context));
+        }
+    }
+
+    @Benchmark
+    public void objectLookup(Blackhole blackhole) {
+        evaluate(this.objectLookup, blackhole);
+    }
+
+    @Benchmark
+    public void valueComparison(Blackhole blackhole) {
+        evaluate(this.comparison, blackhole);
+    }
+
+    @Benchmark
+    public void addition(Blackhole blackhole) {
+        evaluate(this.addition, blackhole);
+    }
+}
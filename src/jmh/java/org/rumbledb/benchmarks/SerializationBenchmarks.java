@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.benchmarks;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.items.ObjectShapeCache;
+import org.rumbledb.items.parsing.ItemParser;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.serialization.Serializer;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions of the items of a generated dataset: parsing from JSON, serializing to JSON, and the Kryo
+ * round-trips used to store items in DataFrame columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmarks {
+
+    @Param({ "10000" })
+    public int count;
+
+    private List<String> lines;
+    private List<Item> objects;
+    private Serializer serializer;
+    private Kryo kryo;
+    private Output output;
+    private Input input;
+
+    @Setup
+    public void setup() {
+        this.lines = BenchmarkData.generateJSONLines(this.count, BenchmarkData.SEED);
+        this.objects = BenchmarkData.generateObjects(this.count, BenchmarkData.SEED);
+        this.serializer = new Serializer("UTF-8", Serializer.Method.JSON, false, "\n");
+        this.kryo = new Kryo();
+        this.kryo.setReferences(false);
+        FlworDataFrameUtils.registerKryoClassesKryo(this.kryo);
+        this.output = new Output(128, -1);
+        this.input = new Input();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String line : this.lines) {
+            JsonReader reader = new JsonReader(new StringReader(line));
+            blackhole.consume(ItemParser.getItemFromObject(reader, ExceptionMetadata.EMPTY_METADATA));
+        }
+    }
+
+    @Benchmark
+    public void parseWithSharedShapes(Blackhole blackhole) {
+        ObjectShapeCache shapes = new ObjectShapeCache();
+        for (String line : this.lines) {
+            JsonReader reader = new JsonReader(new StringReader(line));
+            blackhole.consume(ItemParser.getItemFromObject(reader, ExceptionMetadata.EMPTY_METADATA, shapes));
+        }
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) {
+        for (Item object : this.objects) {
+            blackhole.consume(this.serializer.serialize(object));
+        }
+    }
+
+    @Benchmark
+    public void kryoRoundTrip(Blackhole blackhole) {
+        for (Item object : this.objects) {
+            byte[] bytes = FlworDataFrameUtils.serializeItem(object, this.kryo, this.output);
+            this.input.setBuffer(bytes);
+            blackhole.consume(this.kryo.readClassAndObject(this.input));
+        }
+    }
+}
@@ -21,7 +21,10 @@ import org.rumbledb.serialization.Serializer;
 import org.rumbledb.types.FunctionSignature;
 import org.rumbledb.types.ItemType;
 
+import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 
 
 /**
@@ -692,4 +695,22 @@ public interface Item extends Serializable, KryoSerializable {
     default Transformer getTransformer() {
         throw new UnsupportedOperationException("Operation not defined for type " + this.getDynamicType());
     }
+
+    /**
+     * Objects, as well as the other items registered with the ItemSerializer, are always written by it and never by
+     * themselves.
+     */
+    @Override
+    default void write(Kryo kryo, Output output) {
+        throw new UnsupportedOperationException(
+                "Items of type " + this.getDynamicType() + " are serialized with the ItemSerializer."
+        );
+    }
+
+    @Override
+    default void read(Kryo kryo, Input input) {
+        throw new UnsupportedOperationException(
+                "Items of type " + this.getDynamicType() + " are deserialized with the ItemSerializer."
+        );
+    }
 }
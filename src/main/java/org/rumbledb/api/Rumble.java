@@ -8,7 +8,6 @@ import org.rumbledb.config.RumbleRuntimeConfiguration;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.expressions.module.MainModule;
 import org.rumbledb.runtime.RuntimeIterator;
-import sparksoniq.spark.SparkSessionManager;
 
 /**
  * The entry point for Java applications that want to execute JSONiq queries with Rumble.
@@ -31,7 +30,6 @@ public class Rumble {
      */
     public Rumble(RumbleRuntimeConfiguration configuration) {
         this.configuration = configuration;
-        SparkSessionManager.COLLECT_ITEM_LIMIT = this.configuration.getResultSizeCap();
     }
 
     /**
@@ -50,7 +48,12 @@ public class Rumble {
             mainModule,
             this.configuration
         );
-        return new SequenceOfItems(iterator, dynamicContext, this.configuration);
+        return new SequenceOfItems(
+                iterator,
+                dynamicContext,
+                this.configuration,
+                mainModule.getExpression().getStaticSequenceType()
+        );
     }
 
     /**
@@ -70,7 +73,12 @@ public class Rumble {
             mainModule,
             this.configuration
         );
-        return new SequenceOfItems(iterator, dynamicContext, this.configuration);
+        return new SequenceOfItems(
+                iterator,
+                dynamicContext,
+                this.configuration,
+                mainModule.getExpression().getStaticSequenceType()
+        );
     }
 
     /**
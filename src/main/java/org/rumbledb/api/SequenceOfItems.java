@@ -8,6 +8,7 @@ import org.apache.spark.sql.Row;
 import org.rumbledb.config.RumbleRuntimeConfiguration;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.types.SequenceType;
 
 import sparksoniq.spark.SparkSessionManager;
 
@@ -35,16 +36,27 @@ public class SequenceOfItems {
     private DynamicContext dynamicContext;
     private RumbleRuntimeConfiguration configuration;
     private boolean isOpen;
+    private SequenceType staticType;
 
     public SequenceOfItems(
             RuntimeIterator iterator,
             DynamicContext dynamicContext,
             RumbleRuntimeConfiguration configuration
+    ) {
+        this(iterator, dynamicContext, configuration, null);
+    }
+
+    public SequenceOfItems(
+            RuntimeIterator iterator,
+            DynamicContext dynamicContext,
+            RumbleRuntimeConfiguration configuration,
+            SequenceType staticType
     ) {
         this.iterator = iterator;
         this.isOpen = false;
         this.dynamicContext = dynamicContext;
         this.configuration = configuration;
+        this.staticType = staticType;
     }
 
     /**
@@ -135,6 +147,15 @@ public class SequenceOfItems {
         return this.iterator.getDataFrame(this.dynamicContext).getDataFrame();
     }
 
+    /**
+     * Returns the statically inferred type of the sequence.
+     *
+     * @return the static type, or null if static typing is not activated.
+     */
+    public SequenceType getStaticType() {
+        return this.staticType;
+    }
+
     /*
      * Populates a list of items with the output.
      *
@@ -177,7 +198,11 @@ public class SequenceOfItems {
     public long populateListWithWarningOnlyIfCapReached(List<Item> resultList) {
         if (this.availableAsRDD()) {
             JavaRDD<Item> rdd = this.iterator.getRDD(this.dynamicContext);
-            return SparkSessionManager.collectRDDwithLimitWarningOnly(rdd, resultList);
+            return SparkSessionManager.collectRDDwithLimitWarningOnly(
+                rdd,
+                this.configuration.getResultSizeCap(),
+                resultList
+            );
         } else {
             return populateList(resultList);
         }
@@ -20,27 +20,42 @@
 
 package org.rumbledb.cli;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapred.TextOutputFormat;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.sql.DataFrameWriter;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.storage.StorageLevel;
 import org.rumbledb.api.Item;
 import org.rumbledb.api.Rumble;
 import org.rumbledb.api.SequenceOfItems;
 import org.rumbledb.config.RumbleRuntimeConfiguration;
 import org.rumbledb.exceptions.CliException;
 import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.OurBadException;
 import org.rumbledb.optimizations.Profiler;
 import org.rumbledb.runtime.functions.input.FileSystemUtil;
+import org.rumbledb.runtime.typing.SchemaInference;
+import org.rumbledb.serialization.OutputStreamSerializer;
 
+import scala.Tuple2;
 import sparksoniq.spark.SparkSessionManager;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 public class JsoniqQueryExecutor {
@@ -48,7 +63,6 @@ public class JsoniqQueryExecutor {
 
     public JsoniqQueryExecutor(RumbleRuntimeConfiguration configuration) {
         this.configuration = configuration;
-        SparkSessionManager.COLLECT_ITEM_LIMIT = configuration.getResultSizeCap();
     }
 
     private void checkOutputFile(URI outputUri) throws IOException {
@@ -113,68 +127,72 @@ public class JsoniqQueryExecutor {
             sequence = rumble.runQuery(queryUri);
         }
 
-        if (
-            !(this.configuration.getOutputFormat().equals("json")
-                || this.configuration.getOutputFormat().equals("tyson")
-                || this.configuration.getOutputFormat().equals("xml-json-hybrid")
-                || this.configuration.getOutputFormat().equals("yaml"))
-                &&
-                !sequence.availableAsDataFrame()
-        ) {
+        boolean isTextFormat = this.configuration.getOutputFormat().equals("json")
+            || this.configuration.getOutputFormat().equals("tyson")
+            || this.configuration.getOutputFormat().equals("xml-json-hybrid")
+            || this.configuration.getOutputFormat().equals("yaml");
+        if (!isTextFormat && !sequence.availableAsDataFrame() && outputPath == null) {
             throw new CliException(
-                    "Rumble cannot output another format than json or tyson or xml-json-hybrid or yaml if the query does not output a structured collection. You can create a structured collection from a sequence of objects by calling the function annotate(<your query here> , <a schema here>)."
+                    "Rumble cannot output another format than json or tyson or xml-json-hybrid or yaml to the standard output if the query does not output a structured collection. Please specify an output path with --output-path, so that the schema is inferred from the output, or create a structured collection from a sequence of objects by calling the function annotate(<your query here> , <a schema here>)."
             );
         }
 
         if (sequence.availableAsDataFrame() && outputPath != null) {
-            Dataset<Row> df = sequence.getAsDataFrame();
-            if (this.configuration.getNumberOfOutputPartitions() > 0) {
-                df = df.repartition(this.configuration.getNumberOfOutputPartitions());
-            }
-            DataFrameWriter<Row> writer = df.write();
-            Map<String, String> options = this.configuration.getOutputFormatOptions();
-            for (String key : options.keySet()) {
-                writer.option(key, options.get(key));
-                System.err.println("[INFO] Writing with option " + key + " : " + options.get(key));
-            }
-            String format = this.configuration.getOutputFormat();
-            System.err.println("[INFO] Writing to format " + format);
-            switch (format) {
-                case "json":
-                    writer.json(outputPath);
-                    break;
-                case "csv":
-                    writer.csv(outputPath);
-                    break;
-                case "parquet":
-                    writer.parquet(outputPath);
-                    break;
-                default:
-                    writer.format(format).save(outputPath);
+            writeDataFrame(sequence.getAsDataFrame(), outputPath);
+        } else if (!isTextFormat && outputPath != null) {
+            JavaRDD<Item> rdd;
+            if (sequence.availableAsRDD()) {
+                rdd = sequence.getAsRDD();
+            } else {
+                List<Item> items = new ArrayList<>();
+                long materializationCount = sequence.populateListWithWarningOnlyIfCapReached(items);
+                if (materializationCount != -1) {
+                    issueMaterializationWarning(materializationCount, this.configuration.getResultSizeCap());
+                }
+                rdd = SparkSessionManager.getInstance().getJavaSparkContext().parallelize(items);
             }
+            // the items are used twice, to infer the schema and to convert them to rows.
+            rdd.persist(StorageLevel.MEMORY_AND_DISK());
+            System.err.println("[INFO] Inferring the schema of the output.");
+            writeDataFrame(
+                SchemaInference.convertRDDToDataFrame(rdd, sequence.getStaticType(), this.configuration),
+                outputPath
+            );
+            rdd.unpersist();
         } else if (sequence.availableAsRDD() && outputPath != null) {
             JavaRDD<Item> rdd = sequence.getAsRDD();
-            RumbleRuntimeConfiguration configuration = this.configuration;
-            JavaRDD<String> outputRDD = rdd.map(o -> configuration.getSerializer().serialize(o));
             if (this.configuration.getNumberOfOutputPartitions() > 0) {
-                outputRDD = outputRDD.repartition(this.configuration.getNumberOfOutputPartitions());
+                rdd = rdd.repartition(this.configuration.getNumberOfOutputPartitions());
             }
-
-            outputRDD.saveAsTextFile(outputPath);
+            saveAsTextFile(rdd, outputPath, this.configuration);
         } else {
             outputList = new ArrayList<>();
             long materializationCount = sequence.populateListWithWarningOnlyIfCapReached(outputList);
-            RumbleRuntimeConfiguration configuration = this.configuration;
-            List<String> lines = outputList.stream()
-                .map(x -> configuration.getSerializer().serialize(x))
-                .collect(Collectors.toList());
             if (outputPath != null) {
-                FileSystemUtil.write(outputUri, lines, this.configuration, ExceptionMetadata.EMPTY_METADATA);
+                try (
+                    OutputStreamSerializer serializer = new OutputStreamSerializer(
+                            this.configuration.getSerializer(),
+                            getOutputStream(outputUri, this.configuration)
+                    )
+                ) {
+                    for (Item item : outputList) {
+                        serializer.writeLine(item);
+                    }
+                }
             } else {
-                System.out.println(String.join("\n", lines));
+                // the standard output is only flushed, as it remains open.
+                @SuppressWarnings("resource")
+                OutputStreamSerializer serializer = new OutputStreamSerializer(
+                        this.configuration.getSerializer(),
+                        System.out
+                );
+                for (Item item : outputList) {
+                    serializer.writeLine(item);
+                }
+                serializer.flush();
             }
             if (materializationCount != -1) {
-                issueMaterializationWarning(materializationCount);
+                issueMaterializationWarning(materializationCount, this.configuration.getResultSizeCap());
                 if (outputPath == null) {
                     System.err.println(
                         "Did you really intend to collect results to the standard input? If you want the complete output, consider using --output-path to select a destination on any file system."
@@ -198,12 +216,140 @@ public class JsoniqQueryExecutor {
         return outputList;
     }
 
-    public static void issueMaterializationWarning(long materializationCount) {
+    private void writeDataFrame(Dataset<Row> df, String outputPath) {
+        if (this.configuration.getNumberOfOutputPartitions() > 0) {
+            df = df.repartition(this.configuration.getNumberOfOutputPartitions());
+        }
+        DataFrameWriter<Row> writer = df.write();
+        Map<String, String> options = this.configuration.getOutputFormatOptions();
+        for (String key : options.keySet()) {
+            writer.option(key, options.get(key));
+            System.err.println("[INFO] Writing with option " + key + " : " + options.get(key));
+        }
+        String format = this.configuration.getOutputFormat();
+        System.err.println("[INFO] Writing to format " + format);
+        switch (format) {
+            case "json":
+                writer.json(outputPath);
+                break;
+            case "csv":
+                writer.csv(outputPath);
+                break;
+            case "parquet":
+                writer.parquet(outputPath);
+                break;
+            default:
+                writer.format(format).save(outputPath);
+        }
+    }
+
+    /**
+     * Opens the file of the output path, compressed with the codec of the compression output format option, if any.
+     */
+    private static OutputStream getOutputStream(URI outputUri, RumbleRuntimeConfiguration configuration)
+            throws IOException {
+        OutputStream outputStream = FileSystemUtil.getDataOutputStream(
+            outputUri,
+            configuration,
+            ExceptionMetadata.EMPTY_METADATA
+        );
+        Class<? extends CompressionCodec> codec = getCompressionCodec(configuration);
+        if (codec == null) {
+            return outputStream;
+        }
+        try {
+            return ReflectionUtils.newInstance(codec, getHadoopConfiguration()).createOutputStream(outputStream);
+        } catch (IOException | RuntimeException e) {
+            outputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the items of an RDD as text files, with one serialized item per line. The items are serialized directly
+     * to the bytes of the lines, which are compressed with the codec of the compression output format option, if any.
+     */
+    private static void saveAsTextFile(
+            JavaRDD<Item> rdd,
+            String outputPath,
+            RumbleRuntimeConfiguration configuration
+    ) {
+        JavaPairRDD<NullWritable, Text> lines = rdd.mapPartitionsToPair(items -> {
+            LineBuffer buffer = new LineBuffer();
+            // it writes to the buffer of the lines, which has no resources to release.
+            @SuppressWarnings("resource")
+            OutputStreamSerializer serializer = new OutputStreamSerializer(configuration.getSerializer(), buffer);
+            // the line is reused, as the output format writes each line before the next one is serialized.
+            Text line = new Text();
+            Tuple2<NullWritable, Text> pair = new Tuple2<>(NullWritable.get(), line);
+            return new Iterator<Tuple2<NullWritable, Text>>() {
+                @Override
+                public boolean hasNext() {
+                    return items.hasNext();
+                }
+
+                @Override
+                public Tuple2<NullWritable, Text> next() {
+                    buffer.reset();
+                    try {
+                        serializer.write(items.next());
+                        serializer.flush();
+                    } catch (IOException e) {
+                        RuntimeException exception = new OurBadException("Not able to serialize an item.");
+                        exception.initCause(e);
+                        throw exception;
+                    }
+                    line.set(buffer.getBytes(), 0, buffer.size());
+                    return pair;
+                }
+            };
+        });
+        Class<? extends CompressionCodec> codec = getCompressionCodec(configuration);
+        if (codec == null) {
+            lines.saveAsHadoopFile(outputPath, NullWritable.class, Text.class, TextOutputFormat.class);
+        } else {
+            lines.saveAsHadoopFile(outputPath, NullWritable.class, Text.class, TextOutputFormat.class, codec);
+        }
+    }
+
+    /**
+     * A byte array output stream that gives access to its bytes without copying them.
+     */
+    private static class LineBuffer extends ByteArrayOutputStream {
+        private byte[] getBytes() {
+            return this.buf;
+        }
+    }
+
+    /**
+     * Returns the codec of the compression output format option (e.g., gzip, bzip2, lz4, snappy or deflate).
+     *
+     * @param configuration the configuration with the output format options.
+     * @return the codec class, or null if the output is not compressed.
+     */
+    private static Class<? extends CompressionCodec> getCompressionCodec(RumbleRuntimeConfiguration configuration) {
+        String compression = configuration.getOutputFormatOptions().get("compression");
+        if (compression == null || compression.equals("none") || compression.equals("uncompressed")) {
+            return null;
+        }
+        Class<? extends CompressionCodec> codec = new CompressionCodecFactory(getHadoopConfiguration())
+            .getCodecClassByName(compression);
+        if (codec == null) {
+            throw new CliException("Unknown compression codec: " + compression + ".");
+        }
+        return codec;
+    }
+
+    private static Configuration getHadoopConfiguration() {
+        return SparkSessionManager.getInstance().getJavaSparkContext().hadoopConfiguration();
+    }
+
+    public static void issueMaterializationWarning(long materializationCount, int materializationCap) {
         if (materializationCount == Long.MAX_VALUE) {
             System.err.println(
                 "Warning! The output sequence contains "
                     + "too many items and its materialization was capped at "
-                    + SparkSessionManager.COLLECT_ITEM_LIMIT
+                    + materializationCap
                     + " items. This value can be configured to something higher with the --materialization-cap parameter (or its deprecated equivalent --result-size) at startup"
             );
         } else {
@@ -211,7 +357,7 @@ public class JsoniqQueryExecutor {
                 "Warning! The output sequence contains "
                     + materializationCount
                     + " items but its materialization was capped at "
-                    + SparkSessionManager.COLLECT_ITEM_LIMIT
+                    + materializationCap
                     + " items. This value can be configured to something higher with the --materialization-cap parameter (or its deprecated equivalent --result-size) at startup"
             );
         }
@@ -220,12 +366,20 @@ public class JsoniqQueryExecutor {
     public long runInteractive(String query, List<Item> resultList) throws IOException {
         Rumble rumble = new Rumble(this.configuration);
         SequenceOfItems sequence = rumble.runQuery(query);
+        return runInteractive(sequence, resultList);
+    }
+
+    public long runInteractive(SequenceOfItems sequence, List<Item> resultList) {
         if (!sequence.availableAsRDD()) {
             return sequence.populateList(resultList);
         }
         resultList.clear();
         JavaRDD<Item> rdd = sequence.getAsRDD();
-        return SparkSessionManager.collectRDDwithLimitWarningOnly(rdd, resultList);
+        return SparkSessionManager.collectRDDwithLimitWarningOnly(
+            rdd,
+            this.configuration.getResultSizeCap(),
+            resultList
+        );
     }
 
 }
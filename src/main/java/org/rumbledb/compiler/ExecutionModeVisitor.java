@@ -20,6 +20,7 @@
 
 package org.rumbledb.compiler;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
@@ -34,6 +35,7 @@ import org.rumbledb.expressions.AbstractNodeVisitor;
 import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.expressions.Expression;
 import org.rumbledb.expressions.Node;
+import org.rumbledb.expressions.arithmetic.UnaryExpression;
 import org.rumbledb.expressions.control.TypeSwitchExpression;
 import org.rumbledb.expressions.control.TypeswitchCase;
 import org.rumbledb.expressions.flowr.Clause;
@@ -44,13 +46,17 @@ import org.rumbledb.expressions.flowr.ForClause;
 import org.rumbledb.expressions.flowr.GroupByClause;
 import org.rumbledb.expressions.flowr.LetClause;
 import org.rumbledb.expressions.flowr.ReturnClause;
+import org.rumbledb.expressions.flowr.SimpleMapExpression;
+import org.rumbledb.expressions.miscellaneous.RangeExpression;
 import org.rumbledb.expressions.module.FunctionDeclaration;
 import org.rumbledb.expressions.module.LibraryModule;
 import org.rumbledb.expressions.module.MainModule;
 import org.rumbledb.expressions.module.Prolog;
 import org.rumbledb.expressions.module.VariableDeclaration;
+import org.rumbledb.expressions.postfix.FilterExpression;
 import org.rumbledb.expressions.primary.FunctionCallExpression;
 import org.rumbledb.expressions.primary.InlineFunctionExpression;
+import org.rumbledb.expressions.primary.IntegerLiteralExpression;
 import org.rumbledb.expressions.primary.VariableReferenceExpression;
 import org.rumbledb.expressions.typing.ValidateTypeExpression;
 import org.rumbledb.types.SequenceType;
@@ -63,10 +69,13 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
 
     private VisitorConfig visitorConfig;
     private RumbleRuntimeConfiguration configuration;
+    // the number of enclosing expressions that are evaluated in parallel, for each tuple or item of an RDD.
+    private int parallelNestingDepth;
 
     ExecutionModeVisitor(RumbleRuntimeConfiguration configuration) {
         this.visitorConfig = VisitorConfig.staticContextVisitorInitialPassConfig;
         this.configuration = configuration;
+        this.parallelNestingDepth = 0;
     }
 
     void setVisitorConfig(VisitorConfig visitorConfig) {
@@ -166,7 +175,7 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
             );
         populateFunctionDeclarationStaticContext(expression.getStaticContext(), modes, expression);
         // visit the body first to make its execution mode available while adding the function to the catalog
-        this.visit(expression.getBody(), expression.getStaticContext());
+        visitFunctionBody(expression, expression.getStaticContext());
         expression.initHighestExecutionMode(this.visitorConfig);
         declaration.initHighestExecutionMode(this.visitorConfig);
         expression.registerUserDefinedFunctionExecutionMode(
@@ -188,7 +197,7 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
                     )
             );
         // visit the body first to make its execution mode available while adding the function to the catalog
-        this.visit(expression.getBody(), expression.getBody().getStaticContext());
+        visitFunctionBody(expression, expression.getBody().getStaticContext());
         expression.initHighestExecutionMode(this.visitorConfig);
         expression.registerUserDefinedFunctionExecutionMode(
             this.visitorConfig
@@ -196,6 +205,15 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
         return argument;
     }
 
+    /**
+     * Visits the body of a function, which may be called for each tuple or item of an RDD.
+     */
+    private void visitFunctionBody(InlineFunctionExpression expression, StaticContext argument) {
+        ++this.parallelNestingDepth;
+        this.visit(expression.getBody(), argument);
+        --this.parallelNestingDepth;
+    }
+
     @Override
     public StaticContext visitFunctionCall(FunctionCallExpression expression, StaticContext argument) {
         visitDescendants(expression, expression.getStaticContext());
@@ -224,6 +242,73 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
     }
     // endregion
 
+    @Override
+    public StaticContext visitRangeExpr(RangeExpression expression, StaticContext argument) {
+        visitDescendants(expression, argument);
+        // big ranges with literal bounds are generated in parallel, unless they are already evaluated in parallel.
+        BigInteger left = getIntegerLiteralValue(expression.getChildren().get(0));
+        BigInteger right = getIntegerLiteralValue(expression.getChildren().get(1));
+        long threshold = this.configuration.getParallelRangeThreshold();
+        if (
+            threshold > 0
+                && this.parallelNestingDepth == 0
+                && left != null
+                && right != null
+                && right.subtract(left).add(BigInteger.ONE).compareTo(BigInteger.valueOf(threshold)) >= 0
+        ) {
+            expression.setHighestExecutionMode(ExecutionMode.DATAFRAME);
+            return argument;
+        }
+        expression.initHighestExecutionMode(this.visitorConfig);
+        return argument;
+    }
+
+    private static BigInteger getIntegerLiteralValue(Node node) {
+        if (node instanceof IntegerLiteralExpression) {
+            return new BigInteger(((IntegerLiteralExpression) node).getLexicalValue());
+        }
+        if (node instanceof UnaryExpression) {
+            BigInteger value = getIntegerLiteralValue(((UnaryExpression) node).getMainExpression());
+            if (value != null && ((UnaryExpression) node).isNegated()) {
+                return value.negate();
+            }
+            return value;
+        }
+        return null;
+    }
+
+    @Override
+    public StaticContext visitFilterExpression(FilterExpression expression, StaticContext argument) {
+        this.visit(expression.getMainExpression(), argument);
+        visitNestedExpression(expression.getMainExpression(), expression.getPredicateExpression(), argument);
+        expression.initHighestExecutionMode(this.visitorConfig);
+        return argument;
+    }
+
+    @Override
+    public StaticContext visitSimpleMapExpr(SimpleMapExpression expression, StaticContext argument) {
+        Expression leftExpression = (Expression) expression.getChildren().get(0);
+        Expression rightExpression = (Expression) expression.getChildren().get(1);
+        this.visit(leftExpression, argument);
+        visitNestedExpression(leftExpression, rightExpression, argument);
+        expression.initHighestExecutionMode(this.visitorConfig);
+        return argument;
+    }
+
+    /**
+     * Visits an expression that is evaluated for each item of another one, e.g., the predicate of a filter.
+     */
+    private void visitNestedExpression(Expression input, Expression nestedExpression, StaticContext argument) {
+        boolean isParallel = input.getHighestExecutionMode(this.visitorConfig).isRDDOrDataFrame();
+        if (isParallel) {
+            ++this.parallelNestingDepth;
+        }
+        this.visit(nestedExpression, argument);
+        if (isParallel) {
+            --this.parallelNestingDepth;
+        }
+    }
+
     @Override
     public StaticContext visitReturnClause(ReturnClause expression, StaticContext argument) {
         visitDescendants(expression, expression.getStaticContext());
@@ -276,11 +361,20 @@ public class ExecutionModeVisitor extends AbstractNodeVisitor<StaticContext> {
     public StaticContext visitFlowrExpression(FlworExpression expression, StaticContext argument) {
         Clause clause = expression.getReturnClause().getFirstClause();
         while (clause != null) {
+            // the expressions of the clauses after a parallel clause are evaluated for each tuple of an RDD.
+            boolean isParallel = clause.getPreviousClause() != null
+                && clause.getPreviousClause().getHighestExecutionMode(this.visitorConfig).isRDDOrDataFrame();
+            if (isParallel) {
+                ++this.parallelNestingDepth;
+            }
             if (clause.getNextClause() != null) {
                 this.visit(clause, clause.getNextClause().getStaticContext());
             } else {
                 this.visit(clause, null);
             }
+            if (isParallel) {
+                --this.parallelNestingDepth;
+            }
             clause = clause.getNextClause();
         }
         if (expression.alwaysReturnsAtMostOneItem()) {
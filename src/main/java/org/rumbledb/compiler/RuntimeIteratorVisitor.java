@@ -55,6 +55,7 @@ import org.rumbledb.expressions.flowr.GroupByClause;
 import org.rumbledb.expressions.flowr.LetClause;
 import org.rumbledb.expressions.flowr.OrderByClause;
 import org.rumbledb.expressions.flowr.OrderByClauseSortingKey;
+import org.rumbledb.expressions.flowr.ReturnClause;
 import org.rumbledb.expressions.flowr.WhereClause;
 import org.rumbledb.expressions.logic.AndExpression;
 import org.rumbledb.expressions.logic.NotExpression;
@@ -112,6 +113,7 @@ import org.rumbledb.runtime.functions.DynamicFunctionCallIterator;
 import org.rumbledb.runtime.functions.FunctionRuntimeIterator;
 import org.rumbledb.runtime.functions.NamedFunctionRefRuntimeIterator;
 import org.rumbledb.runtime.functions.StaticUserDefinedFunctionCallIterator;
+import org.rumbledb.runtime.functions.sequences.general.SubsequenceFunctionIterator;
 import org.rumbledb.runtime.logics.AndOperationIterator;
 import org.rumbledb.runtime.logics.NotOperationIterator;
 import org.rumbledb.runtime.logics.OrOperationIterator;
@@ -141,7 +143,9 @@ import org.rumbledb.runtime.primary.VariableReferenceIterator;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.types.SequenceType;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -151,10 +155,13 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
 
     private VisitorConfig visitorConfig;
     private RumbleRuntimeConfiguration config;
+    // Order by clauses of which only the first tuples are needed, found while visiting enclosing expressions.
+    private Map<OrderByClause, Integer> orderByLimits;
 
     public RuntimeIteratorVisitor(RumbleRuntimeConfiguration config) {
         this.visitorConfig = VisitorConfig.runtimeIteratorVisitorConfig;
         this.config = config;
+        this.orderByLimits = new IdentityHashMap<>();
     }
 
     @Override
@@ -241,7 +248,9 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
                     forClause.isAllowEmpty(),
                     assignmentIterator,
                     forClause.getHighestExecutionMode(this.visitorConfig),
-                    clause.getMetadata()
+                    clause.getMetadata(),
+                    forClause.getExpression().getStaticSequenceType(),
+                    forClause.getAccessedFields()
             );
         } else if (clause instanceof LetClause) {
             LetClause letClause = (LetClause) clause;
@@ -251,6 +260,7 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
                     letClause.getVariableName(),
                     letClause.getActualSequenceType(),
                     assignmentIterator,
+                    letClause.getNumberOfReferences() > 1,
                     letClause.getHighestExecutionMode(this.visitorConfig),
                     clause.getMetadata()
             );
@@ -295,7 +305,8 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
                             this.visit(orderExpr.getExpression(), argument),
                             orderExpr.isAscending(),
                             orderExpr.getUri(),
-                            emptyOrder
+                            emptyOrder,
+                            orderExpr.getExpression().getStaticSequenceType()
                     )
                 );
             }
@@ -303,6 +314,7 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
                     previousIterator,
                     expressionsWithIterator,
                     ((OrderByClause) clause).isStable(),
+                    getOrderByLimit((OrderByClause) clause),
                     clause.getHighestExecutionMode(this.visitorConfig),
                     clause.getMetadata()
             );
@@ -324,6 +336,150 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
         throw new OurBadException("Clause unrecognized.");
     }
 
+    /**
+     * Determines how many tuples of an order by clause are needed, so that it can keep only these instead of sorting
+     * all of them. This is the case if the order by clause is followed by a count clause and a where clause that
+     * compares the counter with an integer literal, as in "order by $x.score count $c where $c le 10", or if the
+     * FLWOR expression is the first argument of a call to subsequence() starting at position 1.
+     *
+     * @param clause the order by clause.
+     * @return the number of tuples needed, or -1 if all tuples are needed.
+     */
+    private int getOrderByLimit(OrderByClause clause) {
+        int limit = this.orderByLimits.getOrDefault(clause, -1);
+        Clause nextClause = clause.getNextClause();
+        // let and count clauses do not change the number of tuples.
+        while (nextClause instanceof LetClause || nextClause instanceof CountClause) {
+            if (nextClause instanceof CountClause && nextClause.getNextClause() instanceof WhereClause) {
+                int countLimit = getCountLimit(
+                    ((WhereClause) nextClause.getNextClause()).getWhereExpression(),
+                    ((CountClause) nextClause).getCountVariable().getVariableName()
+                );
+                if (countLimit != -1 && (limit == -1 || countLimit < limit)) {
+                    limit = countLimit;
+                }
+                break;
+            }
+            nextClause = nextClause.getNextClause();
+        }
+        return limit;
+    }
+
+    /**
+     * Determines the highest value of a counter that satisfies a where condition, if the condition is a comparison of
+     * the counter with an integer literal.
+     *
+     * @param condition the condition of the where clause.
+     * @param countVariable the name of the counter variable.
+     * @return the highest value of the counter, or -1 if it cannot be determined.
+     */
+    private static int getCountLimit(Expression condition, Name countVariable) {
+        if (!(condition instanceof ComparisonExpression)) {
+            return -1;
+        }
+        ComparisonExpression comparison = (ComparisonExpression) condition;
+        ComparisonExpression.ComparisonOperator operator = comparison.getComparisonOperator();
+        if (!operator.isValueComparison()) {
+            operator = operator.getCorrespondingValueComparison();
+        }
+        Node left = comparison.getChildren().get(0);
+        Node right = comparison.getChildren().get(1);
+        BigInteger value;
+        if (isVariableReference(left, countVariable) && right instanceof IntegerLiteralExpression) {
+            value = new BigInteger(((IntegerLiteralExpression) right).getLexicalValue());
+        } else if (isVariableReference(right, countVariable) && left instanceof IntegerLiteralExpression) {
+            value = new BigInteger(((IntegerLiteralExpression) left).getLexicalValue());
+            // the counter is on the right: flip the comparison.
+            switch (operator) {
+                case VC_GE:
+                    operator = ComparisonExpression.ComparisonOperator.VC_LE;
+                    break;
+                case VC_GT:
+                    operator = ComparisonExpression.ComparisonOperator.VC_LT;
+                    break;
+                case VC_EQ:
+                    break;
+                default:
+                    return -1;
+            }
+        } else {
+            return -1;
+        }
+        switch (operator) {
+            case VC_LE:
+            case VC_EQ:
+                return getLimit(value);
+            case VC_LT:
+                return getLimit(value.subtract(BigInteger.ONE));
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isVariableReference(Node node, Name variableName) {
+        return node instanceof VariableReferenceExpression
+            && ((VariableReferenceExpression) node).getVariableName().equals(variableName);
+    }
+
+    private static int getLimit(BigInteger value) {
+        if (value.signum() <= 0 || value.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > 0) {
+            return -1;
+        }
+        return value.intValue();
+    }
+
+    /**
+     * Records the number of tuples needed by the order by clause of a FLWOR expression passed to subsequence(), if the
+     * subsequence starts at position 1 and has a literal length, and if every tuple is known to produce at least one
+     * item.
+     *
+     * @param expression the function call.
+     */
+    private void registerSubsequenceLimit(FunctionCallExpression expression) {
+        List<Expression> arguments = expression.getArguments();
+        if (arguments.size() != 3 || arguments.contains(null)) {
+            return;
+        }
+        FunctionIdentifier identifier = new FunctionIdentifier(expression.getFunctionName(), 3);
+        if (
+            !BuiltinFunctionCatalogue.exists(identifier)
+                || BuiltinFunctionCatalogue.getBuiltinFunction(identifier)
+                    .getFunctionIteratorClass() != SubsequenceFunctionIterator.class
+        ) {
+            return;
+        }
+        if (
+            !(arguments.get(0) instanceof FlworExpression)
+                || !(arguments.get(1) instanceof IntegerLiteralExpression)
+                || !(arguments.get(2) instanceof IntegerLiteralExpression)
+        ) {
+            return;
+        }
+        if (!new BigInteger(((IntegerLiteralExpression) arguments.get(1)).getLexicalValue()).equals(BigInteger.ONE)) {
+            return;
+        }
+        int limit = getLimit(new BigInteger(((IntegerLiteralExpression) arguments.get(2)).getLexicalValue()));
+        if (limit == -1) {
+            return;
+        }
+        ReturnClause returnClause = ((FlworExpression) arguments.get(0)).getReturnClause();
+        SequenceType returnType = returnClause.getReturnExpr().getStaticSequenceType();
+        if (
+            returnType == null
+                || returnType.isEmptySequence()
+                || !returnType.isAritySubtypeOf(SequenceType.Arity.OneOrMore)
+        ) {
+            return;
+        }
+        Clause clause = returnClause.getPreviousClause();
+        while (clause instanceof LetClause || clause instanceof CountClause) {
+            clause = clause.getPreviousClause();
+        }
+        if (clause instanceof OrderByClause) {
+            this.orderByLimits.put((OrderByClause) clause, limit);
+        }
+    }
+
     @Override
     public RuntimeIterator visitVariableReference(VariableReferenceExpression expression, RuntimeIterator argument) {
         RuntimeIterator runtimeIterator = new VariableReferenceIterator(
@@ -513,6 +669,7 @@ public class RuntimeIteratorVisitor extends AbstractNodeVisitor<RuntimeIterator>
 
     @Override
     public RuntimeIterator visitFunctionCall(FunctionCallExpression expression, RuntimeIterator argument) {
+        registerSubsequenceLimit(expression);
         List<RuntimeIterator> arguments = new ArrayList<>();
         ExceptionMetadata iteratorMetadata = expression.getMetadata();
         for (Expression arg : expression.getArguments()) {
@@ -20,6 +20,7 @@
 
 package org.rumbledb.compiler;
 
+import org.apache.commons.text.StringEscapeUtils;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.DirectedAcyclicGraph;
 
@@ -43,7 +44,9 @@ import org.rumbledb.expressions.Expression;
 import org.rumbledb.expressions.Node;
 import org.rumbledb.expressions.control.TypeSwitchExpression;
 import org.rumbledb.expressions.control.TypeswitchCase;
+import org.rumbledb.expressions.flowr.Clause;
 import org.rumbledb.expressions.flowr.CountClause;
+import org.rumbledb.expressions.flowr.FlworExpression;
 import org.rumbledb.expressions.flowr.ForClause;
 import org.rumbledb.expressions.flowr.GroupByClause;
 import org.rumbledb.expressions.flowr.GroupByVariableDeclaration;
@@ -59,10 +62,12 @@ import org.rumbledb.expressions.module.TypeDeclaration;
 import org.rumbledb.expressions.module.VariableDeclaration;
 import org.rumbledb.expressions.postfix.DynamicFunctionCallExpression;
 import org.rumbledb.expressions.postfix.FilterExpression;
+import org.rumbledb.expressions.postfix.ObjectLookupExpression;
 import org.rumbledb.expressions.primary.ContextItemExpression;
 import org.rumbledb.expressions.primary.FunctionCallExpression;
 import org.rumbledb.expressions.primary.InlineFunctionExpression;
 import org.rumbledb.expressions.primary.NamedFunctionReferenceExpression;
+import org.rumbledb.expressions.primary.StringLiteralExpression;
 import org.rumbledb.expressions.primary.VariableReferenceExpression;
 
 
@@ -331,6 +336,212 @@ public class VariableDependenciesVisitor extends AbstractNodeVisitor<Void> {
         return null;
     }
 
+    @Override
+    public Void visitFlowrExpression(FlworExpression expression, Void argument) {
+        for (
+                Clause clause = expression.getReturnClause().getFirstClause();
+                clause != null;
+                clause = clause.getNextClause()
+        ) {
+            if (clause instanceof LetClause) {
+                LetClause letClause = (LetClause) clause;
+                letClause.setNumberOfReferences(countReferencesInSubsequentClauses(letClause));
+            }
+            if (clause instanceof ForClause) {
+                ForClause forClause = (ForClause) clause;
+                forClause.setAccessedFields(getAccessedFieldsInSubsequentClauses(forClause));
+            }
+            if (!(clause instanceof ReturnClause)) {
+                // the return clause is visited below, the other clauses are only reached through it.
+                for (Node child : clause.getChildren()) {
+                    visit(child, null);
+                }
+            }
+        }
+        return defaultAction(expression, argument);
+    }
+
+    /**
+     * Counts how many times the variable of a let clause is evaluated by the subsequent clauses, until it is hidden
+     * by another variable with the same name. A reference that follows a for or group by clause counts twice, as it is
+     * evaluated for every tuple.
+     *
+     * @param letClause the let clause.
+     * @return the number of references.
+     */
+    private static int countReferencesInSubsequentClauses(LetClause letClause) {
+        Name variableName = letClause.getVariableName();
+        int result = 0;
+        int weight = 1;
+        for (Clause clause = letClause.getNextClause(); clause != null; clause = clause.getNextClause()) {
+            if (clause instanceof CountClause) {
+                if (((CountClause) clause).getCountVariable().getVariableName().equals(variableName)) {
+                    break;
+                }
+                continue;
+            }
+            for (Node child : clause.getChildren()) {
+                result += weight * countReferences(child, variableName);
+            }
+            if (clause instanceof ForClause) {
+                ForClause forClause = (ForClause) clause;
+                if (
+                    variableName.equals(forClause.getVariableName())
+                        || variableName.equals(forClause.getPositionalVariableName())
+                ) {
+                    break;
+                }
+                weight = 2;
+            } else if (clause instanceof LetClause) {
+                if (variableName.equals(((LetClause) clause).getVariableName())) {
+                    break;
+                }
+            } else if (clause instanceof GroupByClause) {
+                boolean isHidden = false;
+                for (GroupByVariableDeclaration variable : ((GroupByClause) clause).getGroupVariables()) {
+                    if (variableName.equals(variable.getVariableName())) {
+                        isHidden = true;
+                        if (variable.getExpression() == null) {
+                            result += weight;
+                        }
+                    }
+                }
+                if (isHidden) {
+                    break;
+                }
+                weight = 2;
+            }
+        }
+        return result;
+    }
+
+    private static int countReferences(Node node, Name variableName) {
+        if (node == null) {
+            return 0;
+        }
+        if (node instanceof VariableReferenceExpression) {
+            return variableName.equals(((VariableReferenceExpression) node).getVariableName()) ? 1 : 0;
+        }
+        int result = 0;
+        if (node instanceof FlworExpression) {
+            // the clauses of a nested FLWOR expression that follow a for or group by clause are evaluated repeatedly.
+            int weight = 1;
+            for (
+                    Clause clause = ((FlworExpression) node).getReturnClause().getFirstClause();
+                    clause != null;
+                    clause = clause.getNextClause()
+            ) {
+                for (Node child : clause.getChildren()) {
+                    result += weight * countReferences(child, variableName);
+                }
+                if (clause instanceof ForClause || clause instanceof GroupByClause) {
+                    weight = 2;
+                }
+            }
+            return result;
+        }
+        for (Node child : node.getChildren()) {
+            result += countReferences(child, variableName);
+        }
+        return result;
+    }
+
+    /**
+     * Collects the keys that the subsequent clauses look up on the variable of a for clause, until it is hidden by
+     * another variable with the same name. Only these fields then need to be read from the input.
+     *
+     * @param forClause the for clause.
+     * @return the keys, or null if the variable is also used otherwise than to look up a literal key.
+     */
+    private static Set<String> getAccessedFieldsInSubsequentClauses(ForClause forClause) {
+        Name variableName = forClause.getVariableName();
+        Set<String> result = new TreeSet<>();
+        for (Clause clause = forClause.getNextClause(); clause != null; clause = clause.getNextClause()) {
+            if (clause instanceof CountClause) {
+                if (((CountClause) clause).getCountVariable().getVariableName().equals(variableName)) {
+                    break;
+                }
+                continue;
+            }
+            if (!collectAccessedFields(clause, variableName, result)) {
+                return null;
+            }
+            if (clause instanceof ForClause) {
+                ForClause nextForClause = (ForClause) clause;
+                if (
+                    variableName.equals(nextForClause.getVariableName())
+                        || variableName.equals(nextForClause.getPositionalVariableName())
+                ) {
+                    break;
+                }
+            } else if (clause instanceof LetClause) {
+                if (variableName.equals(((LetClause) clause).getVariableName())) {
+                    break;
+                }
+            } else if (clause instanceof GroupByClause) {
+                if (
+                    ((GroupByClause) clause).getGroupVariables()
+                        .stream()
+                        .anyMatch(variable -> variableName.equals(variable.getVariableName()))
+                ) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean collectAccessedFields(Node node, Name variableName, Set<String> fields) {
+        if (node == null) {
+            return true;
+        }
+        if (node instanceof VariableReferenceExpression) {
+            return !variableName.equals(((VariableReferenceExpression) node).getVariableName());
+        }
+        if (node instanceof ObjectLookupExpression) {
+            ObjectLookupExpression lookup = (ObjectLookupExpression) node;
+            if (
+                lookup.getMainExpression() instanceof VariableReferenceExpression
+                    && lookup.getLookupExpression() instanceof StringLiteralExpression
+                    && variableName.equals(
+                        ((VariableReferenceExpression) lookup.getMainExpression()).getVariableName()
+                    )
+            ) {
+                // the literal is unescaped at runtime, see StringRuntimeIterator.
+                fields.add(
+                    StringEscapeUtils.unescapeJson(((StringLiteralExpression) lookup.getLookupExpression()).getValue())
+                );
+                return true;
+            }
+        }
+        if (node instanceof GroupByClause) {
+            // a grouping variable without expression refers to the variable as a whole.
+            for (GroupByVariableDeclaration variable : ((GroupByClause) node).getGroupVariables()) {
+                if (variable.getExpression() == null && variableName.equals(variable.getVariableName())) {
+                    return false;
+                }
+            }
+        }
+        if (node instanceof FlworExpression) {
+            for (
+                    Clause clause = ((FlworExpression) node).getReturnClause().getFirstClause();
+                    clause != null;
+                    clause = clause.getNextClause()
+            ) {
+                if (!collectAccessedFields(clause, variableName, fields)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (Node child : node.getChildren()) {
+            if (!collectAccessedFields(child, variableName, fields)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public Void visitFilterExpression(FilterExpression expression, Void argument) {
         visit(expression.getMainExpression(), null);
         visit(expression.getPredicateExpression(), null);
@@ -20,6 +20,7 @@
 
 package org.rumbledb.config;
 
+import org.apache.spark.storage.StorageLevel;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.Name;
 import org.rumbledb.exceptions.CliException;
@@ -39,6 +40,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class RumbleRuntimeConfiguration implements Serializable, KryoSerializable {
 
@@ -73,6 +75,22 @@ public class RumbleRuntimeConfiguration implements Serializable, KryoSerializabl
     private Set<String> yesNoShortcuts;
 
 
+    private static final Set<String> executionOnlyArguments = new HashSet<>(
+            Arrays.asList(
+                "materialization-cap",
+                "result-size",
+                "output-path",
+                "log-path",
+                "overwrite",
+                "show-error-info",
+                "number-of-output-partitions",
+                "query-id",
+                "query-timeout",
+                "scheduler-pool",
+                "streaming"
+            )
+    );
+
     private static final RumbleRuntimeConfiguration defaultConfiguration = new RumbleRuntimeConfiguration();
 
     public RumbleRuntimeConfiguration() {
@@ -200,6 +218,146 @@ public class RumbleRuntimeConfiguration implements Serializable, KryoSerializabl
         }
     }
 
+    public int getQueryPlanCacheSize() {
+        if (this.arguments.containsKey("query-plan-cache-size")) {
+            return Integer.parseInt(this.arguments.get("query-plan-cache-size"));
+        } else {
+            return 100;
+        }
+    }
+
+    public int getServerThreads() {
+        if (this.arguments.containsKey("server-threads")) {
+            return Integer.parseInt(this.arguments.get("server-threads"));
+        } else {
+            return 8;
+        }
+    }
+
+    public int getMaxConcurrentQueries() {
+        if (this.arguments.containsKey("max-concurrent-queries")) {
+            return Integer.parseInt(this.arguments.get("max-concurrent-queries"));
+        } else {
+            return 4;
+        }
+    }
+
+    /**
+     * Returns the number of seconds after which the Spark jobs of a query sent to the server are cancelled.
+     *
+     * @return the timeout in seconds, 0 meaning no timeout.
+     */
+    public int getQueryTimeout() {
+        if (this.arguments.containsKey("query-timeout")) {
+            return Integer.parseInt(this.arguments.get("query-timeout"));
+        } else {
+            return 0;
+        }
+    }
+
+    public String getQueryId() {
+        return this.arguments.get("query-id");
+    }
+
+    public String getSchedulerPool() {
+        return this.arguments.get("scheduler-pool");
+    }
+
+    public boolean getStreaming() {
+        if (this.arguments.containsKey("streaming")) {
+            return this.arguments.get("streaming").equals("yes");
+        } else {
+            return false;
+        }
+    }
+
+    public long getBroadcastJoinThreshold() {
+        if (this.arguments.containsKey("broadcast-join-threshold")) {
+            return Long.parseLong(this.arguments.get("broadcast-join-threshold"));
+        } else {
+            return 100000;
+        }
+    }
+
+    public long getParallelRangeThreshold() {
+        if (this.arguments.containsKey("parallel-range-threshold")) {
+            return Long.parseLong(this.arguments.get("parallel-range-threshold"));
+        } else {
+            return 10000000;
+        }
+    }
+
+    /**
+     * Returns the storage level with which the RDDs and DataFrames bound to let variables referenced more than once
+     * are persisted.
+     *
+     * @return the storage level, StorageLevel.NONE() if this automatic persistence is deactivated.
+     */
+    public StorageLevel getPersistLevel() {
+        if (!this.arguments.containsKey("persist-level")) {
+            return StorageLevel.MEMORY_AND_DISK();
+        }
+        StorageLevel result = parseStorageLevel(this.arguments.get("persist-level"));
+        if (result == null) {
+            throw new CliException(
+                    "Unknown persist level: "
+                        + this.arguments.get("persist-level")
+                        + ". Allowed values are none, memory, memory-serialized, memory-and-disk, memory-and-disk-serialized and disk."
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Parses the name of a storage level, as used in the --persist-level option and in the persist() function.
+     *
+     * @param name the name of the storage level, e.g., memory-and-disk.
+     * @return the storage level, or null if the name is not known.
+     */
+    public static StorageLevel parseStorageLevel(String name) {
+        switch (name.toLowerCase()) {
+            case "none":
+                return StorageLevel.NONE();
+            case "memory":
+                return StorageLevel.MEMORY_ONLY();
+            case "memory-serialized":
+                return StorageLevel.MEMORY_ONLY_SER();
+            case "memory-and-disk":
+                return StorageLevel.MEMORY_AND_DISK();
+            case "memory-and-disk-serialized":
+                return StorageLevel.MEMORY_AND_DISK_SER();
+            case "disk":
+                return StorageLevel.DISK_ONLY();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns a canonical representation of all the arguments that may influence how a query is compiled, that is,
+     * all of them except for the values of external variables and the options that only matter when outputting
+     * results. Two configurations with the same signature produce the same query plan.
+     *
+     * @return the compilation signature of this configuration.
+     */
+    public String getCompilationSignature() {
+        StringBuilder sb = new StringBuilder();
+        for (String key : new TreeSet<>(this.arguments.keySet())) {
+            if (
+                key.startsWith("variable:")
+                    || key.startsWith("variable-from-file:")
+                    || executionOnlyArguments.contains(key)
+            ) {
+                continue;
+            }
+            sb.append(key);
+            sb.append('=');
+            sb.append(this.arguments.get(key));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
     public List<String> getAllowedURIPrefixes() {
         return this.allowedPrefixes;
     }
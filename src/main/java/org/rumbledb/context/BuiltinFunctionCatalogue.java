@@ -54,6 +54,7 @@ import org.rumbledb.runtime.functions.input.JsonFileFunctionIterator;
 import org.rumbledb.runtime.functions.input.LibSVMFileFunctionIterator;
 import org.rumbledb.runtime.functions.input.ParallelizeFunctionIterator;
 import org.rumbledb.runtime.functions.input.ParquetFileFunctionIterator;
+import org.rumbledb.runtime.functions.input.PersistFunctionIterator;
 import org.rumbledb.runtime.functions.input.RepartitionFunctionIterator;
 import org.rumbledb.runtime.functions.input.RootFileFunctionIterator;
 import org.rumbledb.runtime.functions.input.StructuredJsonFileFunctionIterator;
@@ -1457,6 +1458,20 @@ public class BuiltinFunctionCatalogue {
         ReplaceFunctionIterator.class,
         BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
     );
+    static final BuiltinFunction replace2 = createBuiltinFunction(
+        new Name(
+                Name.FN_NS,
+                "fn",
+                "replace"
+        ),
+        "string?",
+        "string",
+        "string",
+        "string",
+        "string",
+        ReplaceFunctionIterator.class,
+        BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
+    );
 
     /**
      * function that returns the string length
@@ -1508,6 +1523,19 @@ public class BuiltinFunctionCatalogue {
         TokenizeFunctionIterator.class,
         BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
     );
+    static final BuiltinFunction tokenize3 = createBuiltinFunction(
+        new Name(
+                Name.FN_NS,
+                "fn",
+                "tokenize"
+        ),
+        "string?",
+        "string",
+        "string",
+        "string*",
+        TokenizeFunctionIterator.class,
+        BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
+    );
     /**
      * function that turns all upper-case characters to lower-case
      */
@@ -1730,6 +1758,19 @@ public class BuiltinFunctionCatalogue {
         MatchesFunctionIterator.class,
         BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
     );
+    static final BuiltinFunction matches2 = createBuiltinFunction(
+        new Name(
+                Name.FN_NS,
+                "fn",
+                "matches"
+        ),
+        "string?",
+        "string",
+        "string",
+        "boolean",
+        MatchesFunctionIterator.class,
+        BuiltinFunction.BuiltinFunctionExecutionMode.LOCAL
+    );
 
     /**
      * function that normalizes spaces in a string
@@ -2593,6 +2634,33 @@ public class BuiltinFunctionCatalogue {
         BuiltinFunction.BuiltinFunctionExecutionMode.INHERIT_FROM_FIRST_ARGUMENT
     );
 
+    /**
+     * function that persists a big sequence
+     */
+    static final BuiltinFunction persist1 = createBuiltinFunction(
+        new Name(
+                Name.JN_NS,
+                "jn",
+                "persist"
+        ),
+        "item*",
+        "item*",
+        PersistFunctionIterator.class,
+        BuiltinFunction.BuiltinFunctionExecutionMode.INHERIT_FROM_FIRST_ARGUMENT
+    );
+    static final BuiltinFunction persist2 = createBuiltinFunction(
+        new Name(
+                Name.JN_NS,
+                "jn",
+                "persist"
+        ),
+        "item*",
+        "string",
+        "item*",
+        PersistFunctionIterator.class,
+        BuiltinFunction.BuiltinFunctionExecutionMode.INHERIT_FROM_FIRST_ARGUMENT
+    );
+
     static final BuiltinFunction binary_classification_metrics1 = createBuiltinFunction(
         new Name(
                 Name.JN_NS,
@@ -2714,6 +2782,7 @@ public class BuiltinFunctionCatalogue {
         builtinFunctions.put(codepoints_to_string.getIdentifier(), codepoints_to_string);
         builtinFunctions.put(string_to_codepoints.getIdentifier(), string_to_codepoints);
         builtinFunctions.put(replace1.getIdentifier(), replace1);
+        builtinFunctions.put(replace2.getIdentifier(), replace2);
         builtinFunctions.put(substring2.getIdentifier(), substring2);
         builtinFunctions.put(substring3.getIdentifier(), substring3);
         builtinFunctions.put(substring_before1.getIdentifier(), substring_before1);
@@ -2734,6 +2803,7 @@ public class BuiltinFunctionCatalogue {
         builtinFunctions.put(string_length1.getIdentifier(), string_length1);
         builtinFunctions.put(tokenize1.getIdentifier(), tokenize1);
         builtinFunctions.put(tokenize2.getIdentifier(), tokenize2);
+        builtinFunctions.put(tokenize3.getIdentifier(), tokenize3);
         builtinFunctions.put(lower_case.getIdentifier(), lower_case);
         builtinFunctions.put(upper_case.getIdentifier(), upper_case);
         builtinFunctions.put(translate.getIdentifier(), translate);
@@ -2741,6 +2811,7 @@ public class BuiltinFunctionCatalogue {
         builtinFunctions.put(starts_with1.getIdentifier(), starts_with1);
         builtinFunctions.put(starts_with2.getIdentifier(), starts_with2);
         builtinFunctions.put(matches1.getIdentifier(), matches1);
+        builtinFunctions.put(matches2.getIdentifier(), matches2);
         builtinFunctions.put(contains1.getIdentifier(), contains1);
         builtinFunctions.put(contains2.getIdentifier(), contains2);
         builtinFunctions.put(normalize_space0.getIdentifier(), normalize_space0);
@@ -2819,6 +2890,8 @@ public class BuiltinFunctionCatalogue {
         builtinFunctions.put(trace.getIdentifier(), trace);
 
         builtinFunctions.put(repartition.getIdentifier(), repartition);
+        builtinFunctions.put(persist1.getIdentifier(), persist1);
+        builtinFunctions.put(persist2.getIdentifier(), persist2);
         builtinFunctions.put(binary_classification_metrics1.getIdentifier(), binary_classification_metrics1);
         builtinFunctions.put(binary_classification_metrics2.getIdentifier(), binary_classification_metrics2);
     }
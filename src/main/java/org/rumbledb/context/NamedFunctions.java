@@ -149,8 +149,9 @@ public class NamedFunctions implements Serializable, KryoSerializable {
     }
 
     public FunctionItem getUserDefinedFunction(FunctionIdentifier identifier) {
-        FunctionItem functionItem = this.userDefinedFunctions.get(identifier);
-        return functionItem.deepCopy();
+        // the function item is shared by all the calls, which evaluate copies of its body, see
+        // RuntimeIterator.acquireCopy().
+        return this.userDefinedFunctions.get(identifier);
     }
 
     public static RuntimeIterator getBuiltInFunctionIterator(
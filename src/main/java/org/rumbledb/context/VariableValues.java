@@ -34,6 +34,7 @@ import org.rumbledb.exceptions.RumbleException;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.items.parsing.RowToItemMapper;
 import org.rumbledb.items.structured.JSoundDataFrame;
+import org.rumbledb.runtime.functions.sequences.aggregate.AggregateSummary;
 
 import sparksoniq.jsoniq.tuple.FlworTuple;
 import sparksoniq.spark.SparkSessionManager;
@@ -54,15 +55,29 @@ public class VariableValues implements Serializable, KryoSerializable {
     private Map<Name, Item> localVariableCounts;
     private Map<Name, JavaRDD<Item>> rddVariableValues;
     private Map<Name, JSoundDataFrame> dataFrameVariableValues;
+    private Map<Name, AggregateSummary> aggregateSummaries;
     private boolean nestedQuery;
+    private int materializationCap;
     private VariableValues parent;
 
     public VariableValues() {
+        this(0);
+    }
+
+    /**
+     * Creates the variable values of a module context.
+     *
+     * @param materializationCap the maximum number of items of a big sequence bound to a variable that may be
+     *        materialized, 0 meaning no cap.
+     */
+    public VariableValues(int materializationCap) {
         this.parent = null;
+        this.materializationCap = materializationCap;
         this.localVariableCounts = new HashMap<>();
         this.localVariableValues = new HashMap<>();
         this.rddVariableValues = new HashMap<>();
         this.dataFrameVariableValues = new HashMap<>();
+        this.aggregateSummaries = new HashMap<>();
         this.nestedQuery = false;
     }
 
@@ -71,10 +86,12 @@ public class VariableValues implements Serializable, KryoSerializable {
             throw new OurBadException("Variable values defined with null parent");
         }
         this.parent = parent;
+        this.materializationCap = parent.materializationCap;
         this.localVariableCounts = new HashMap<>();
         this.localVariableValues = new HashMap<>();
         this.rddVariableValues = new HashMap<>();
         this.dataFrameVariableValues = new HashMap<>();
+        this.aggregateSummaries = new HashMap<>();
         this.nestedQuery = false;
     }
 
@@ -88,10 +105,12 @@ public class VariableValues implements Serializable, KryoSerializable {
             throw new OurBadException("Variable values defined with null parent");
         }
         this.parent = parent;
+        this.materializationCap = parent.materializationCap;
         this.localVariableCounts = new HashMap<>();
         this.localVariableValues = localVariableValues;
         this.rddVariableValues = rddVariableValues;
         this.dataFrameVariableValues = dataFrameVariableValues;
+        this.aggregateSummaries = new HashMap<>();
         this.nestedQuery = false;
     }
 
@@ -167,16 +186,51 @@ public class VariableValues implements Serializable, KryoSerializable {
 
     public void addVariableValue(Name varName, JavaRDD<Item> value) {
         this.rddVariableValues.put(varName, value);
+        this.aggregateSummaries.remove(varName);
     }
 
     public void addVariableValue(Name varName, JSoundDataFrame value) {
         this.dataFrameVariableValues.put(varName, value);
+        this.aggregateSummaries.remove(varName);
     }
 
     public void addVariableCount(Name varName, Item count) {
         this.localVariableCounts.put(varName, count);
     }
 
+    /**
+     * Returns the aggregates computed on the value of a variable bound to an RDD or a DataFrame.
+     *
+     * @param varName the name of the variable.
+     * @return the aggregates, or null if they were not computed yet.
+     */
+    public AggregateSummary getAggregateSummary(Name varName) {
+        if (this.rddVariableValues.containsKey(varName) || this.dataFrameVariableValues.containsKey(varName)) {
+            return this.aggregateSummaries.get(varName);
+        }
+        if (this.localVariableValues.containsKey(varName) || this.parent == null) {
+            return null;
+        }
+        return this.parent.getAggregateSummary(varName);
+    }
+
+    /**
+     * Keeps the aggregates computed on the value of a variable bound to an RDD or a DataFrame, until the variable is
+     * bound again.
+     *
+     * @param varName the name of the variable.
+     * @param summary the aggregates.
+     */
+    public void setAggregateSummary(Name varName, AggregateSummary summary) {
+        if (this.rddVariableValues.containsKey(varName) || this.dataFrameVariableValues.containsKey(varName)) {
+            this.aggregateSummaries.put(varName, summary);
+            return;
+        }
+        if (!this.localVariableValues.containsKey(varName) && this.parent != null) {
+            this.parent.setAggregateSummary(varName, summary);
+        }
+    }
+
     public List<Item> getLocalVariableValue(Name varName, ExceptionMetadata metadata) {
         if (this.localVariableValues.containsKey(varName)) {
             return this.localVariableValues.get(varName);
@@ -187,7 +241,7 @@ public class VariableValues implements Serializable, KryoSerializable {
                 throw new JobWithinAJobException(metadata);
             }
             JavaRDD<Item> rdd = this.getRDDVariableValue(varName, metadata);
-            return SparkSessionManager.collectRDDwithLimit(rdd, metadata);
+            return SparkSessionManager.collectRDDwithLimit(rdd, this.materializationCap, metadata);
         }
 
         if (this.parent != null) {
@@ -283,7 +337,7 @@ public class VariableValues implements Serializable, KryoSerializable {
         this.localVariableCounts.remove(varName);
         this.rddVariableValues.remove(varName);
         this.dataFrameVariableValues.remove(varName);
-
+        this.aggregateSummaries.remove(varName);
     }
 
     public void removeAllVariables() {
@@ -291,6 +345,7 @@ public class VariableValues implements Serializable, KryoSerializable {
         this.localVariableCounts.clear();
         this.rddVariableValues.clear();
         this.dataFrameVariableValues.clear();
+        this.aggregateSummaries.clear();
     }
 
     @Override
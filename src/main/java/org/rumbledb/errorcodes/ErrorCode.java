@@ -42,6 +42,7 @@ public enum ErrorCode {
     ExactlyOneErrorCode("FORG0005"),
     InvalidArgumentType("FORG0006"),
     InconsistentTimezones("FORG0008"),
+    InvalidRegexFlagsErrorCode("FORX0001"),
     InvalidRegexPatternErrorCode("FORX0002"),
     MatchesEmptyStringErrorCode("FORX0003"),
     InvalidReplacementStringErrorCode("FORX0004"),
@@ -74,6 +75,7 @@ public enum ErrorCode {
     OurBadErrorCode("RBST0004"),
     ClusterConnectionErrorCode("RBDY0005"),
     DatesWithTimezonesNotSupported("RBDY0006"),
+    QueryCancelledErrorCode("RBDY0007"),
 
     UnexpectedStaticType("RBTY0001"),
 
@@ -33,6 +33,7 @@ import org.rumbledb.types.SequenceType;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class ForClause extends Clause {
 
@@ -45,6 +46,9 @@ public class ForClause extends Clause {
     // Holds whether the for variable will be stored in materialized(local) or native/spark(RDD or DF) format in a tuple
     protected ExecutionMode variableHighestStorageMode = ExecutionMode.UNSET;
 
+    // The keys looked up on the for variable in the subsequent clauses, or null if the variable is used otherwise
+    protected Set<String> accessedFields = null;
+
 
     public ForClause(
             Name variableName,
@@ -112,6 +116,14 @@ public class ForClause extends Clause {
         return this.variableHighestStorageMode;
     }
 
+    public Set<String> getAccessedFields() {
+        return this.accessedFields;
+    }
+
+    public void setAccessedFields(Set<String> accessedFields) {
+        this.accessedFields = accessedFields;
+    }
+
     @Override
     public List<Node> getChildren() {
         return Collections.singletonList(this.expression);
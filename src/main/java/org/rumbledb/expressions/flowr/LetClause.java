@@ -43,6 +43,9 @@ public class LetClause extends Clause {
     // Holds whether the let variable will be stored in materialized(local) or native/spark(RDD or DF) format in a tuple
     protected ExecutionMode variableHighestStorageMode = ExecutionMode.UNSET;
 
+    // How many times the let variable is evaluated by the subsequent clauses, as counted by the dependency analysis
+    protected int numberOfReferences = 0;
+
     public LetClause(
             Name variableName,
             SequenceType sequenceType,
@@ -99,6 +102,14 @@ public class LetClause extends Clause {
         return this.variableHighestStorageMode;
     }
 
+    public int getNumberOfReferences() {
+        return this.numberOfReferences;
+    }
+
+    public void setNumberOfReferences(int numberOfReferences) {
+        this.numberOfReferences = numberOfReferences;
+    }
+
     @Override
     public List<Node> getChildren() {
         return Collections.singletonList(this.expression);
@@ -8,6 +8,7 @@ import org.joda.time.DateTimeZone;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.comparison.ComparisonExpression.ComparisonOperator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.runtime.misc.ComparisonIterator;
 import org.rumbledb.types.ItemType;
@@ -116,4 +117,19 @@ public class DateItem implements Item {
     public boolean isAtomic() {
         return true;
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext context) {
+        int year = this.value.getYear();
+        if (year < 1 || year > 9999) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String query = String.format(
+            "DATE \"%04d-%02d-%02d\"",
+            year,
+            this.value.getMonthOfYear(),
+            this.value.getDayOfMonth()
+        );
+        return new NativeClauseContext(context, query, BuiltinTypesCatalogue.dateItem);
+    }
 }
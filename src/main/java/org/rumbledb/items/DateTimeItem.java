@@ -12,6 +12,7 @@ import org.joda.time.format.ISODateTimeFormat;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.comparison.ComparisonExpression.ComparisonOperator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.runtime.misc.ComparisonIterator;
 import org.rumbledb.types.ItemType;
@@ -102,7 +103,10 @@ public class DateTimeItem implements Item {
                 ? ""
                 : value.substring(value.length() - 6);
         value = value.substring(0, value.length() - zoneString.length());
-        value = this.value.getMillisOfSecond() == 0 ? value.substring(0, value.length() - 4) : value;
+        if (this.value.getMillisOfSecond() == 0) {
+            // the offset of the default time zone is still part of the value.
+            value = value.replaceFirst("\\.000(?=(Z|[+\\-]\\d\\d:\\d\\d)?$)", "");
+        }
         return value + (this.hasTimeZone ? zoneString : "");
     }
 
@@ -233,4 +237,11 @@ public class DateTimeItem implements Item {
     public boolean isAtomic() {
         return true;
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext context) {
+        // timestamps are compared as instants, like dateTime items, whatever the session time zone.
+        String query = "TIMESTAMP_MILLIS(" + this.value.getMillis() + ")";
+        return new NativeClauseContext(context, query, BuiltinTypesCatalogue.dateTimeItem);
+    }
 }
@@ -13,6 +13,7 @@ import org.joda.time.format.PeriodFormatterBuilder;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.comparison.ComparisonExpression.ComparisonOperator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.runtime.misc.ComparisonIterator;
 import org.rumbledb.types.ItemType;
@@ -217,4 +218,33 @@ public class DurationItem implements Item {
     public ItemType getDynamicType() {
         return BuiltinTypesCatalogue.durationItem;
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext context) {
+        Period period = getDurationValue();
+        if (period.getYears() != 0 && period.getMonths() != 0) {
+            // years and months are added one after the other to dates, which can differ from adding all months at
+            // once, e.g., from February 29.
+            return NativeClauseContext.NoNativeQuery;
+        }
+        StringBuilder query = new StringBuilder("INTERVAL");
+        appendIntervalUnit(query, period.getYears(), "YEARS");
+        appendIntervalUnit(query, period.getMonths(), "MONTHS");
+        appendIntervalUnit(query, period.getWeeks(), "WEEKS");
+        appendIntervalUnit(query, period.getDays(), "DAYS");
+        appendIntervalUnit(query, period.getHours(), "HOURS");
+        appendIntervalUnit(query, period.getMinutes(), "MINUTES");
+        appendIntervalUnit(query, period.getSeconds(), "SECONDS");
+        appendIntervalUnit(query, period.getMillis(), "MILLISECONDS");
+        if (query.length() == "INTERVAL".length()) {
+            query.append(" 0 SECONDS");
+        }
+        return new NativeClauseContext(context, query.toString(), getDynamicType());
+    }
+
+    private static void appendIntervalUnit(StringBuilder query, int value, String unit) {
+        if (value != 0) {
+            query.append(" ").append(value).append(" ").append(unit);
+        }
+    }
 }
@@ -217,6 +217,10 @@ public class ItemFactory {
         return new ObjectItem(keys, values, itemMetadata);
     }
 
+    public Item createObjectItem(ObjectShape shape, List<Item> values) {
+        return new ObjectItem(shape, values);
+    }
+
     public Item createObjectItem(Map<String, List<Item>> keyValuePairs) {
         return new ObjectItem(keyValuePairs);
     }
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.OurBadException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of the JSON items, used instead of the serialization of each item class by itself.
+ *
+ * Every item starts with a one-byte tag, followed by its value. Integers are written as variable-length integers,
+ * arrays and objects write their members directly, without any class name. Strings and the key lists of objects are
+ * written only once per serialized value (e.g., a sequence of items in a FLWOR tuple, or a record in a shuffle):
+ * their next occurrences only refer to the first one, so that the keys repeated in all objects of a group are not
+ * written again and again. The dictionaries are kept in the graph context of Kryo, which is cleared after each
+ * serialized value.
+ *
+ * The other items (dates, durations, functions...) are written with their own serialization.
+ */
+public class ItemSerializer extends Serializer<Item> {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG_INTEGER = 4;
+    private static final byte BIG_INTEGER = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte FLOAT = 8;
+    private static final byte STRING = 9;
+    private static final byte LONG_STRING = 10;
+    private static final byte ARRAY = 11;
+    private static final byte OBJECT = 12;
+    private static final byte OTHER = 13;
+
+    // Longer strings are unlikely to be repeated and are not worth keeping in the dictionary.
+    private static final int MAX_DICTIONARY_STRING_LENGTH = 64;
+
+    private static final Object WRITE_DICTIONARY = new Object();
+    private static final Object READ_DICTIONARY = new Object();
+
+    /**
+     * Registers the item classes with this serializer, and the other item classes with their own serialization.
+     *
+     * @param kryo the Kryo instance.
+     */
+    public static void registerItemClasses(Kryo kryo) {
+        ItemSerializer serializer = new ItemSerializer();
+        kryo.register(Item.class);
+        kryo.register(AnnotatedItem.class);
+
+        kryo.register(ArrayItem.class, serializer);
+        kryo.register(ObjectItem.class, serializer);
+        kryo.register(LazyObjectItem.class, serializer);
+        kryo.register(RowObjectItem.class, serializer);
+
+        kryo.register(AnyURIItem.class);
+        kryo.register(Base64BinaryItem.class);
+        kryo.register(BooleanItem.class, serializer);
+        kryo.register(DateItem.class);
+        kryo.register(DateTimeItem.class);
+        kryo.register(DateTimeStampItem.class);
+        kryo.register(DayTimeDurationItem.class);
+        kryo.register(DecimalItem.class, serializer);
+        kryo.register(DoubleItem.class, serializer);
+        kryo.register(DurationItem.class);
+        kryo.register(FloatItem.class, serializer);
+        kryo.register(HexBinaryItem.class);
+        kryo.register(IntegerItem.class, serializer);
+        kryo.register(IntItem.class, serializer);
+        kryo.register(NullItem.class, serializer);
+        kryo.register(StringItem.class, serializer);
+        kryo.register(TimeItem.class);
+        kryo.register(YearMonthDurationItem.class);
+    }
+
+    public ItemSerializer() {
+        setAcceptsNull(false);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Item item) {
+        Map<Object, Integer> dictionary = getDictionary(kryo, WRITE_DICTIONARY);
+        writeItem(kryo, output, item, dictionary);
+    }
+
+    @Override
+    public Item read(Kryo kryo, Input input, Class<Item> type) {
+        List<Object> dictionary = getDictionary(kryo, READ_DICTIONARY);
+        return readItem(kryo, input, dictionary);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getDictionary(Kryo kryo, Object key) {
+        Object dictionary = kryo.getGraphContext().get(key);
+        if (dictionary == null) {
+            dictionary = key == WRITE_DICTIONARY ? new HashMap<Object, Integer>() : new ArrayList<Object>();
+            kryo.getGraphContext().put(key, dictionary);
+        }
+        return (T) dictionary;
+    }
+
+    private static void writeItem(Kryo kryo, Output output, Item item, Map<Object, Integer> dictionary) {
+        Class<?> itemClass = item.getClass();
+        if (itemClass == StringItem.class) {
+            String value = item.getStringValue();
+            if (value.length() > MAX_DICTIONARY_STRING_LENGTH) {
+                output.writeByte(LONG_STRING);
+                output.writeString(value);
+            } else {
+                output.writeByte(STRING);
+                writeString(output, value, dictionary);
+            }
+        } else if (
+            itemClass == ObjectItem.class || itemClass == LazyObjectItem.class || itemClass == RowObjectItem.class
+        ) {
+            output.writeByte(OBJECT);
+            List<String> keys = item.getKeys();
+            writeKeys(output, keys, dictionary);
+            if (itemClass == ObjectItem.class) {
+                for (Item value : item.getValues()) {
+                    writeItem(kryo, output, value, dictionary);
+                }
+            } else {
+                for (String key : keys) {
+                    writeItem(kryo, output, item.getItemByKey(key), dictionary);
+                }
+            }
+        } else if (itemClass == ArrayItem.class) {
+            output.writeByte(ARRAY);
+            List<Item> members = item.getItems();
+            output.writeVarInt(members.size(), true);
+            for (Item member : members) {
+                writeItem(kryo, output, member, dictionary);
+            }
+        } else if (itemClass == IntItem.class) {
+            output.writeByte(INT);
+            output.writeVarInt(item.getIntValue(), false);
+        } else if (itemClass == IntegerItem.class) {
+            BigInteger value = item.getIntegerValue();
+            if (value.bitLength() < Long.SIZE) {
+                output.writeByte(LONG_INTEGER);
+                output.writeVarLong(value.longValue(), false);
+            } else {
+                output.writeByte(BIG_INTEGER);
+                writeBigInteger(output, value);
+            }
+        } else if (itemClass == DecimalItem.class) {
+            BigDecimal value = item.getDecimalValue();
+            output.writeByte(DECIMAL);
+            output.writeVarInt(value.scale(), false);
+            writeBigInteger(output, value.unscaledValue());
+        } else if (itemClass == DoubleItem.class) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(item.getDoubleValue());
+        } else if (itemClass == FloatItem.class) {
+            output.writeByte(FLOAT);
+            output.writeFloat(item.getFloatValue());
+        } else if (itemClass == BooleanItem.class) {
+            output.writeByte(item.getBooleanValue() ? TRUE : FALSE);
+        } else if (itemClass == NullItem.class) {
+            output.writeByte(NULL);
+        } else {
+            output.writeByte(OTHER);
+            kryo.writeClassAndObject(output, item);
+        }
+    }
+
+    private static Item readItem(Kryo kryo, Input input, List<Object> dictionary) {
+        byte tag = input.readByte();
+        switch (tag) {
+            case STRING:
+                return ItemFactory.getInstance().createStringItem(readString(input, dictionary));
+            case LONG_STRING:
+                return ItemFactory.getInstance().createStringItem(input.readString());
+            case OBJECT:
+                ObjectShape shape = readKeys(input, dictionary);
+                List<Item> values = new ArrayList<>(shape.size());
+                for (int i = 0; i < shape.size(); ++i) {
+                    values.add(readItem(kryo, input, dictionary));
+                }
+                return ItemFactory.getInstance().createObjectItem(shape, values);
+            case ARRAY:
+                int size = input.readVarInt(true);
+                List<Item> members = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    members.add(readItem(kryo, input, dictionary));
+                }
+                return ItemFactory.getInstance().createArrayItem(members);
+            case INT:
+                return ItemFactory.getInstance().createIntItem(input.readVarInt(false));
+            case LONG_INTEGER:
+                return ItemFactory.getInstance().createIntegerItem(BigInteger.valueOf(input.readVarLong(false)));
+            case BIG_INTEGER:
+                return ItemFactory.getInstance().createIntegerItem(readBigInteger(input));
+            case DECIMAL:
+                int scale = input.readVarInt(false);
+                return ItemFactory.getInstance().createDecimalItem(new BigDecimal(readBigInteger(input), scale));
+            case DOUBLE:
+                return ItemFactory.getInstance().createDoubleItem(input.readDouble());
+            case FLOAT:
+                return ItemFactory.getInstance().createFloatItem(input.readFloat());
+            case TRUE:
+                return ItemFactory.getInstance().createBooleanItem(true);
+            case FALSE:
+                return ItemFactory.getInstance().createBooleanItem(false);
+            case NULL:
+                return ItemFactory.getInstance().createNullItem();
+            case OTHER:
+                return (Item) kryo.readClassAndObject(input);
+            default:
+                throw new OurBadException("Unexpected tag " + tag + " while deserializing an item.");
+        }
+    }
+
+    /*
+     * Strings and key lists share the same dictionary: a reference is the position of the entry plus one, or 0 if
+     * the entry is new and follows.
+     */
+
+    private static void writeString(Output output, String value, Map<Object, Integer> dictionary) {
+        Integer position = dictionary.get(value);
+        if (position != null) {
+            output.writeVarInt(position + 1, true);
+            return;
+        }
+        dictionary.put(value, dictionary.size());
+        output.writeVarInt(0, true);
+        output.writeString(value);
+    }
+
+    private static String readString(Input input, List<Object> dictionary) {
+        int reference = input.readVarInt(true);
+        if (reference != 0) {
+            return (String) dictionary.get(reference - 1);
+        }
+        String value = input.readString();
+        dictionary.add(value);
+        return value;
+    }
+
+    private static void writeKeys(Output output, List<String> keys, Map<Object, Integer> dictionary) {
+        Integer position = dictionary.get(keys);
+        if (position != null) {
+            output.writeVarInt(position + 1, true);
+            return;
+        }
+        // the list is copied, as the keys of an object may still change.
+        dictionary.put(new ArrayList<>(keys), dictionary.size());
+        output.writeVarInt(0, true);
+        output.writeVarInt(keys.size(), true);
+        for (String key : keys) {
+            writeString(output, key, dictionary);
+        }
+    }
+
+    private static ObjectShape readKeys(Input input, List<Object> dictionary) {
+        int reference = input.readVarInt(true);
+        if (reference != 0) {
+            return (ObjectShape) dictionary.get(reference - 1);
+        }
+        // the position of the shape is reserved before its keys are added to the dictionary, as when writing.
+        int position = dictionary.size();
+        dictionary.add(null);
+        int size = input.readVarInt(true);
+        ArrayList<String> keys = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            keys.add(readString(input, dictionary));
+        }
+        ObjectShape shape = new ObjectShape(keys);
+        dictionary.set(position, shape);
+        return shape;
+    }
+
+    private static void writeBigInteger(Output output, BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        output.writeVarInt(bytes.length, true);
+        output.writeBytes(bytes);
+    }
+
+    private static BigInteger readBigInteger(Input input) {
+        int length = input.readVarInt(true);
+        return new BigInteger(input.readBytes(length));
+    }
+}
@@ -20,9 +20,6 @@
 
 package org.rumbledb.items;
 
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.DuplicateObjectKeyException;
 import org.rumbledb.exceptions.ExceptionMetadata;
@@ -37,8 +34,18 @@ public class ObjectItem implements Item {
 
 
     private static final long serialVersionUID = 1L;
+
+    /**
+     * Objects with more keys than this maintain a hash index from keys to their positions, so that lookups do not
+     * need to scan the list of keys. Smaller objects are faster to scan than to hash.
+     */
+    static final int KEY_INDEX_THRESHOLD = 8;
+
     private List<Item> values;
     private List<String> keys;
+    private transient Map<String, Integer> keyIndex;
+    // The shared key layout the keys belong to, if any, in which case the keys must not be modified.
+    private ObjectShape shape;
 
     public ObjectItem() {
         super();
@@ -48,9 +55,16 @@ public class ObjectItem implements Item {
 
     public ObjectItem(List<String> keys, List<Item> values, ExceptionMetadata itemMetadata) {
         super();
-        checkForDuplicateKeys(keys, itemMetadata);
         this.keys = keys;
         this.values = values;
+        indexKeys(itemMetadata);
+    }
+
+    public ObjectItem(ObjectShape shape, List<Item> values) {
+        super();
+        this.keys = shape.getKeys();
+        this.values = values;
+        this.shape = shape;
     }
 
     public boolean equals(Object otherItem) {
@@ -125,49 +139,72 @@ public class ObjectItem implements Item {
         return this.values;
     }
 
-    private void checkForDuplicateKeys(List<String> keys, ExceptionMetadata metadata) {
-        HashMap<String, Integer> frequencies = new HashMap<>();
-        for (String key : keys) {
-            if (frequencies.containsKey(key)) {
-                throw new DuplicateObjectKeyException(key, metadata);
-            } else {
-                frequencies.put(key, 1);
+    /**
+     * Checks that the keys are unique and keeps the resulting index if the object is large enough to benefit from it.
+     *
+     * @param metadata the metadata to report duplicate keys with.
+     */
+    private void indexKeys(ExceptionMetadata metadata) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < this.keys.size(); ++i) {
+            if (index.put(this.keys.get(i), i) != null) {
+                throw new DuplicateObjectKeyException(this.keys.get(i), metadata);
             }
         }
+        this.keyIndex = this.keys.size() > KEY_INDEX_THRESHOLD ? index : null;
+    }
+
+    private int indexOfKey(String s) {
+        if (this.shape != null) {
+            return this.shape.getPosition(s);
+        }
+        if (this.keyIndex == null) {
+            if (this.keys.size() <= KEY_INDEX_THRESHOLD) {
+                return this.keys.indexOf(s);
+            }
+            indexKeys(ExceptionMetadata.EMPTY_METADATA);
+        }
+        Integer position = this.keyIndex.get(s);
+        return position == null ? -1 : position;
     }
 
     @Override
     public Item getItemByKey(String s) {
-        if (this.keys.contains(s)) {
-            return this.values.get(this.keys.indexOf(s));
-        } else {
+        int position = indexOfKey(s);
+        if (position == -1) {
             return null;
         }
+        return this.values.get(position);
     }
 
     @Override
     public void putItemByKey(String s, Item value) {
+        if (indexOfKey(s) != -1) {
+            throw new DuplicateObjectKeyException(s, ExceptionMetadata.EMPTY_METADATA);
+        }
+        if (this.shape != null) {
+            this.keys = new ArrayList<>(this.keys);
+            this.shape = null;
+        }
         this.keys.add(s);
         this.values.add(value);
-        checkForDuplicateKeys(this.keys, ExceptionMetadata.EMPTY_METADATA);
-    }
-
-    @Override
-    public boolean isObject() {
-        return true;
+        if (this.keyIndex != null) {
+            this.keyIndex.put(s, this.keys.size() - 1);
+        }
     }
 
-    @Override
-    public void write(Kryo kryo, Output output) {
-        kryo.writeObject(output, this.keys);
-        kryo.writeObject(output, this.values);
+    /**
+     * Returns the shared key layout of this object.
+     *
+     * @return the shape, or null if this object owns its keys.
+     */
+    public ObjectShape getShape() {
+        return this.shape;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public void read(Kryo kryo, Input input) {
-        this.keys = kryo.readObject(input, ArrayList.class);
-        this.values = kryo.readObject(input, ArrayList.class);
+    public boolean isObject() {
+        return true;
     }
 
     public int hashCode() {
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items;
+
+import org.rumbledb.api.Item;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The layout of the keys of an object: the keys in their order, together with an index from keys to positions for
+ * wide objects. A shape is shared by all objects, built by the same ObjectShapeCache, that have the same keys in the
+ * same order, so that these objects do not need to hold a key list of their own.
+ *
+ * Shapes are immutable: an object that gets a new key stops referencing its shape.
+ */
+public class ObjectShape implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayList<String> keys;
+    private transient volatile Map<String, Integer> keyIndex;
+    // Shapes obtained by adding one key to this shape, only used while parsing.
+    transient Map<String, ObjectShape> transitions;
+
+    ObjectShape(ArrayList<String> keys) {
+        this.keys = keys;
+        this.keyIndex = null;
+        this.transitions = new HashMap<>();
+    }
+
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    public int size() {
+        return this.keys.size();
+    }
+
+    /**
+     * Returns the position of a key in this shape.
+     *
+     * @param key the key to look up.
+     * @return the position of the key, or -1 if the key is not part of this shape.
+     */
+    public int getPosition(String key) {
+        if (this.keys.size() <= ObjectItem.KEY_INDEX_THRESHOLD) {
+            return this.keys.indexOf(key);
+        }
+        Map<String, Integer> index = this.keyIndex;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = 0; i < this.keys.size(); ++i) {
+                index.put(this.keys.get(i), i);
+            }
+            this.keyIndex = index;
+        }
+        Integer position = index.get(key);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Looks up a fixed key in objects, remembering its position in the shape of the last object so that looking it up
+     * again in an object with the same shape does not involve any search.
+     */
+    public static class KeyLookup implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final String key;
+        private transient ObjectShape lastShape;
+        private transient int lastPosition;
+
+        public KeyLookup(String key) {
+            this.key = key;
+            this.lastShape = null;
+            this.lastPosition = -1;
+        }
+
+        public String getKey() {
+            return this.key;
+        }
+
+        /**
+         * Returns the value associated with the key in the supplied object.
+         *
+         * @param object an object item.
+         * @return the value, or null if the object does not have this key.
+         */
+        public Item getItemByKey(Item object) {
+            if (object instanceof ObjectItem) {
+                ObjectShape shape = ((ObjectItem) object).getShape();
+                if (shape != null) {
+                    if (shape != this.lastShape) {
+                        this.lastPosition = shape.getPosition(this.key);
+                        this.lastShape = shape;
+                    }
+                    return this.lastPosition == -1 ? null : object.getValues().get(this.lastPosition);
+                }
+            }
+            return object.getItemByKey(this.key);
+        }
+    }
+}
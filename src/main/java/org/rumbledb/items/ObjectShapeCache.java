@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items;
+
+import org.rumbledb.exceptions.DuplicateObjectKeyException;
+import org.rumbledb.exceptions.ExceptionMetadata;
+
+import java.util.ArrayList;
+
+/**
+ * Builds and interns object shapes while parsing a collection of objects, such as a partition of a JSON Lines file.
+ * Shapes are reached from the empty shape by adding keys one at a time, so that an object whose keys were already
+ * seen in the same order is given the existing shape without building a key list or checking for duplicates.
+ *
+ * The number of shapes is capped so that heterogeneous input does not make the cache grow without bounds. Instances
+ * are not thread-safe and are meant to be used by a single parser.
+ */
+public class ObjectShapeCache {
+
+    public static final int MAX_NUMBER_OF_SHAPES = 10000;
+
+    private final ObjectShape emptyShape;
+    private int numberOfShapes;
+
+    public ObjectShapeCache() {
+        this.emptyShape = new ObjectShape(new ArrayList<>());
+        this.numberOfShapes = 1;
+    }
+
+    public ObjectShape getEmptyShape() {
+        return this.emptyShape;
+    }
+
+    /**
+     * Returns the shape obtained by adding a key at the end of a shape.
+     *
+     * @param shape the shape to extend.
+     * @param key the key to add.
+     * @param metadata the metadata to report a duplicate key with.
+     * @return the extended shape, or null if the cache is full.
+     */
+    public ObjectShape addKey(ObjectShape shape, String key, ExceptionMetadata metadata) {
+        ObjectShape result = shape.transitions.get(key);
+        if (result != null) {
+            return result;
+        }
+        if (shape.getPosition(key) != -1) {
+            throw new DuplicateObjectKeyException(key, metadata);
+        }
+        if (this.numberOfShapes >= MAX_NUMBER_OF_SHAPES) {
+            return null;
+        }
+        ArrayList<String> keys = new ArrayList<>(shape.size() + 1);
+        keys.addAll(shape.getKeys());
+        keys.add(key);
+        result = new ObjectShape(keys);
+        shape.transitions.put(key, result);
+        this.numberOfShapes++;
+        return result;
+    }
+}
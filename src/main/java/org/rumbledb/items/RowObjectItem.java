@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.DuplicateObjectKeyException;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.OurBadException;
+import org.rumbledb.items.parsing.ItemParser;
+import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.FieldDescriptor;
+import org.rumbledb.types.ItemType;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An object backed by a DataFrame row. The fields are only converted to items when they are looked up, so that
+ * navigating a few fields of a wide row does not build the items of all the other fields.
+ *
+ * As with the conversion of a whole row, NULL values are mapped to absent fields. The object is converted to an
+ * ObjectItem when it is modified.
+ */
+public class RowObjectItem implements Item {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_NUMBER_OF_LAYOUTS = 100;
+
+    // Rows of the same DataFrame share the same schema instance, so that their layouts are only computed once.
+    private static final ThreadLocal<Map<StructType, Layout>> layouts = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private Row row;
+    private Layout layout;
+    private ExceptionMetadata metadata;
+    private transient Item[] values;
+    private transient List<String> keys;
+    // The converted object, once this object is modified.
+    private ObjectItem object;
+
+    public RowObjectItem() {
+        super();
+    }
+
+    public RowObjectItem(Row row, ItemType itemType, ExceptionMetadata metadata) {
+        super();
+        this.row = row;
+        this.layout = getLayout(row.schema(), itemType, metadata);
+        this.metadata = metadata;
+    }
+
+    private static Layout getLayout(StructType schema, ItemType itemType, ExceptionMetadata metadata) {
+        Map<StructType, Layout> cachedLayouts = layouts.get();
+        Layout result = cachedLayouts.get(schema);
+        if (result != null && (result.itemType == null ? itemType == null : result.itemType.equals(itemType))) {
+            return result;
+        }
+        result = new Layout(schema, itemType, metadata);
+        if (cachedLayouts.size() >= MAX_NUMBER_OF_LAYOUTS) {
+            cachedLayouts.clear();
+        }
+        cachedLayouts.put(schema, result);
+        return result;
+    }
+
+    /**
+     * The names, types and positions of the fields of a schema.
+     */
+    private static class Layout implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ItemType itemType;
+        private final String[] names;
+        private final DataType[] types;
+        private final ItemType[] itemTypes;
+        private final boolean[] nullTypes;
+        private final List<String> allKeys;
+        private final Map<String, Integer> positions;
+
+        private Layout(StructType schema, ItemType itemType, ExceptionMetadata metadata) {
+            this.itemType = itemType;
+            StructField[] fields = schema.fields();
+            this.names = new String[fields.length];
+            this.types = new DataType[fields.length];
+            this.itemTypes = new ItemType[fields.length];
+            this.nullTypes = new boolean[fields.length];
+            this.positions = new HashMap<>();
+
+            Map<String, FieldDescriptor> content = null;
+            if (itemType != null && !itemType.equals(BuiltinTypesCatalogue.item)) {
+                content = itemType.getObjectContentFacet();
+                if (content == null) {
+                    throw new OurBadException(
+                            "Object descriptor content in type " + itemType.getIdentifierString() + " is null."
+                    );
+                }
+            }
+
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < fields.length; ++i) {
+                String fieldName = fields[i].name();
+                this.names[i] = fieldName;
+                this.types[i] = fields[i].dataType();
+                if (content != null) {
+                    FieldDescriptor descriptor = content.get(fieldName);
+                    if (descriptor != null) {
+                        this.itemTypes[i] = descriptor.getType();
+                        if (this.itemTypes[i] == null) {
+                            throw new OurBadException(
+                                    "Type for field "
+                                        + fieldName
+                                        + " in type "
+                                        + itemType.getIdentifierString()
+                                        + " is null."
+                            );
+                        }
+                    }
+                }
+                this.nullTypes[i] = this.types[i].equals(DataTypes.NullType);
+                if (this.positions.put(fieldName, i) != null) {
+                    throw new DuplicateObjectKeyException(fieldName, metadata);
+                }
+                if (isPresentInAllRows(i)) {
+                    keys.add(fieldName);
+                }
+            }
+            this.allKeys = Collections.unmodifiableList(keys);
+        }
+
+        private boolean isPresentInAllRows(int i) {
+            return !this.nullTypes[i] || !this.names[i].equals(SparkSessionManager.emptyObjectJSONiqItemColumnName);
+        }
+    }
+
+    private boolean isPresent(int i) {
+        if (this.layout.nullTypes[i]) {
+            return this.layout.isPresentInAllRows(i);
+        }
+        return !this.row.isNullAt(i);
+    }
+
+    private Item getValue(int i) {
+        if (this.values == null) {
+            this.values = new Item[this.layout.names.length];
+        }
+        Item result = this.values[i];
+        if (result == null) {
+            result = ItemParser.convertFieldToItem(
+                this.row,
+                i,
+                this.layout.types[i],
+                this.metadata,
+                this.layout.itemTypes[i]
+            );
+            this.values[i] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> getKeys() {
+        if (this.object != null) {
+            return this.object.getKeys();
+        }
+        if (this.keys == null) {
+            List<String> result = this.layout.allKeys;
+            for (int i = 0; i < this.layout.names.length; ++i) {
+                if (!this.layout.nullTypes[i] && this.row.isNullAt(i)) {
+                    // only objects with absent fields need a key list of their own.
+                    result = new ArrayList<>();
+                    for (int j = 0; j < this.layout.names.length; ++j) {
+                        if (isPresent(j)) {
+                            result.add(this.layout.names[j]);
+                        }
+                    }
+                    break;
+                }
+            }
+            this.keys = result;
+        }
+        return this.keys;
+    }
+
+    @Override
+    public List<Item> getValues() {
+        if (this.object != null) {
+            return this.object.getValues();
+        }
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < this.layout.names.length; ++i) {
+            if (isPresent(i)) {
+                result.add(getValue(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Item getItemByKey(String s) {
+        if (this.object != null) {
+            return this.object.getItemByKey(s);
+        }
+        Integer position = this.layout.positions.get(s);
+        if (position == null || !isPresent(position)) {
+            return null;
+        }
+        return getValue(position);
+    }
+
+    @Override
+    public void putItemByKey(String s, Item value) {
+        if (this.object == null) {
+            this.object = new ObjectItem(new ArrayList<>(getKeys()), getValues(), this.metadata);
+            this.row = null;
+            this.values = null;
+            this.keys = null;
+        }
+        this.object.putItemByKey(s, value);
+    }
+
+    @Override
+    public boolean isObject() {
+        return true;
+    }
+
+    public boolean equals(Object otherItem) {
+        if (!(otherItem instanceof Item)) {
+            return false;
+        }
+        Item o = (Item) otherItem;
+        if (!o.isObject()) {
+            return false;
+        }
+        for (String s : getKeys()) {
+            Item v = o.getItemByKey(s);
+            if (v == null) {
+                return false;
+            }
+            if (!getItemByKey(s).equals(v)) {
+                return false;
+            }
+        }
+        for (String s : o.getKeys()) {
+            Item v = getItemByKey(s);
+            if (v == null) {
+                return false;
+            }
+            if (!o.getItemByKey(s).equals(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        int result = 0;
+        result += getKeys().size();
+        for (String s : getKeys()) {
+            result += getItemByKey(s).hashCode();
+        }
+        return result;
+    }
+
+    @Override
+    public ItemType getDynamicType() {
+        return BuiltinTypesCatalogue.objectItem;
+    }
+
+    @Override
+    public boolean getEffectiveBooleanValue() {
+        return true;
+    }
+}
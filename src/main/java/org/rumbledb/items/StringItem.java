@@ -27,6 +27,7 @@ import com.esotericsoftware.kryo.io.Output;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.comparison.ComparisonExpression.ComparisonOperator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
 import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.runtime.misc.ComparisonIterator;
@@ -145,7 +146,11 @@ public class StringItem implements Item {
 
     @Override
     public NativeClauseContext generateNativeQuery(NativeClauseContext context) {
-        return new NativeClauseContext(context, '"' + this.value + '"', BuiltinTypesCatalogue.stringItem);
+        return new NativeClauseContext(
+                context,
+                FlworDataFrameUtils.createSQLStringLiteral(this.value),
+                BuiltinTypesCatalogue.stringItem
+        );
     }
 
     @Override
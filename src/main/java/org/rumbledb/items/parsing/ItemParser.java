@@ -40,12 +40,14 @@ import org.rumbledb.exceptions.OurBadException;
 import org.rumbledb.exceptions.ParsingException;
 import org.rumbledb.exceptions.RumbleException;
 import org.rumbledb.items.ItemFactory;
+import org.rumbledb.items.ObjectShape;
+import org.rumbledb.items.ObjectShapeCache;
+import org.rumbledb.items.RowObjectItem;
 
 import com.fasterxml.jackson.dataformat.yaml.YAMLParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import org.rumbledb.types.BuiltinTypesCatalogue;
-import org.rumbledb.types.FieldDescriptor;
 import org.rumbledb.types.ItemType;
 import scala.collection.mutable.WrappedArray;
 import sparksoniq.spark.SparkSessionManager;
@@ -58,10 +60,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Date;
 import java.sql.Timestamp;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class ItemParser implements Serializable {
 
@@ -96,6 +96,19 @@ public class ItemParser implements Serializable {
      * @return the parsed item.
      */
     public static Item getItemFromObject(JsonReader object, ExceptionMetadata metadata) {
+        return getItemFromObject(object, metadata, null);
+    }
+
+    /**
+     * Parses a JSON string, accessible via a reader, to an item. Objects are given shared shapes from the supplied
+     * cache, so that objects with the same keys in the same order share their key layout.
+     *
+     * @param object the JSON reader.
+     * @param metadata exception metadata is an error is thrown.
+     * @param shapes the cache of object shapes, or null if objects should own their keys.
+     * @return the parsed item.
+     */
+    public static Item getItemFromObject(JsonReader object, ExceptionMetadata metadata, ObjectShapeCache shapes) {
         try {
             if (object.peek() == JsonToken.STRING) {
                 return ItemFactory.getInstance().createStringItem(object.nextString());
@@ -117,20 +130,35 @@ public class ItemParser implements Serializable {
                 List<Item> values = new ArrayList<>();
                 object.beginArray();
                 while (object.hasNext()) {
-                    values.add(getItemFromObject(object, metadata));
+                    values.add(getItemFromObject(object, metadata, shapes));
                 }
                 object.endArray();
                 return ItemFactory.getInstance().createArrayItem(values);
             }
             if (object.peek() == JsonToken.BEGIN_OBJECT) {
-                List<String> keys = new ArrayList<>();
+                ObjectShape shape = shapes == null ? null : shapes.getEmptyShape();
+                List<String> keys = shape == null ? new ArrayList<>() : null;
                 List<Item> values = new ArrayList<>();
                 object.beginObject();
                 while (object.hasNext()) {
-                    keys.add(object.nextName());
-                    values.add(getItemFromObject(object, metadata));
+                    String key = object.nextName();
+                    if (shape != null) {
+                        ObjectShape nextShape = shapes.addKey(shape, key, metadata);
+                        if (nextShape == null) {
+                            // The cache is full, this object owns its keys.
+                            keys = new ArrayList<>(shape.getKeys());
+                            keys.add(key);
+                        }
+                        shape = nextShape;
+                    } else {
+                        keys.add(key);
+                    }
+                    values.add(getItemFromObject(object, metadata, shapes));
                 }
                 object.endObject();
+                if (shape != null) {
+                    return ItemFactory.getInstance().createObjectItem(shape, values);
+                }
                 return ItemFactory.getInstance()
                     .createObjectItem(keys, values, metadata);
             }
@@ -255,60 +283,35 @@ public class ItemParser implements Serializable {
      * @return the converted item.
      */
     public static Item getItemFromRow(Row row, ExceptionMetadata metadata, ItemType itemType) {
-        List<String> keys = new ArrayList<>();
-        List<Item> values = new ArrayList<>();
         StructType schema = row.schema();
         StructField[] fields = schema.fields();
-        String[] fieldnames = schema.fieldNames();
 
-        if (fields.length == 1 && fieldnames[0].equals(SparkSessionManager.atomicJSONiqItemColumnName)) {
+        if (fields.length == 1 && fields[0].name().equals(SparkSessionManager.atomicJSONiqItemColumnName)) {
             return convertValueToItem(row, 0, null, fields[0].dataType(), metadata, itemType);
         }
 
-        Map<String, FieldDescriptor> content = null;
-
-        if (itemType != null && !itemType.equals(BuiltinTypesCatalogue.item)) {
-            content = itemType.getObjectContentFacet();
-            if (content == null) {
-                throw new OurBadException(
-                        "Object descriptor content in type " + itemType.getIdentifierString() + " is null."
-                );
-            }
-        }
-
-        for (int i = 0; i < fields.length; ++i) {
-            StructField field = fields[i];
-            DataType fieldType = field.dataType();
-            String fieldName = field.name();
-            ItemType fieldItemType = null;
-            if (content != null) {
-                FieldDescriptor descriptor = content.get(fieldName);
-                if (descriptor != null) {
-                    fieldItemType = descriptor.getType();
-                    if (fieldItemType == null) {
-                        throw new OurBadException(
-                                "Type for field "
-                                    + fieldName
-                                    + " in type "
-                                    + itemType.getIdentifierString()
-                                    + " is null."
-                        );
-                    }
-                }
-            }
-            Item newItem = convertValueToItem(row, i, null, fieldType, metadata, fieldItemType);
-            // NULL values in DataFrames are mapped to absent in JSONiq.
-            if (
-                !newItem.isNull()
-                    || (!fieldName.equals(SparkSessionManager.emptyObjectJSONiqItemColumnName)
-                        && fieldType.equals(DataTypes.NullType))
-            ) {
-                keys.add(fieldName);
-                values.add(newItem);
-            }
-        }
+        // the fields are only converted when they are looked up.
+        return new RowObjectItem(row, itemType, metadata);
+    }
 
-        return ItemFactory.getInstance().createObjectItem(keys, values, metadata);
+    /**
+     * Converts a field of a DataFrame row to an item.
+     *
+     * @param row the DataFrame row.
+     * @param i the position of the field.
+     * @param fieldType the type of the field.
+     * @param metadata exception metadata is an error is thrown.
+     * @param itemType the type to annotate the output item with (it can be null for no annotation).
+     * @return the converted item, which is a null item if the field is NULL.
+     */
+    public static Item convertFieldToItem(
+            Row row,
+            int i,
+            DataType fieldType,
+            ExceptionMetadata metadata,
+            ItemType itemType
+    ) {
+        return convertValueToItem(row, i, null, fieldType, metadata, itemType);
     }
 
     public static Item convertValueToItem(
@@ -456,8 +459,7 @@ public class ItemParser implements Serializable {
             } else {
                 value = (Timestamp) o;
             }
-            Instant instant = value.toInstant();
-            DateTime dt = new DateTime(instant);
+            DateTime dt = new DateTime(value.getTime());
             Item item = ItemFactory.getInstance().createDateTimeItem(dt, false);
             if (itemType == null || itemType.equals(BuiltinTypesCatalogue.dateTimeStampItem)) {
                 return item;
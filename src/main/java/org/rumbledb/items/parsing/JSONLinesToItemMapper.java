@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items.parsing;
+
+import org.apache.hadoop.io.Text;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.items.ObjectShapeCache;
+import com.google.gson.stream.JsonReader;
+
+import java.util.Iterator;
+
+/**
+ * Parses the lines of a JSON Lines file, as read by Hadoop, to items. The lines are decoded straight from the bytes
+ * of the Hadoop records, without going through a String, and the decoder and object shapes are shared by all the
+ * lines of a partition.
+ *
+ * Hadoop reuses the same Text instance for all the records of a split, so each line is parsed as soon as it is
+ * returned by the underlying iterator.
+ */
+public class JSONLinesToItemMapper implements FlatMapFunction<Iterator<Text>, Item> {
+
+    private static final long serialVersionUID = 1L;
+    private final ExceptionMetadata metadata;
+
+    public JSONLinesToItemMapper(ExceptionMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public Iterator<Item> call(Iterator<Text> lineIterator) throws Exception {
+        ObjectShapeCache shapes = new ObjectShapeCache();
+        UTF8BytesReader reader = new UTF8BytesReader();
+        return new Iterator<Item>() {
+            @Override
+            public boolean hasNext() {
+                return lineIterator.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                Text line = lineIterator.next();
+                reader.reset(line.getBytes(), 0, line.getLength());
+                JsonReader object = new JsonReader(reader);
+                return ItemParser.getItemFromObject(object, JSONLinesToItemMapper.this.metadata, shapes);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.items.parsing;
+
+import java.io.Reader;
+
+/**
+ * A reader that decodes UTF-8 directly from a byte array, and that can be pointed to another byte array to avoid
+ * allocating a new reader (and a new decoder with its buffers) for every line of a file. Malformed sequences are
+ * replaced with U+FFFD, like Hadoop's Text does when converting to a String.
+ */
+public class UTF8BytesReader extends Reader {
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private byte[] bytes;
+    private int position;
+    private int end;
+    // The low surrogate of a supplementary character that did not fit in the last buffer.
+    private int pendingLowSurrogate;
+
+    public UTF8BytesReader() {
+        reset(new byte[0], 0, 0);
+    }
+
+    /**
+     * Points the reader to new content.
+     *
+     * @param bytes the UTF-8 encoded bytes.
+     * @param offset the offset of the content in the array.
+     * @param length the length of the content.
+     */
+    public void reset(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.end = offset + length;
+        this.pendingLowSurrogate = -1;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int count = 0;
+        if (this.pendingLowSurrogate != -1) {
+            buffer[offset + count++] = (char) this.pendingLowSurrogate;
+            this.pendingLowSurrogate = -1;
+        }
+        while (count < length && this.position < this.end) {
+            int first = this.bytes[this.position] & 0xFF;
+            if (first < 0x80) {
+                buffer[offset + count++] = (char) first;
+                this.position++;
+                continue;
+            }
+            int codePoint = decode(first);
+            if (codePoint < 0) {
+                // -codePoint malformed bytes are replaced with one character.
+                buffer[offset + count++] = REPLACEMENT_CHARACTER;
+                this.position -= codePoint;
+                continue;
+            }
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                buffer[offset + count++] = (char) codePoint;
+            } else {
+                buffer[offset + count++] = Character.highSurrogate(codePoint);
+                if (count < length) {
+                    buffer[offset + count++] = Character.lowSurrogate(codePoint);
+                } else {
+                    this.pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                }
+            }
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Decodes the multi-byte sequence at the current position, and skips it if it is well-formed. The malformed
+     * sequences are the same as for the JDK decoder: overlong forms, surrogates and code points above U+10FFFF are
+     * rejected, the maximal prefix of a valid sequence is replaced with one character, and so is an incomplete
+     * sequence at the end of the content.
+     *
+     * @param first the first byte, at least 0x80.
+     * @return the code point, or minus the number of bytes to replace.
+     */
+    private int decode(int first) {
+        int remaining = this.end - this.position;
+        int second = remaining > 1 ? this.bytes[this.position + 1] & 0xFF : 0;
+        int third = remaining > 2 ? this.bytes[this.position + 2] & 0xFF : 0;
+        if (first >= 0xC2 && first <= 0xDF) {
+            if (remaining < 2) {
+                return -remaining;
+            }
+            if (!isContinuation(second)) {
+                return -1;
+            }
+            this.position += 2;
+            return ((first & 0x1F) << 6) | (second & 0x3F);
+        }
+        if ((first & 0xF0) == 0xE0) {
+            if (remaining > 1 && (!isContinuation(second) || (first == 0xE0 && second < 0xA0))) {
+                return -1;
+            }
+            if (remaining < 3) {
+                return -remaining;
+            }
+            if (!isContinuation(third)) {
+                return -2;
+            }
+            int codePoint = ((first & 0x0F) << 12) | ((second & 0x3F) << 6) | (third & 0x3F);
+            if (Character.isSurrogate((char) codePoint)) {
+                return -3;
+            }
+            this.position += 3;
+            return codePoint;
+        }
+        if (first >= 0xF0 && first <= 0xF4) {
+            if (
+                remaining > 1
+                    && (!isContinuation(second)
+                        || (first == 0xF0 && second < 0x90)
+                        || (first == 0xF4 && second > 0x8F))
+            ) {
+                return -1;
+            }
+            if (remaining > 2 && !isContinuation(third)) {
+                return -2;
+            }
+            if (remaining < 4) {
+                return -remaining;
+            }
+            int fourth = this.bytes[this.position + 3] & 0xFF;
+            if (!isContinuation(fourth)) {
+                return -3;
+            }
+            this.position += 4;
+            return ((first & 0x07) << 18) | ((second & 0x3F) << 12) | ((third & 0x3F) << 6) | (fourth & 0x3F);
+        }
+        return -1;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    @Override
+    public void close() {
+    }
+}
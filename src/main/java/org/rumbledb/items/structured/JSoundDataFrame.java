@@ -11,6 +11,7 @@ import org.apache.spark.sql.types.ArrayType;
 import org.apache.spark.sql.types.DataType;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 import org.rumbledb.api.Item;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.exceptions.OurBadException;
@@ -177,4 +178,16 @@ public class JSoundDataFrame implements Serializable {
     public JSoundDataFrame repartition(int n) {
         return new JSoundDataFrame(this.getDataFrame().repartition(n), this.itemType);
     }
+
+    public StorageLevel getStorageLevel() {
+        return this.dataFrame.storageLevel();
+    }
+
+    public void persist(StorageLevel storageLevel) {
+        this.dataFrame.persist(storageLevel);
+    }
+
+    public void unpersist() {
+        this.dataFrame.unpersist(false);
+    }
 }
@@ -97,7 +97,11 @@ public abstract class HybridRuntimeIterator extends RuntimeIterator {
         if (this.result == null) {
             this.currentResultIndex = 0;
             JavaRDD<Item> rdd = this.getRDD(this.currentDynamicContextForLocalExecution);
-            this.result = SparkSessionManager.collectRDDwithLimit(rdd, this.getMetadata());
+            this.result = SparkSessionManager.collectRDDwithLimit(
+                rdd,
+                this.currentDynamicContextForLocalExecution.getRumbleRuntimeConfiguration().getResultSizeCap(),
+                this.getMetadata()
+            );
             this.hasNext = !this.result.isEmpty();
         }
         return this.hasNext;
@@ -153,7 +157,11 @@ public abstract class HybridRuntimeIterator extends RuntimeIterator {
             return;
         }
         JavaRDD<Item> items = this.getRDD(context);
-        List<Item> collectedItems = SparkSessionManager.collectRDDwithLimit(items, this.getMetadata());
+        List<Item> collectedItems = SparkSessionManager.collectRDDwithLimit(
+            items,
+            context.getRumbleRuntimeConfiguration().getResultSizeCap(),
+            this.getMetadata()
+        );
         result.clear();
         result.addAll(collectedItems);
     }
@@ -28,7 +28,9 @@ import java.io.ObjectOutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -61,6 +63,8 @@ public abstract class RuntimeIterator implements RuntimeIteratorInterface, KryoS
 
     protected static final String FLOW_EXCEPTION_MESSAGE = "Invalid next() call; ";
     private static final long serialVersionUID = 1L;
+    // deep recursion acquires many copies at the same time, of which only that many are kept once released.
+    private static final int MAX_RELEASED_COPIES = 16;
     protected transient boolean hasNext;
     protected transient boolean isOpen;
     protected List<RuntimeIterator> children;
@@ -70,6 +74,8 @@ public abstract class RuntimeIterator implements RuntimeIteratorInterface, KryoS
     // private StaticContext staticContext;
 
     protected ExecutionMode highestExecutionMode;
+    // copies of this iterator that can be reused, see acquireCopy().
+    private transient Deque<RuntimeIterator> releasedCopies;
 
     protected RuntimeIterator(List<RuntimeIterator> children, ExecutionMode executionMode, ExceptionMetadata metadata) {
         this.metadata = metadata;
@@ -423,6 +429,40 @@ public abstract class RuntimeIterator implements RuntimeIteratorInterface, KryoS
         }
     }
 
+    /**
+     * Returns a deep copy of this iterator that is used by nobody else until it is released with releaseCopy(). Copies
+     * that were released are reused, so that evaluating a function body many times, e.g., once per tuple or once per
+     * recursive call, does not copy the whole tree each time.
+     *
+     * @return a closed copy of this iterator.
+     */
+    public synchronized RuntimeIterator acquireCopy() {
+        if (this.releasedCopies != null && !this.releasedCopies.isEmpty()) {
+            return this.releasedCopies.pop();
+        }
+        return deepCopy();
+    }
+
+    /**
+     * Makes a copy obtained with acquireCopy() available again. The copy is closed if it is still open, and dropped if
+     * enough copies are already available.
+     *
+     * @param copy the copy, which the caller must not use anymore.
+     */
+    public void releaseCopy(RuntimeIterator copy) {
+        if (copy.isOpen()) {
+            copy.close();
+        }
+        synchronized (this) {
+            if (this.releasedCopies == null) {
+                this.releasedCopies = new ArrayDeque<>();
+            }
+            if (this.releasedCopies.size() < MAX_RELEASED_COPIES) {
+                this.releasedCopies.push(copy);
+            }
+        }
+    }
+
     /**
      * This function generate (if possible) a native spark-sql query that maps the inner working of the iterator
      *
@@ -38,7 +38,9 @@ import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
 import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.functions.datetime.NativeDateTimeQueries;
 import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.ItemType;
 
 
 public class AdditiveOperationIterator extends AtMostOneItemLocalRuntimeIterator {
@@ -64,6 +66,18 @@ public class AdditiveOperationIterator extends AtMostOneItemLocalRuntimeIterator
         this.isMinus = isMinus;
     }
 
+    public RuntimeIterator getLeftIterator() {
+        return this.leftIterator;
+    }
+
+    public RuntimeIterator getRightIterator() {
+        return this.rightIterator;
+    }
+
+    public boolean isMinus() {
+        return this.isMinus;
+    }
+
     public Item materializeFirstItemOrNull(
             DynamicContext dynamicContext
     ) {
@@ -428,6 +442,15 @@ public class AdditiveOperationIterator extends AtMostOneItemLocalRuntimeIterator
         if (leftResult == NativeClauseContext.NoNativeQuery || rightResult == NativeClauseContext.NoNativeQuery) {
             return NativeClauseContext.NoNativeQuery;
         }
+        if (leftResult.getResultingType() == null || rightResult.getResultingType() == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        if (isDurationType(rightResult.getResultingType())) {
+            return generateNativeDateTimeQuery(nativeClauseContext, leftResult, rightResult);
+        }
+        if (!this.isMinus && isDurationType(leftResult.getResultingType())) {
+            return generateNativeDateTimeQuery(nativeClauseContext, rightResult, leftResult);
+        }
         String leftQuery = leftResult.getResultingQuery();
         String rightQuery = rightResult.getResultingQuery();
         if (!leftResult.getResultingType().equals(BuiltinTypesCatalogue.floatItem)) {
@@ -472,4 +495,35 @@ public class AdditiveOperationIterator extends AtMostOneItemLocalRuntimeIterator
             return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.floatItem);
         }
     }
+
+    private static boolean isDurationType(ItemType type) {
+        return type.equals(BuiltinTypesCatalogue.dayTimeDurationItem)
+            || type.equals(BuiltinTypesCatalogue.yearMonthDurationItem);
+    }
+
+    private NativeClauseContext generateNativeDateTimeQuery(
+            NativeClauseContext nativeClauseContext,
+            NativeClauseContext dateTimeResult,
+            NativeClauseContext durationResult
+    ) {
+        ItemType type = dateTimeResult.getResultingType();
+        if (type.equals(BuiltinTypesCatalogue.dateTimeItem)) {
+            // days and months are added in the session time zone, which must be that of dateTime items.
+            if (!NativeDateTimeQueries.isSessionTimeZoneConsistent()) {
+                return NativeClauseContext.NoNativeQuery;
+            }
+        } else if (
+            !type.equals(BuiltinTypesCatalogue.dateItem)
+                || !durationResult.getResultingType().equals(BuiltinTypesCatalogue.yearMonthDurationItem)
+        ) {
+            // Spark SQL only adds intervals without any time to dates.
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String resultingQuery = "( "
+            + dateTimeResult.getResultingQuery()
+            + (this.isMinus ? " - " : " + ")
+            + durationResult.getResultingQuery()
+            + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, type);
+    }
 }
@@ -47,6 +47,7 @@ import org.apache.spark.sql.expressions.Window;
 import org.apache.spark.sql.types.ArrayType;
 import org.apache.spark.sql.types.DataType;
 import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.DecimalType;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 import org.rumbledb.api.Item;
@@ -55,31 +56,13 @@ import org.rumbledb.context.DynamicContext;
 import org.rumbledb.context.FunctionIdentifier;
 import org.rumbledb.context.Name;
 import org.rumbledb.exceptions.OurBadException;
-import org.rumbledb.items.AnnotatedItem;
-import org.rumbledb.items.AnyURIItem;
-import org.rumbledb.items.ArrayItem;
-import org.rumbledb.items.Base64BinaryItem;
-import org.rumbledb.items.BooleanItem;
-import org.rumbledb.items.DateItem;
-import org.rumbledb.items.DateTimeItem;
-import org.rumbledb.items.DateTimeStampItem;
-import org.rumbledb.items.DayTimeDurationItem;
-import org.rumbledb.items.DecimalItem;
-import org.rumbledb.items.DoubleItem;
-import org.rumbledb.items.DurationItem;
-import org.rumbledb.items.FloatItem;
 import org.rumbledb.items.FunctionItem;
-import org.rumbledb.items.HexBinaryItem;
-import org.rumbledb.items.IntItem;
-import org.rumbledb.items.IntegerItem;
-import org.rumbledb.items.NullItem;
-import org.rumbledb.items.ObjectItem;
-import org.rumbledb.items.StringItem;
-import org.rumbledb.items.TimeItem;
-import org.rumbledb.items.YearMonthDurationItem;
+import org.rumbledb.items.ItemSerializer;
 import org.rumbledb.items.structured.JSoundDataFrame;
 import org.rumbledb.runtime.flwor.FlworDataFrameColumn.ColumnFormat;
+import org.rumbledb.runtime.typing.ValidateTypeIterator;
 import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.FieldDescriptor;
 import org.rumbledb.types.ItemType;
 import org.rumbledb.types.SequenceType;
 
@@ -95,35 +78,22 @@ public class FlworDataFrameUtils {
     // we use UUID to escape backtick within DataFrame columns
     public static String backtickEscape = "d32a3242-b15d-46b8-b689-d2288f7f492f";
 
+    /**
+     * Creates a Spark SQL string literal, escaping the quotes and backslashes of the value.
+     *
+     * @param value the string value.
+     * @return the quoted literal.
+     */
+    public static String createSQLStringLiteral(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
     private static ThreadLocal<byte[]> lastBytesCache = ThreadLocal.withInitial(() -> null);
 
     private static ThreadLocal<List<Item>> lastObjectItemCache = ThreadLocal.withInitial(() -> null);
 
     public static void registerKryoClassesKryo(Kryo kryo) {
-        kryo.register(Item.class);
-        kryo.register(AnnotatedItem.class);
-
-        kryo.register(ArrayItem.class);
-        kryo.register(ObjectItem.class);
-
-        kryo.register(AnyURIItem.class);
-        kryo.register(Base64BinaryItem.class);
-        kryo.register(BooleanItem.class);
-        kryo.register(DateItem.class);
-        kryo.register(DateTimeItem.class);
-        kryo.register(DateTimeStampItem.class);
-        kryo.register(DayTimeDurationItem.class);
-        kryo.register(DecimalItem.class);
-        kryo.register(DoubleItem.class);
-        kryo.register(DurationItem.class);
-        kryo.register(FloatItem.class);
-        kryo.register(HexBinaryItem.class);
-        kryo.register(IntegerItem.class);
-        kryo.register(IntItem.class);
-        kryo.register(NullItem.class);
-        kryo.register(StringItem.class);
-        kryo.register(TimeItem.class);
-        kryo.register(YearMonthDurationItem.class);
+        ItemSerializer.registerItemClasses(kryo);
 
         kryo.register(FunctionItem.class);
         kryo.register(FunctionIdentifier.class);
@@ -315,6 +285,64 @@ public class FlworDataFrameUtils {
         throw new OurBadException("Variable " + variable + "not found.");
     }
 
+    /**
+     * Determines the native SQL data type in which the items bound to a new variable can be stored column-wise,
+     * based on the static type of the expression that produces them. Objects and arrays are stored as structs and
+     * arrays if their static type allows it.
+     *
+     * @param sequenceType the static type of the expression (may be null if unknown).
+     * @param configuration the runtime configuration.
+     * @return the native SQL data type of a single item, or null if items must be stored in binary format.
+     */
+    public static DataType getNativeDataTypeForItems(
+            SequenceType sequenceType,
+            RumbleRuntimeConfiguration configuration
+    ) {
+        if (sequenceType == null || sequenceType.isEmptySequence()) {
+            return null;
+        }
+        ItemType itemType = sequenceType.getItemType();
+        if (!itemType.isResolved() || !itemType.isCompatibleWithDataFrames(configuration)) {
+            return null;
+        }
+        if (!isItemTypeStorableNatively(itemType)) {
+            return null;
+        }
+        return ValidateTypeIterator.convertToDataType(itemType);
+    }
+
+    /**
+     * Checks whether items of the supplied type are converted back to the exact same items when read from a native
+     * column.
+     *
+     * @param itemType the item type.
+     * @return true if a native column preserves the values and types of the items, false otherwise.
+     */
+    private static boolean isItemTypeStorableNatively(ItemType itemType) {
+        if (itemType.isObjectItemType()) {
+            Map<String, FieldDescriptor> content = itemType.getObjectContentFacet();
+            if (content == null) {
+                return false;
+            }
+            for (FieldDescriptor descriptor : content.values()) {
+                if (!isItemTypeStorableNatively(descriptor.getType())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (itemType.isArrayItemType()) {
+            ItemType memberType = itemType.getArrayContentFacet();
+            return memberType != null && isItemTypeStorableNatively(memberType);
+        }
+        // integers and decimals are excluded as they may not fit in the precision of a SQL decimal.
+        return itemType.equals(BuiltinTypesCatalogue.stringItem)
+            || itemType.equals(BuiltinTypesCatalogue.booleanItem)
+            || itemType.equals(BuiltinTypesCatalogue.doubleItem)
+            || itemType.equals(BuiltinTypesCatalogue.floatItem)
+            || itemType.equals(BuiltinTypesCatalogue.intItem);
+    }
+
     /**
      * Checks if the specified variable is available as a single native item in a DataFrame with the
      * supplied schema.
@@ -873,8 +901,7 @@ public class FlworDataFrameUtils {
             return BuiltinTypesCatalogue.stringItem;
         } else if (type == DataTypes.IntegerType) {
             return BuiltinTypesCatalogue.integerItem;
-        } else if (type.equals(DataTypes.createDecimalType())) {
-            // TODO: test correct working
+        } else if (type instanceof DecimalType && ((DecimalType) type).scale() == 0) {
             return BuiltinTypesCatalogue.integerItem;
         } else if (type == DataTypes.LongType) {
             return BuiltinTypesCatalogue.longItem;
@@ -882,6 +909,10 @@ public class FlworDataFrameUtils {
             return BuiltinTypesCatalogue.doubleItem;
         } else if (type == DataTypes.FloatType) {
             return BuiltinTypesCatalogue.floatItem;
+        } else if (type == DataTypes.TimestampType) {
+            return BuiltinTypesCatalogue.dateTimeItem;
+        } else if (type == DataTypes.DateType) {
+            return BuiltinTypesCatalogue.dateItem;
         } else {
             return null;
         }
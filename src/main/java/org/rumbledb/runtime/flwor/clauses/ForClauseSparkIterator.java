@@ -25,6 +25,7 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataType;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
@@ -48,26 +49,25 @@ import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.runtime.flwor.closures.ItemsToBinaryColumn;
 import org.rumbledb.runtime.flwor.udfs.DataFrameContext;
 import org.rumbledb.runtime.flwor.udfs.ForClauseUDF;
-import org.rumbledb.runtime.flwor.udfs.GenericForClauseUDF;
 import org.rumbledb.runtime.flwor.udfs.IntegerSerializeUDF;
 import org.rumbledb.runtime.navigation.PredicateIterator;
-import org.rumbledb.types.BuiltinTypesCatalogue;
-import org.rumbledb.types.ItemType;
+import org.rumbledb.runtime.typing.ValidateTypeIterator;
 import org.rumbledb.types.SequenceType;
 
 import sparksoniq.jsoniq.tuple.FlworTuple;
 import sparksoniq.spark.SparkSessionManager;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 
 public class ForClauseSparkIterator extends RuntimeTupleIterator {
@@ -80,7 +80,10 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
     private Name positionalVariableName; // for efficient use in local iteration
     private RuntimeIterator assignmentIterator;
     private boolean allowingEmpty;
+    private SequenceType staticType;
+    private Set<String> accessedFields; // null if the variable is not only used to look up fields
     private DataFrameContext dataFrameContext;
+    private LocalHashJoin localHashJoin; // null if the expression cannot be evaluated locally as a hash join
 
     // Computation state
     private transient DynamicContext tupleContext; // re-use same DynamicContext object for efficiency
@@ -88,6 +91,8 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
     private transient FlworTuple nextLocalTupleResult;
     private transient FlworTuple inputTuple; // tuple received from child, used for tuple creation
     private transient boolean isFirstItem;
+    private transient boolean isLocalHashJoin;
+    private transient Iterator<Item> localHashJoinMatches;
 
     public ForClauseSparkIterator(
             RuntimeTupleIterator child,
@@ -96,15 +101,22 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             boolean allowingEmpty,
             RuntimeIterator assignmentIterator,
             ExecutionMode executionMode,
-            ExceptionMetadata iteratorMetadata
+            ExceptionMetadata iteratorMetadata,
+            SequenceType staticType,
+            Set<String> accessedFields
     ) {
         super(child, executionMode, iteratorMetadata);
         this.variableName = variableName;
         this.positionalVariableName = positionalVariableName;
         this.assignmentIterator = assignmentIterator;
         this.allowingEmpty = allowingEmpty;
+        this.staticType = staticType;
+        this.accessedFields = accessedFields;
         this.assignmentIterator.getVariableDependencies();
         this.dataFrameContext = new DataFrameContext();
+        if (this.child != null) {
+            this.localHashJoin = LocalHashJoin.create(this.assignmentIterator, this.child, iteratorMetadata);
+        }
     }
 
     public Name getVariableName() {
@@ -130,10 +142,16 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         if (this.child != null && this.evaluationDepthLimit != 0) { // if it's not a start clause
             this.child.open(this.currentDynamicContext);
             this.tupleContext = new DynamicContext(this.currentDynamicContext); // assign current context as parent
+            this.isLocalHashJoin = this.localHashJoin != null;
+            if (this.isLocalHashJoin) {
+                this.localHashJoin.clear();
+                this.localHashJoinMatches = null;
+            }
             this.position = 1;
             this.isFirstItem = true;
             setNextLocalTupleResult();
         } else { // if it's a start clause, get results using only the assignmentIterator
+            this.isLocalHashJoin = false;
             this.assignmentIterator.open(this.currentDynamicContext);
             this.position = 1;
             this.isFirstItem = true;
@@ -148,10 +166,16 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         if (this.child != null && this.evaluationDepthLimit != 0) { // if it's not a start clause
             this.child.reset(this.currentDynamicContext);
             this.tupleContext = new DynamicContext(this.currentDynamicContext); // assign current context as parent
+            this.isLocalHashJoin = this.localHashJoin != null;
+            if (this.isLocalHashJoin) {
+                this.localHashJoin.clear();
+                this.localHashJoinMatches = null;
+            }
             this.position = 1;
             this.isFirstItem = true;
             setNextLocalTupleResult();
         } else { // if it's a start clause, get results using only the assignmentIterator
+            this.isLocalHashJoin = false;
             this.assignmentIterator.reset(this.currentDynamicContext);
             this.position = 1;
             this.isFirstItem = true;
@@ -176,7 +200,7 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
     }
 
     private void setNextLocalTupleResult() {
-        if (this.assignmentIterator.isOpen()) {
+        if (isAssignmentOpen()) {
             if (setResultFromExpression()) {
                 return;
             }
@@ -186,7 +210,7 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             this.inputTuple = this.child.next();
             this.tupleContext.getVariableValues().removeAllVariables(); // clear the previous variables
             this.tupleContext.getVariableValues().setBindingsFromTuple(this.inputTuple, getMetadata());
-            this.assignmentIterator.open(this.tupleContext);
+            openAssignment();
             this.position = 1;
             this.isFirstItem = true;
             if (setResultFromExpression()) {
@@ -198,13 +222,53 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         this.hasNext = false;
     }
 
+    private void openAssignment() {
+        if (this.isLocalHashJoin) {
+            this.localHashJoinMatches = this.localHashJoin.getMatchingItems(
+                this.currentDynamicContext,
+                this.tupleContext
+            ).iterator();
+        } else {
+            this.assignmentIterator.open(this.tupleContext);
+        }
+    }
+
+    private boolean isAssignmentOpen() {
+        if (this.isLocalHashJoin) {
+            return this.localHashJoinMatches != null;
+        }
+        return this.assignmentIterator.isOpen();
+    }
+
+    private boolean assignmentHasNext() {
+        if (this.isLocalHashJoin) {
+            return this.localHashJoinMatches.hasNext();
+        }
+        return this.assignmentIterator.hasNext();
+    }
+
+    private Item nextAssignmentItem() {
+        if (this.isLocalHashJoin) {
+            return this.localHashJoinMatches.next();
+        }
+        return this.assignmentIterator.next();
+    }
+
+    private void closeAssignment() {
+        if (this.isLocalHashJoin) {
+            this.localHashJoinMatches = null;
+        } else {
+            this.assignmentIterator.close();
+        }
+    }
+
     /**
      * assignmentIterator has to be open prior to call.
      *
      * @return true if nextLocalTupleResult is set and hasNext is true, false otherwise
      */
     private boolean setResultFromExpression() {
-        if (this.assignmentIterator.hasNext()) { // if expression returns a value, set it as next
+        if (assignmentHasNext()) { // if expression returns a value, set it as next
 
             // Set the for item
             if (this.child == null || this.evaluationDepthLimit == 0) { // if initial for clause
@@ -212,7 +276,7 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             } else {
                 this.nextLocalTupleResult = new FlworTuple(this.inputTuple);
             }
-            this.nextLocalTupleResult.putValue(this.variableName, this.assignmentIterator.next());
+            this.nextLocalTupleResult.putValue(this.variableName, nextAssignmentItem());
 
             // Set the position item (if any)
             if (this.positionalVariableName != null) {
@@ -230,7 +294,7 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
 
         // If an item was already output by this expression and there is no more, we are done.
         if (!this.isFirstItem || !this.allowingEmpty) {
-            this.assignmentIterator.close();
+            closeAssignment();
             this.hasNext = false;
             return false;
         }
@@ -261,8 +325,8 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         if (this.child != null && this.evaluationDepthLimit != 0) {
             this.child.close();
         }
-        if (this.assignmentIterator.isOpen()) {
-            this.assignmentIterator.close();
+        if (isAssignmentOpen()) {
+            closeAssignment();
         }
     }
 
@@ -497,6 +561,7 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             predicateIterator,
             this.allowingEmpty,
             this.variableName,
+            JoinClauseSparkIterator.isSmallSequence(sequenceIterator),
             getMetadata()
         );
     }
@@ -633,13 +698,13 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             UDFcolumns = Collections.emptyList();
         }
 
-        df.sparkSession()
-            .udf()
-            .register(
-                "forClauseUDF",
-                new ForClauseUDF(this.assignmentIterator, context, UDFcolumns),
-                DataTypes.createArrayType(DataTypes.BinaryType)
-            );
+        registerForClauseUDF(
+            df,
+            this.assignmentIterator,
+            context,
+            UDFcolumns,
+            this.staticType
+        );
 
         String projectionVariables = FlworDataFrameUtils.getSQLColumnProjection(allColumns, true);
         String UDFParameters = FlworDataFrameUtils.getUDFParametersFromColumns(UDFcolumns);
@@ -745,7 +810,9 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             this.positionalVariableName,
             this.allowingEmpty,
             context,
-            outputDependencies
+            outputDependencies,
+            this.staticType,
+            this.accessedFields
         );
     }
 
@@ -769,14 +836,60 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
             DynamicContext context,
             Map<Name, DynamicContext.VariableDependency> outputDependencies
     ) {
-        Dataset<Row> df = null;;
+        return getDataFrameStartingClause(
+            iterator,
+            variableName,
+            positionalVariableName,
+            allowingEmpty,
+            context,
+            outputDependencies,
+            null,
+            null
+        );
+    }
+
+    /**
+     * 
+     * Starting clause and the expression is parallelizable.
+     * 
+     * @param iterator the expression iterator
+     * @param variableName the name of the for variable
+     * @param positionalVariableName the name of the positional variable (or null if none)
+     * @param allowingEmpty whether the allowing empty option is present
+     * @param context the dynamic context.
+     * @param outputDependencies the desired project.
+     * @param staticType the static type of the expression, used to store its items natively when possible (may be
+     *        null).
+     * @param accessedFields the fields that are looked up on the variable, the only ones read from an input of
+     *        objects (null to read all fields).
+     * @return the resulting DataFrame.
+     */
+    public static Dataset<Row> getDataFrameStartingClause(
+            RuntimeIterator iterator,
+            Name variableName,
+            Name positionalVariableName,
+            boolean allowingEmpty,
+            DynamicContext context,
+            Map<Name, DynamicContext.VariableDependency> outputDependencies,
+            SequenceType staticType,
+            Set<String> accessedFields
+    ) {
+        Dataset<Row> df = null;
         if (iterator.isDataFrame()) {
             JSoundDataFrame rows = iterator.getDataFrame(context);
 
             String assignment = FlworDataFrameUtils.createTempView(rows.getDataFrame());
             if (rows.getItemType().isObjectItemType()) {
-                String[] fields = rows.getDataFrame().schema().fieldNames();
-                String columnNames = FlworDataFrameUtils.getSQLProjection(Arrays.asList(fields), false);
+                List<String> fields = Arrays.asList(rows.getDataFrame().schema().fieldNames());
+                if (accessedFields != null) {
+                    // Spark then prunes the other columns when reading the input, e.g., a Parquet file.
+                    List<String> prunedFields = fields.stream()
+                        .filter(accessedFields::contains)
+                        .collect(Collectors.toList());
+                    // a struct needs at least one field, the first one is kept if the variable is never used.
+                    fields = prunedFields.isEmpty() ? fields.subList(0, Math.min(1, fields.size())) : prunedFields;
+                }
+                String columnNames = FlworDataFrameUtils.getSQLProjection(fields, false);
                 df = rows.getDataFrame()
                     .sparkSession()
                     .sql(
@@ -802,7 +915,15 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         } else {
             // create initial RDD from expression
             JavaRDD<Item> expressionRDD = iterator.getRDD(context);
-            df = getDataFrameFromItemRDD(variableName, expressionRDD);
+            DataType nativeType = FlworDataFrameUtils.getNativeDataTypeForItems(
+                staticType,
+                context.getRumbleRuntimeConfiguration()
+            );
+            if (nativeType != null) {
+                df = getDataFrameFromItemRDD(variableName, expressionRDD, nativeType, context);
+            } else {
+                df = getDataFrameFromItemRDD(variableName, expressionRDD);
+            }
         }
         if (positionalVariableName == null && !allowingEmpty) {
             return df;
@@ -868,6 +989,27 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         return SparkSessionManager.getInstance().getOrCreateSession().createDataFrame(rowRDD, schema);
     }
 
+    private static Dataset<Row> getDataFrameFromItemRDD(
+            Name variableName,
+            JavaRDD<Item> expressionRDD,
+            DataType nativeType,
+            DynamicContext context
+    ) {
+        // define a schema with a single native column
+        List<StructField> fields = Collections.singletonList(
+            DataTypes.createStructField(variableName.toString(), nativeType, true)
+        );
+        StructType schema = DataTypes.createStructType(fields);
+
+        JavaRDD<Row> rowRDD = expressionRDD.map(
+            item -> RowFactory.create(
+                ValidateTypeIterator.getRowColumnFromItemUsingDataType(item, nativeType, context)
+            )
+        );
+
+        return SparkSessionManager.getInstance().getOrCreateSession().createDataFrame(rowRDD, schema);
+    }
+
     @Override
     public Map<Name, DynamicContext.VariableDependency> getDynamicContextVariableDependencies() {
         Map<Name, DynamicContext.VariableDependency> result =
@@ -1225,92 +1367,34 @@ public class ForClauseSparkIterator extends RuntimeTupleIterator {
         return this.child.containsClause(kind);
     }
 
+    /**
+     * Registers the UDF evaluating the expression of a for clause for each input tuple. If the static type of the
+     * expression allows it, items are returned as native values (including structs and arrays for objects and arrays)
+     * rather than serialized in binary format.
+     *
+     * @param dataFrame the input DataFrame.
+     * @param newVariableExpression the expression of the for clause.
+     * @param context the dynamic context.
+     * @param UDFcolumns the columns on which the expression depends.
+     * @param staticType the static type of the expression (may be null).
+     */
     public static void registerForClauseUDF(
             Dataset<Row> dataFrame,
             RuntimeIterator newVariableExpression,
             DynamicContext context,
-            StructType inputSchema,
             List<FlworDataFrameColumn> UDFcolumns,
-            SequenceType sequenceType
+            SequenceType staticType
     ) {
-        if (
-            sequenceType != null
-                && !sequenceType.isEmptySequence()
-        ) {
-            ItemType itemType = sequenceType.getItemType();
-
-            if (itemType.equals(BuiltinTypesCatalogue.stringItem)) {
-                dataFrame.sparkSession()
-                    .udf()
-                    .register(
-                        "forClauseUDF",
-                        new GenericForClauseUDF<String>(
-                                newVariableExpression,
-                                context,
-                                UDFcolumns,
-                                "String"
-                        ),
-                        DataTypes.StringType
-                    );
-                return;
-            }
-
-            if (itemType.equals(BuiltinTypesCatalogue.integerItem)) {
-                dataFrame.sparkSession()
-                    .udf()
-                    .register(
-                        "forClauseUDF",
-                        new GenericForClauseUDF<Integer>(
-                                newVariableExpression,
-                                context,
-                                UDFcolumns,
-                                "Integer"
-                        ),
-                        DataTypes.IntegerType
-                    );
-                return;
-            }
-
-            if (itemType.equals(BuiltinTypesCatalogue.decimalItem)) {
-                dataFrame.sparkSession()
-                    .udf()
-                    .register(
-                        "forClauseUDF",
-                        new GenericForClauseUDF<BigDecimal>(
-                                newVariableExpression,
-                                context,
-                                UDFcolumns,
-                                "BigDecimal"
-                        ),
-                        DataTypes.createDecimalType()
-                    );
-                return;
-            }
-
-            if (itemType.equals(BuiltinTypesCatalogue.doubleItem)) {
-                dataFrame.sparkSession()
-                    .udf()
-                    .register(
-                        "forClauseUDF",
-                        new GenericForClauseUDF<Double>(
-                                newVariableExpression,
-                                context,
-                                UDFcolumns,
-                                "Double"
-                        ),
-                        DataTypes.DoubleType
-                    );
-                return;
-            }
-        }
-
-        // if it is not one of the allowed sequence type we just return the default udf
+        DataType nativeType = FlworDataFrameUtils.getNativeDataTypeForItems(
+            staticType,
+            context.getRumbleRuntimeConfiguration()
+        );
         dataFrame.sparkSession()
             .udf()
             .register(
                 "forClauseUDF",
-                new ForClauseUDF(newVariableExpression, context, UDFcolumns),
-                DataTypes.BinaryType
+                new ForClauseUDF(newVariableExpression, context, UDFcolumns, nativeType),
+                DataTypes.createArrayType(nativeType != null ? nativeType : DataTypes.BinaryType)
             );
     }
 
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.flwor.clauses;
+
+import org.rumbledb.api.Item;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.context.Name;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.expressions.arithmetic.MultiplicativeExpression;
+import org.rumbledb.expressions.comparison.ComparisonExpression;
+import org.rumbledb.items.ItemFactory;
+import org.rumbledb.runtime.arithmetics.AdditiveOperationIterator;
+import org.rumbledb.runtime.arithmetics.MultiplicativeOperationIterator;
+import org.rumbledb.runtime.misc.ComparisonIterator;
+import sparksoniq.jsoniq.tuple.FlworTuple;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates the tuples of one group of a group by clause evaluated locally.
+ *
+ * The values of a non-grouping variable that is only used in count($x), sum($x), avg($x), min($x) or max($x) after
+ * the group by clause are folded into an accumulator as the tuples come, instead of being held in memory until the
+ * end of the grouping. The variable is then bound to a short sequence on which the aggregate function returns the
+ * same result as on all the values of the group. The other variables are bound to the concatenation of their values.
+ */
+public class GroupAccumulator {
+
+    private final Set<Name> groupingVariables;
+    private final Map<Name, DynamicContext.VariableDependency> dependencies;
+    private final ExceptionMetadata metadata;
+    private final FlworTuple firstTuple;
+    private final Map<Name, VariableAccumulator> variables;
+
+    /**
+     * Creates the accumulator of a new group.
+     *
+     * @param firstTuple the first tuple of the group.
+     * @param groupingVariables the grouping variables, which are bound to their values in the first tuple.
+     * @param dependencies the dependencies of the clauses following the group by clause, or null if unknown.
+     * @param metadata the metadata.
+     */
+    public GroupAccumulator(
+            FlworTuple firstTuple,
+            Set<Name> groupingVariables,
+            Map<Name, DynamicContext.VariableDependency> dependencies,
+            ExceptionMetadata metadata
+    ) {
+        this.groupingVariables = groupingVariables;
+        this.dependencies = dependencies;
+        this.metadata = metadata;
+        this.firstTuple = firstTuple;
+        this.variables = new LinkedHashMap<>();
+        for (Name variable : firstTuple.getLocalKeys()) {
+            if (!groupingVariables.contains(variable)) {
+                this.variables.put(variable, new VariableAccumulator(getDependency(variable), metadata));
+            }
+        }
+        add(firstTuple);
+    }
+
+    private DynamicContext.VariableDependency getDependency(Name variable) {
+        if (this.dependencies == null || !this.dependencies.containsKey(variable)) {
+            return DynamicContext.VariableDependency.FULL;
+        }
+        return this.dependencies.get(variable);
+    }
+
+    /**
+     * Adds a tuple to the group.
+     *
+     * @param tuple a tuple with the same grouping key as the first tuple of the group.
+     */
+    public void add(FlworTuple tuple) {
+        for (Map.Entry<Name, VariableAccumulator> entry : this.variables.entrySet()) {
+            entry.getValue().add(tuple.getLocalValue(entry.getKey(), this.metadata));
+        }
+    }
+
+    /**
+     * Returns the output tuple of the group.
+     *
+     * @return the tuple binding the grouping variables and the accumulated non-grouping variables.
+     */
+    public FlworTuple getResult() {
+        FlworTuple result = new FlworTuple(this.firstTuple.getLocalKeys().size());
+        for (Name variable : this.firstTuple.getLocalKeys()) {
+            if (this.groupingVariables.contains(variable)) {
+                result.putValue(variable, this.firstTuple.getLocalValue(variable, this.metadata));
+            } else {
+                result.putValue(variable, this.variables.get(variable).getValue());
+            }
+        }
+        return result;
+    }
+
+    private static class VariableAccumulator {
+
+        private final DynamicContext.VariableDependency dependency;
+        private final ExceptionMetadata metadata;
+        private long count;
+        private Item first;
+        private Item sum;
+        // The extremum of the values of each dynamic type, so that the aggregate applies the same type promotion.
+        private List<Item> extrema;
+        // All the values, when they are needed or cannot be folded.
+        private List<Item> values;
+
+        private VariableAccumulator(DynamicContext.VariableDependency dependency, ExceptionMetadata metadata) {
+            this.dependency = dependency;
+            this.metadata = metadata;
+            this.count = 0;
+            this.first = null;
+            this.sum = null;
+            this.extrema = null;
+            this.values = null;
+            switch (dependency) {
+                case COUNT:
+                case SUM:
+                    break;
+                case AVERAGE:
+                    this.sum = ItemFactory.getInstance().createIntegerItem(BigInteger.ZERO);
+                    break;
+                case MAX:
+                case MIN:
+                    this.extrema = new ArrayList<>();
+                    break;
+                default:
+                    this.values = new ArrayList<>();
+            }
+        }
+
+        private void add(List<Item> items) {
+            for (Item item : items) {
+                if (this.values != null) {
+                    this.values.add(item);
+                    continue;
+                }
+                switch (this.dependency) {
+                    case COUNT:
+                        if (this.first == null) {
+                            this.first = item;
+                        }
+                        break;
+                    case SUM:
+                    case AVERAGE:
+                        addToSum(item);
+                        break;
+                    default:
+                        addToExtrema(item);
+                }
+                this.count++;
+            }
+        }
+
+        private void addToSum(Item item) {
+            if (this.sum == null) {
+                this.sum = item;
+                return;
+            }
+            Item result = AdditiveOperationIterator.processItem(this.sum, item, false);
+            if (result == null) {
+                // the aggregate will fail on these two values, with the appropriate error.
+                this.values = new ArrayList<>();
+                this.values.add(this.sum);
+                this.values.add(item);
+                return;
+            }
+            this.sum = result;
+        }
+
+        private void addToExtrema(Item item) {
+            if (
+                !(item.isNumeric() || item.isString() || item.isBoolean() || item.isNull())
+                    || item.isNaN()
+            ) {
+                this.values = new ArrayList<>(this.extrema);
+                this.values.add(item);
+                return;
+            }
+            for (int i = 0; i < this.extrema.size(); ++i) {
+                Item extremum = this.extrema.get(i);
+                if (extremum.getDynamicType().equals(item.getDynamicType())) {
+                    long comparison = ComparisonIterator.compareItems(
+                        item,
+                        extremum,
+                        ComparisonExpression.ComparisonOperator.VC_EQ,
+                        this.metadata
+                    );
+                    if (
+                        (this.dependency == DynamicContext.VariableDependency.MAX && comparison > 0)
+                            || (this.dependency == DynamicContext.VariableDependency.MIN && comparison < 0)
+                    ) {
+                        this.extrema.set(i, item);
+                    }
+                    return;
+                }
+            }
+            this.extrema.add(item);
+        }
+
+        private List<Item> getValue() {
+            if (this.values != null) {
+                return this.values;
+            }
+            if (this.count == 0) {
+                return Collections.emptyList();
+            }
+            switch (this.dependency) {
+                case COUNT:
+                    return Collections.nCopies((int) this.count, this.first);
+                case SUM:
+                    return Collections.singletonList(this.sum);
+                case AVERAGE:
+                    return Collections.singletonList(
+                        MultiplicativeOperationIterator.processItem(
+                            this.sum,
+                            ItemFactory.getInstance().createLongItem(this.count),
+                            MultiplicativeExpression.MultiplicativeOperator.DIV,
+                            this.metadata
+                        )
+                    );
+                default:
+                    return this.extrema;
+            }
+        }
+    }
+}
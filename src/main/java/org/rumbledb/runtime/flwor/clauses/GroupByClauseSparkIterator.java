@@ -24,6 +24,7 @@ import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.types.DataType;
 import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.DecimalType;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 import org.rumbledb.api.Item;
@@ -52,7 +53,6 @@ import sparksoniq.jsoniq.tuple.FlworTuple;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -144,16 +144,20 @@ public class GroupByClauseSparkIterator extends RuntimeTupleIterator {
      * All local results need to be calculated for grouping to be performed.
      */
     private void setAllLocalResults() {
-        Map<FlworKey, List<FlworTuple>> keyTuplePairs = mapTuplesToPairs();
-        keyTuplePairs.forEach((key, tupleList) -> linearizeTuples(tupleList));
+        Map<FlworKey, GroupAccumulator> groups = mapTuplesToGroups();
+        groups.forEach((key, group) -> this.localTupleResults.add(group.getResult()));
 
         this.child.close();
         this.hasNext = this.localTupleResults.size() != 0;
     }
 
 
-    private HashMap<FlworKey, List<FlworTuple>> mapTuplesToPairs() {
-        HashMap<FlworKey, List<FlworTuple>> keyValuePairs = new HashMap<>();
+    private HashMap<FlworKey, GroupAccumulator> mapTuplesToGroups() {
+        HashMap<FlworKey, GroupAccumulator> groups = new HashMap<>();
+        Set<Name> groupingVariables = new HashSet<>();
+        for (GroupByClauseSparkIteratorExpression expression : this.groupingExpressions) {
+            groupingVariables.add(expression.getVariableName());
+        }
 
         // assign current context as parent. re-use the same context object for efficiency
         DynamicContext tupleContext = new DynamicContext(this.currentDynamicContext);
@@ -216,36 +220,22 @@ public class GroupByClauseSparkIterator extends RuntimeTupleIterator {
                 }
             }
             FlworKey key = new FlworKey(results);
-            List<FlworTuple> values = keyValuePairs.get(key); // all values for a single matching key are held in a list
-            if (values == null) {
-                values = new ArrayList<>();
-                keyValuePairs.put(key, values);
-            }
-            values.add(inputTuple);
-        }
-        return keyValuePairs;
-    }
-
-    private void linearizeTuples(List<FlworTuple> keyTuplePairs) {
-        Iterator<FlworTuple> iterator = keyTuplePairs.iterator();
-        FlworTuple oldFirstTuple = iterator.next();
-        FlworTuple newTuple = new FlworTuple(oldFirstTuple.getLocalKeys().size());
-        for (Name tupleVariable : oldFirstTuple.getLocalKeys()) {
-            iterator = keyTuplePairs.iterator();
-            if (
-                this.groupingExpressions.stream()
-                    .anyMatch(v -> v.getVariableName().equals(tupleVariable))
-            ) {
-                newTuple.putValue(tupleVariable, oldFirstTuple.getLocalValue(tupleVariable, getMetadata()));
+            GroupAccumulator group = groups.get(key);
+            if (group == null) {
+                groups.put(
+                    key,
+                    new GroupAccumulator(
+                            inputTuple,
+                            groupingVariables,
+                            this.outputTupleProjection,
+                            getMetadata()
+                    )
+                );
             } else {
-                List<Item> allValues = new ArrayList<>();
-                while (iterator.hasNext()) {
-                    allValues.addAll(iterator.next().getLocalValue(tupleVariable, getMetadata()));
-                }
-                newTuple.putValue(tupleVariable, allValues);
+                group.add(inputTuple);
             }
         }
-        this.localTupleResults.add(newTuple);
+        return groups;
     }
 
     @Override
@@ -568,6 +558,17 @@ public class GroupByClauseSparkIterator extends RuntimeTupleIterator {
             } else if (groupingVariables.contains(entry.getKey())) {
                 // we are considering one of the grouping variables
                 selectString.append(entry.getKey().toString());
+            } else if (getNativeAggregateSQL(inputSchema, entry.getKey(), entry.getValue()) != null) {
+                // the variable is only used in an aggregate, which we compute natively as a sequence of at most one
+                // item (nulls are empty sequences in native columns)
+                FlworDataFrameColumn dfColumnSequence = new FlworDataFrameColumn(
+                        entry.getKey(),
+                        ColumnFormat.NATIVE_SEQUENCE
+                );
+                selectString.append("filter(array(");
+                selectString.append(getNativeAggregateSQL(inputSchema, entry.getKey(), entry.getValue()));
+                selectString.append("), x -> x is not null) as ");
+                selectString.append(dfColumnSequence);
             } else {
                 // we collect all the values, if it is a binary object we just switch over to udf
                 FlworDataFrameColumn dfColumnSequence = new FlworDataFrameColumn(
@@ -597,6 +598,99 @@ public class GroupByClauseSparkIterator extends RuntimeTupleIterator {
             );
     }
 
+    /**
+     * Returns the native Spark SQL aggregate computing, on the column of a variable, the same value as the JSONiq
+     * aggregate function on which the variable is dependent.
+     *
+     * @param inputSchema the schema of the input DataFrame.
+     * @param variable the non-grouping variable.
+     * @param dependency the dependency of the following clauses on the variable.
+     * @return the aggregate, or null if the variable is needed otherwise or the types would not match.
+     */
+    private static String getNativeAggregateSQL(
+            StructType inputSchema,
+            Name variable,
+            DynamicContext.VariableDependency dependency
+    ) {
+        if (!FlworDataFrameUtils.isVariableAvailableAsNativeItem(inputSchema, variable)) {
+            return null;
+        }
+        String columnName = variable.toString();
+        DataType type = inputSchema.fields()[inputSchema.fieldIndex(columnName)].dataType();
+        boolean isIntegral = type.equals(DataTypes.IntegerType)
+            || type.equals(DataTypes.LongType)
+            || type.equals(DataTypes.ShortType)
+            || type.equals(DataTypes.ByteType)
+            || (type instanceof DecimalType && ((DecimalType) type).scale() == 0);
+        switch (dependency) {
+            case SUM:
+                if (type.equals(DataTypes.DoubleType)) {
+                    return String.format("sum(`%s`)", columnName);
+                }
+                // decimal sums are null if they overflow 38 digits, which the sum of fewer than 2^63 values of at
+                // most 19 digits cannot do. Wider values, e.g., the xs:integer columns of decimal(38, 0), are
+                // collected and summed exactly.
+                int precision = getDecimalPrecision(type);
+                if (precision > 0 && precision <= 19) {
+                    return String.format(
+                        "sum(cast(`%s` as decimal(38, %d)))",
+                        columnName,
+                        type instanceof DecimalType ? ((DecimalType) type).scale() : 0
+                    );
+                }
+                return null;
+            case AVERAGE:
+                if (type.equals(DataTypes.DoubleType)) {
+                    return String.format("avg(`%s`)", columnName);
+                }
+                return null;
+            case MAX:
+            case MIN:
+                if (
+                    isIntegral
+                        || type.equals(DataTypes.DoubleType)
+                        || type.equals(DataTypes.FloatType)
+                        || type instanceof DecimalType
+                        || type.equals(DataTypes.StringType)
+                        || type.equals(DataTypes.BooleanType)
+                ) {
+                    return String.format(
+                        "%s(`%s`)",
+                        dependency == DynamicContext.VariableDependency.MAX ? "max" : "min",
+                        columnName
+                    );
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the number of decimal digits of the values of a numeric column type that is not a floating point type.
+     *
+     * @param type the type of the column.
+     * @return the number of digits, or 0 if it is not such a type.
+     */
+    private static int getDecimalPrecision(DataType type) {
+        if (type.equals(DataTypes.ByteType)) {
+            return 3;
+        }
+        if (type.equals(DataTypes.ShortType)) {
+            return 5;
+        }
+        if (type.equals(DataTypes.IntegerType)) {
+            return 10;
+        }
+        if (type.equals(DataTypes.LongType)) {
+            return 19;
+        }
+        if (type instanceof DecimalType) {
+            return ((DecimalType) type).precision();
+        }
+        return 0;
+    }
+
     public boolean containsClause(FLWOR_CLAUSES kind) {
         if (kind == FLWOR_CLAUSES.GROUP_BY) {
             return true;
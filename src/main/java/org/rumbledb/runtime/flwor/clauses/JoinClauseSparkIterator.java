@@ -38,6 +38,7 @@ import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
 import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.runtime.flwor.udfs.DataFrameContext;
 import org.rumbledb.runtime.flwor.udfs.WhereClauseUDF;
+import org.rumbledb.runtime.functions.input.ParallelizeFunctionIterator;
 import org.rumbledb.runtime.logics.AndOperationIterator;
 import org.rumbledb.runtime.misc.ComparisonIterator;
 import org.rumbledb.runtime.primary.ArrayRuntimeIterator;
@@ -104,6 +105,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
      * @param isLeftOuterJoin true if it is a left outer join, false otherwise.
      * @param newRightSideVariableName the new name of the variable to rename the context item in the output (null if no
      *        rename).
+     * @param isRightInputTupleSmall true if the right tuples are known to be few, e.g., because they were computed from
+     *        a local sequence, in which case they are broadcast.
      * @param metadata the metadata.
      * @return the joined tuple.
      */
@@ -117,8 +120,19 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
             RuntimeIterator predicateIterator,
             boolean isLeftOuterJoin,
             Name newRightSideVariableName, // really needed?
+            boolean isRightInputTupleSmall,
             ExceptionMetadata metadata
     ) {
+        // Is one of the two sides small enough to be broadcast to all executors, which avoids shuffling the other?
+        long broadcastThreshold = context.getRumbleRuntimeConfiguration().getBroadcastJoinThreshold();
+        boolean broadcastRight = broadcastThreshold > 0
+            && (isRightInputTupleSmall || isEstimatedSmallerThan(rightInputTuple, broadcastThreshold));
+        // The left side of a left outer join cannot be broadcast.
+        boolean broadcastLeft = broadcastThreshold > 0
+            && !broadcastRight
+            && !isLeftOuterJoin
+            && isEstimatedSmallerThan(leftInputTuple, broadcastThreshold);
+
         Dataset<Row> result = tryNativeQueryStatically(
             context,
             leftInputTuple,
@@ -127,6 +141,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
             predicateIterator,
             isLeftOuterJoin,
             newRightSideVariableName,
+            broadcastLeft,
+            broadcastRight,
             metadata
         );
         if (result != null) {
@@ -192,35 +208,14 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
 
 
         // Now we prepare the iterators for the two sides of the equality criterion.
-        RuntimeIterator rightHandSideEqualityCriterion;
-        RuntimeIterator leftHandSideEqualityCriterion;
-
-        if (rightTupleSideEqualityCriteria.size() == 1) {
-            rightHandSideEqualityCriterion = rightTupleSideEqualityCriteria.get(0);
-        } else {
-            rightHandSideEqualityCriterion = new ArrayRuntimeIterator(
-                    new CommaExpressionIterator(
-                            rightTupleSideEqualityCriteria,
-                            ExecutionMode.LOCAL,
-                            metadata
-                    ),
-                    ExecutionMode.LOCAL,
-                    metadata
-            );
-        }
-        if (leftTupleSideEqualityCriteria.size() == 1) {
-            leftHandSideEqualityCriterion = leftTupleSideEqualityCriteria.get(0);
-        } else {
-            leftHandSideEqualityCriterion = new ArrayRuntimeIterator(
-                    new CommaExpressionIterator(
-                            leftTupleSideEqualityCriteria,
-                            ExecutionMode.LOCAL,
-                            metadata
-                    ),
-                    ExecutionMode.LOCAL,
-                    metadata
-            );
-        }
+        RuntimeIterator rightHandSideEqualityCriterion = combineEqualityCriteria(
+            rightTupleSideEqualityCriteria,
+            metadata
+        );
+        RuntimeIterator leftHandSideEqualityCriterion = combineEqualityCriteria(
+            leftTupleSideEqualityCriteria,
+            metadata
+        );
         // leftInputTuple.show();
         // rightInputTuple.show();
 
@@ -305,13 +300,15 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
             );
 
         String UDFParameters = FlworDataFrameUtils.getUDFParameters(joinCriterionUDFcolumns);
+        String joinHint = getJoinHint(leftInputDFTableName, rightInputDFTableName, broadcastLeft, broadcastRight);
 
         // If we allow empty, we need a LEFT OUTER JOIN.
         if (isLeftOuterJoin) {
             Dataset<Row> resultDF = leftInputTuple.sparkSession()
                 .sql(
                     String.format(
-                        "SELECT %s FROM %s LEFT OUTER JOIN %s ON joinUDF(%s) = 'true'",
+                        "SELECT %s%s FROM %s LEFT OUTER JOIN %s ON joinUDF(%s) = 'true'",
+                        joinHint,
                         projectionVariables,
                         leftInputDFTableName,
                         rightInputDFTableName,
@@ -326,7 +323,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
             Dataset<Row> resultDF = leftInputTuple.sparkSession()
                 .sql(
                     String.format(
-                        "SELECT %s FROM %s JOIN %s ON `%s` = `%s` WHERE joinUDF(%s) = 'true'",
+                        "SELECT %s%s FROM %s JOIN %s ON `%s` = `%s` WHERE joinUDF(%s) = 'true'",
+                        joinHint,
                         projectionVariables,
                         leftInputDFTableName,
                         rightInputDFTableName,
@@ -341,7 +339,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
         Dataset<Row> resultDF = leftInputTuple.sparkSession()
             .sql(
                 String.format(
-                    "SELECT %s FROM %s JOIN %s ON joinUDF(%s) = 'true'",
+                    "SELECT %s%s FROM %s JOIN %s ON joinUDF(%s) = 'true'",
+                    joinHint,
                     projectionVariables,
                     leftInputDFTableName,
                     rightInputDFTableName,
@@ -351,7 +350,69 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
         return resultDF;
     }
 
-    private static boolean extractEqualityComparisonsForHashing(
+    /**
+     * Says whether a side of a join is estimated to have fewer tuples than a threshold, based on the statistics that
+     * Spark has on its plan. No estimate is available for tuples computed from RDDs, for which this returns false.
+     *
+     * @param tuples the tuples of one side of the join.
+     * @param threshold the number of tuples.
+     * @return true if the tuples are known to be fewer than the threshold, false otherwise.
+     */
+    private static boolean isEstimatedSmallerThan(Dataset<Row> tuples, long threshold) {
+        scala.Option<scala.math.BigInt> rowCount = tuples.queryExecution().optimizedPlan().stats().rowCount();
+        return rowCount.isDefined() && rowCount.get().longValue() < threshold;
+    }
+
+    /**
+     * Says whether the items of a sequence used on one side of a join are known to be few, without evaluating it. This
+     * is the case if the sequence is evaluated locally (e.g., a literal sequence or a local variable), or if it is a
+     * call to parallelize(), as its items are then materialized on the driver anyway.
+     *
+     * @param sequenceIterator the iterator of the sequence.
+     * @return true if the sequence is small, false otherwise.
+     */
+    public static boolean isSmallSequence(RuntimeIterator sequenceIterator) {
+        return !sequenceIterator.isRDDOrDataFrame() || sequenceIterator instanceof ParallelizeFunctionIterator;
+    }
+
+    private static String getJoinHint(String left, String right, boolean broadcastLeft, boolean broadcastRight) {
+        if (broadcastRight) {
+            System.err.println("[INFO] Rumble will broadcast the right side of a join.");
+            return String.format("/*+ BROADCAST(%s) */ ", right);
+        }
+        if (broadcastLeft) {
+            System.err.println("[INFO] Rumble will broadcast the left side of a join.");
+            return String.format("/*+ BROADCAST(%s) */ ", left);
+        }
+        return "";
+    }
+
+    /**
+     * Combines the equality criteria of one side of a join into a single iterator, whose result is hashed.
+     *
+     * @param equalityCriteria the criteria of one side.
+     * @param metadata the metadata.
+     * @return the single criterion.
+     */
+    static RuntimeIterator combineEqualityCriteria(
+            List<RuntimeIterator> equalityCriteria,
+            ExceptionMetadata metadata
+    ) {
+        if (equalityCriteria.size() == 1) {
+            return equalityCriteria.get(0);
+        }
+        return new ArrayRuntimeIterator(
+                new CommaExpressionIterator(
+                        equalityCriteria,
+                        ExecutionMode.LOCAL,
+                        metadata
+                ),
+                ExecutionMode.LOCAL,
+                metadata
+        );
+    }
+
+    static boolean extractEqualityComparisonsForHashing(
             RuntimeIterator predicateIterator,
             List<RuntimeIterator> leftTupleSideEqualityCriteria,
             List<RuntimeIterator> rightTupleSideEqualityCriteria,
@@ -447,6 +508,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
             RuntimeIterator predicateIterator,
             boolean isLeftOuterJoin,
             Name newRightSideVariableName, // really needed?
+            boolean broadcastLeft,
+            boolean broadcastRight,
             ExceptionMetadata metadata
     ) {
         if (isLeftOuterJoin) {
@@ -481,7 +544,8 @@ public class JoinClauseSparkIterator extends RuntimeTupleIterator {
         return leftInputTuple.sparkSession()
             .sql(
                 String.format(
-                    "SELECT %s FROM %s JOIN %s ON %s",
+                    "SELECT %s%s FROM %s JOIN %s ON %s",
+                    getJoinHint(left, right, broadcastLeft, broadcastRight),
                     projectionVariables,
                     left,
                     right,
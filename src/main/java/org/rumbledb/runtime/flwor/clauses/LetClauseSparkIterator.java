@@ -25,6 +25,7 @@ import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.context.Name;
@@ -58,8 +59,10 @@ import sparksoniq.jsoniq.tuple.FlworTuple;
 import sparksoniq.spark.SparkSessionManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -76,12 +79,16 @@ public class LetClauseSparkIterator extends RuntimeTupleIterator {
     private RuntimeIterator assignmentIterator;
     private DynamicContext tupleContext; // re-use same DynamicContext object for efficiency
     private FlworTuple nextLocalTupleResult;
+    private boolean isReferencedMoreThanOnce;
+    // unpersists the RDDs or DataFrames persisted for the last tuples, oldest first
+    private transient Deque<Runnable> unpersistActions;
 
     public LetClauseSparkIterator(
             RuntimeTupleIterator child,
             Name variableName,
             SequenceType sequenceType,
             RuntimeIterator assignmentIterator,
+            boolean isReferencedMoreThanOnce,
             ExecutionMode executionMode,
             ExceptionMetadata iteratorMetadata
     ) {
@@ -89,11 +96,13 @@ public class LetClauseSparkIterator extends RuntimeTupleIterator {
         this.variableName = variableName;
         this.sequenceType = sequenceType;
         this.assignmentIterator = assignmentIterator;
+        this.isReferencedMoreThanOnce = isReferencedMoreThanOnce;
     }
 
     @Override
     public void open(DynamicContext context) {
         super.open(context);
+        this.unpersistActions = new ArrayDeque<>();
         if (this.child == null || this.evaluationDepthLimit == 0) {
             this.nextLocalTupleResult = generateTupleFromExpressionWithContext(null, this.currentDynamicContext);
         } else {
@@ -106,6 +115,7 @@ public class LetClauseSparkIterator extends RuntimeTupleIterator {
     @Override
     public void reset(DynamicContext context) {
         super.reset(context);
+        unpersistAll();
         if (this.child == null || this.evaluationDepthLimit == 0) {
             this.nextLocalTupleResult = generateTupleFromExpressionWithContext(null, this.currentDynamicContext);
         } else {
@@ -146,9 +156,19 @@ public class LetClauseSparkIterator extends RuntimeTupleIterator {
         }
         if (this.assignmentIterator.isDataFrame()) {
             JSoundDataFrame df = this.assignmentIterator.getDataFrame(context);
+            StorageLevel storageLevel = getPersistLevel(context);
+            if (storageLevel != null && df.getStorageLevel().equals(StorageLevel.NONE())) {
+                df.persist(storageLevel);
+                addUnpersistAction(df::unpersist);
+            }
             resultTuple.putValue(this.variableName, df);
         } else if (this.assignmentIterator.isRDDOrDataFrame()) {
             JavaRDD<Item> itemRDD = this.assignmentIterator.getRDD(context);
+            StorageLevel storageLevel = getPersistLevel(context);
+            if (storageLevel != null && itemRDD.getStorageLevel().equals(StorageLevel.NONE())) {
+                itemRDD.persist(storageLevel);
+                addUnpersistAction(() -> itemRDD.unpersist(false));
+            }
             resultTuple.putValue(this.variableName, itemRDD);
         } else {
             List<Item> results = new ArrayList<>();
@@ -172,12 +192,45 @@ public class LetClauseSparkIterator extends RuntimeTupleIterator {
         throw new IteratorFlowException("Invalid next() call in let flwor clause", getMetadata());
     }
 
+    /**
+     * Returns the storage level with which the value of the variable is persisted, as it is referenced more than
+     * once. Values that are already persisted, e.g., with the persist() function, are left as they are.
+     *
+     * @param context the dynamic context.
+     * @return the storage level, or null if the value is not persisted.
+     */
+    private StorageLevel getPersistLevel(DynamicContext context) {
+        if (!this.isReferencedMoreThanOnce) {
+            return null;
+        }
+        StorageLevel storageLevel = context.getRumbleRuntimeConfiguration().getPersistLevel();
+        return storageLevel.equals(StorageLevel.NONE()) ? null : storageLevel;
+    }
+
+    private void addUnpersistAction(Runnable unpersistAction) {
+        this.unpersistActions.addLast(unpersistAction);
+        // the previous tuple may still be in use, as tuples are computed one in advance.
+        while (this.unpersistActions.size() > 2) {
+            this.unpersistActions.removeFirst().run();
+        }
+    }
+
+    private void unpersistAll() {
+        if (this.unpersistActions == null) {
+            return;
+        }
+        while (!this.unpersistActions.isEmpty()) {
+            this.unpersistActions.removeFirst().run();
+        }
+    }
+
     @Override
     public void close() {
         this.isOpen = false;
         if (this.child != null && this.evaluationDepthLimit != 0) {
             this.child.close();
         }
+        unpersistAll();
     }
 
     @Override
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.flwor.clauses;
+
+import org.rumbledb.api.Item;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.context.Name;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.MoreThanOneItemException;
+import org.rumbledb.exceptions.UnexpectedTypeException;
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.RuntimeTupleIterator;
+import org.rumbledb.runtime.navigation.PredicateIterator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates the expression of a for clause of the form sequence[predicate] locally as a hash join, if the sequence does
+ * not depend on the input tuple and the predicate contains equality criteria between the context item and the
+ * variables of the input tuple, as in "for $y in $ys[$$.id eq $x.id]".
+ *
+ * The sequence is evaluated only once, and its items are indexed by the hash of their side of the equality criteria,
+ * like the hash columns of a join in DataFrame mode. Each input tuple is then only checked against the items that have
+ * the same hash, instead of against all items of the sequence.
+ *
+ * The hash is computed on a normalized comparison key rather than with Item.hashCode(), so that values that are equal
+ * with eq have the same hash even if their types differ (e.g., 1, 1.0 and 1e0, or a string and an anyURI). If the
+ * values of the criteria are not all of the same kind, e.g., strings and numbers, the input tuple is checked against
+ * all items, so that the same type errors are raised as without the hash join.
+ */
+public class LocalHashJoin implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RuntimeIterator sequenceIterator;
+    private final RuntimeIterator predicateIterator;
+    private final RuntimeIterator sequenceSideCriterion;
+    private final RuntimeIterator tupleSideCriterion;
+    private final ExceptionMetadata metadata;
+
+    // The items of the sequence, indexed by hash, built on the first probe.
+    private transient Map<Long, List<Item>> hashTable;
+    // All items of the sequence, in order, and the kinds of their criteria, for the probes that need all of them.
+    private transient List<Item> items;
+    private transient Set<String> kinds;
+
+    private LocalHashJoin(
+            RuntimeIterator sequenceIterator,
+            RuntimeIterator predicateIterator,
+            RuntimeIterator sequenceSideCriterion,
+            RuntimeIterator tupleSideCriterion,
+            ExceptionMetadata metadata
+    ) {
+        this.sequenceIterator = sequenceIterator;
+        this.predicateIterator = predicateIterator;
+        this.sequenceSideCriterion = sequenceSideCriterion;
+        this.tupleSideCriterion = tupleSideCriterion;
+        this.metadata = metadata;
+        this.hashTable = null;
+    }
+
+    /**
+     * Creates a hash join for the expression of a for clause, if it has the required form.
+     *
+     * @param assignmentIterator the expression of the for clause.
+     * @param child the clause providing the input tuples.
+     * @param metadata the metadata.
+     * @return the hash join, or null if the expression cannot be evaluated as a hash join.
+     */
+    public static LocalHashJoin create(
+            RuntimeIterator assignmentIterator,
+            RuntimeTupleIterator child,
+            ExceptionMetadata metadata
+    ) {
+        if (!(assignmentIterator instanceof PredicateIterator)) {
+            return null;
+        }
+        RuntimeIterator sequenceIterator = ((PredicateIterator) assignmentIterator).sequenceIterator();
+        RuntimeIterator predicateIterator = ((PredicateIterator) assignmentIterator).predicateIterator();
+        if (sequenceIterator.isRDDOrDataFrame()) {
+            return null;
+        }
+        if (!LetClauseSparkIterator.isExpressionIndependentFromInputTuple(sequenceIterator, child)) {
+            return null;
+        }
+        Map<Name, DynamicContext.VariableDependency> predicateDependencies = predicateIterator
+            .getVariableDependencies();
+        if (
+            predicateDependencies.containsKey(Name.CONTEXT_POSITION)
+                || predicateDependencies.containsKey(Name.CONTEXT_COUNT)
+        ) {
+            return null;
+        }
+        List<RuntimeIterator> tupleSideCriteria = new ArrayList<>();
+        List<RuntimeIterator> sequenceSideCriteria = new ArrayList<>();
+        boolean isHashJoin = JoinClauseSparkIterator.extractEqualityComparisonsForHashing(
+            predicateIterator,
+            tupleSideCriteria,
+            sequenceSideCriteria,
+            new ArrayList<>(child.getOutputTupleVariableNames()),
+            Collections.singletonList(Name.CONTEXT_ITEM)
+        );
+        if (!isHashJoin) {
+            return null;
+        }
+        return new LocalHashJoin(
+                sequenceIterator,
+                predicateIterator,
+                JoinClauseSparkIterator.combineEqualityCriteria(sequenceSideCriteria, metadata),
+                JoinClauseSparkIterator.combineEqualityCriteria(tupleSideCriteria, metadata),
+                metadata
+        );
+    }
+
+    /**
+     * Forgets the items of the sequence, which must be evaluated again, e.g., because the dynamic context changed.
+     */
+    public void clear() {
+        this.hashTable = null;
+        this.items = null;
+        this.kinds = null;
+    }
+
+    /**
+     * Returns the items of the sequence that satisfy the predicate for an input tuple, in the order of the sequence.
+     *
+     * @param context the dynamic context in which the sequence is evaluated.
+     * @param tupleContext the dynamic context with the variables of the input tuple.
+     * @return the matching items.
+     */
+    public List<Item> getMatchingItems(DynamicContext context, DynamicContext tupleContext) {
+        if (this.hashTable == null) {
+            buildHashTable(context);
+        }
+        ComparisonKey key = getComparisonKey(this.tupleSideCriterion, tupleContext);
+        List<Item> candidates;
+        if (
+            key.kind.equals(ComparisonKey.NO_KIND)
+                || (this.kinds.size() == 1 && this.kinds.contains(key.kind))
+        ) {
+            candidates = this.hashTable.get(key.hash);
+        } else {
+            candidates = this.items;
+        }
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        List<Item> result = new ArrayList<>();
+        DynamicContext predicateContext = new DynamicContext(tupleContext);
+        for (Item candidate : candidates) {
+            predicateContext.getVariableValues()
+                .addVariableValue(Name.CONTEXT_ITEM, Collections.singletonList(candidate));
+            Item predicate = this.predicateIterator.materializeFirstItemOrNull(predicateContext);
+            if (predicate != null && predicate.getEffectiveBooleanValue()) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private void buildHashTable(DynamicContext context) {
+        this.hashTable = new HashMap<>();
+        this.items = this.sequenceIterator.materialize(context);
+        this.kinds = new HashSet<>();
+        DynamicContext itemContext = new DynamicContext(context);
+        for (Item item : this.items) {
+            itemContext.getVariableValues().addVariableValue(Name.CONTEXT_ITEM, Collections.singletonList(item));
+            ComparisonKey key = getComparisonKey(this.sequenceSideCriterion, itemContext);
+            if (!key.kind.equals(ComparisonKey.NO_KIND)) {
+                this.kinds.add(key.kind);
+            }
+            this.hashTable.computeIfAbsent(key.hash, k -> new ArrayList<>()).add(item);
+        }
+    }
+
+    private ComparisonKey getComparisonKey(RuntimeIterator criterion, DynamicContext context) {
+        Item item;
+        try {
+            item = criterion.materializeAtMostOneItemOrNull(context);
+        } catch (MoreThanOneItemException e) {
+            throw new UnexpectedTypeException(
+                    "Invalid args. Value comparison can't be performed on sequences with more than 1 items",
+                    this.metadata
+            );
+        }
+        if (item == null) {
+            return new ComparisonKey(ComparisonKey.NO_KIND, 0);
+        }
+        return ComparisonKey.of(item);
+    }
+
+    /**
+     * The key of a value of the equality criteria: its kind, i.e., the values of which it can be compared with, and a
+     * hash that is the same for all values of this kind that are equal with eq.
+     */
+    private static class ComparisonKey {
+
+        // The kind of the empty sequence and of null, which can be compared with any value without error.
+        static final String NO_KIND = "";
+
+        final String kind;
+        final long hash;
+
+        ComparisonKey(String kind, long hash) {
+            this.kind = kind;
+            this.hash = hash;
+        }
+
+        static ComparisonKey of(Item item) {
+            if (item.isArray()) {
+                // several criteria, combined into an array.
+                StringBuilder kind = new StringBuilder("[");
+                long hash = 1;
+                for (Item member : item.getItems()) {
+                    ComparisonKey key = of(member);
+                    kind.append(key.kind).append(',');
+                    hash = 31 * hash + key.hash;
+                }
+                return new ComparisonKey(kind.append(']').toString(), hash);
+            }
+            if (item.isNull()) {
+                return new ComparisonKey(NO_KIND, 1);
+            }
+            if (item.isNumeric()) {
+                // all numbers are compared as doubles when their types differ, and 0 and -0 are equal.
+                double value = item.castToDoubleValue();
+                return new ComparisonKey("numeric", Double.hashCode(value == 0 ? 0 : value));
+            }
+            if (item.isString() || item.isAnyURI()) {
+                return new ComparisonKey("string", item.getStringValue().hashCode());
+            }
+            if (item.isBoolean()) {
+                return new ComparisonKey("boolean", Boolean.hashCode(item.getBooleanValue()));
+            }
+            String kind = item.getDynamicType().toString();
+            if (item.isDateTime() || item.isDate() || item.isTime()) {
+                // the instant, which does not depend on the timezone in which it is given.
+                return new ComparisonKey(kind, item.getDateTimeValue().getMillis());
+            }
+            // e.g., durations, which are all checked.
+            return new ComparisonKey(kind, 0);
+        }
+    }
+}
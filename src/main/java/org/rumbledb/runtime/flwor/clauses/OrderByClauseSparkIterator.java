@@ -48,12 +48,15 @@ import org.rumbledb.runtime.flwor.expression.OrderByClauseAnnotatedChildIterator
 import org.rumbledb.runtime.flwor.udfs.OrderClauseCreateColumnsUDF;
 import org.rumbledb.runtime.flwor.udfs.OrderClauseDetermineTypeUDF;
 import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.ItemType;
+import org.rumbledb.types.SequenceType;
 
 import sparksoniq.jsoniq.tuple.FlworKey;
 import sparksoniq.jsoniq.tuple.FlworKeyComparator;
 import sparksoniq.jsoniq.tuple.FlworTuple;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -68,7 +71,25 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
 
     public static final String StringFlagForEmptySequence = "empty-sequence";
     private static final long serialVersionUID = 1L;
+    // Types that sorting keys can be given statically, all other types are determined from the data.
+    private static final List<ItemType> staticallySortableTypes = Arrays.asList(
+        BuiltinTypesCatalogue.booleanItem,
+        BuiltinTypesCatalogue.stringItem,
+        BuiltinTypesCatalogue.integerItem,
+        BuiltinTypesCatalogue.intItem,
+        BuiltinTypesCatalogue.doubleItem,
+        BuiltinTypesCatalogue.floatItem,
+        BuiltinTypesCatalogue.decimalItem,
+        BuiltinTypesCatalogue.durationItem,
+        BuiltinTypesCatalogue.yearMonthDurationItem,
+        BuiltinTypesCatalogue.dayTimeDurationItem,
+        BuiltinTypesCatalogue.dateTimeItem,
+        BuiltinTypesCatalogue.dateItem,
+        BuiltinTypesCatalogue.timeItem
+    );
     private final List<OrderByClauseAnnotatedChildIterator> expressionsWithIterator;
+    // The maximum number of tuples to output (top-k), or -1 to output all tuples.
+    private final int limit;
     private Map<Name, DynamicContext.VariableDependency> dependencies;
 
     private List<FlworTuple> localTupleResults;
@@ -78,11 +99,13 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
             RuntimeTupleIterator child,
             List<OrderByClauseAnnotatedChildIterator> expressionsWithIterator,
             boolean stable,
+            int limit,
             ExecutionMode executionMode,
             ExceptionMetadata iteratorMetadata
     ) {
         super(child, executionMode, iteratorMetadata);
         this.expressionsWithIterator = expressionsWithIterator;
+        this.limit = limit;
         this.dependencies = new TreeMap<>();
         for (OrderByClauseAnnotatedChildIterator e : this.expressionsWithIterator) {
             this.dependencies.putAll(e.getIterator().getVariableDependencies());
@@ -152,9 +175,14 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
         this.hasNext = this.localTupleResults.size() != 0;
     }
 
+    public int getLimit() {
+        return this.limit;
+    }
+
     /**
      * Evaluates expressions to atomics(error is thrown if not possible) which are used as keys for sorted TreeMap.
-     * Requires child iterator to be opened.
+     * Requires child iterator to be opened. If there is a limit, the TreeMap is used as a bounded priority queue: only
+     * the first tuples are kept, and among tuples with equal keys the ones that came first win.
      *
      * @return Sorted TreeMap(ascending). key - atomics from expressions, value - input tuples
      */
@@ -162,9 +190,9 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
         // tree map keeps the natural item order deduced from an implementation of Comparator
         // OrderByClauseSortClosure implements a comparator and provides the exact desired behavior for local execution
         // as well
-        TreeMap<FlworKey, List<FlworTuple>> keyValuePairs = new TreeMap<>(
-                new FlworKeyComparator(this.expressionsWithIterator)
-        );
+        FlworKeyComparator comparator = new FlworKeyComparator(this.expressionsWithIterator);
+        TreeMap<FlworKey, List<FlworTuple>> keyValuePairs = new TreeMap<>(comparator);
+        int numberOfTuples = 0;
 
         // assign current context as parent. re-use the same context object for efficiency
         DynamicContext tupleContext = new DynamicContext(this.currentDynamicContext);
@@ -197,12 +225,30 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
                 }
             }
             FlworKey key = new FlworKey(results);
+            if (
+                this.limit != -1
+                    && numberOfTuples >= this.limit
+                    && (this.limit == 0 || comparator.compare(key, keyValuePairs.lastKey()) >= 0)
+            ) {
+                // the queue is full and this tuple comes after all of its tuples.
+                continue;
+            }
             List<FlworTuple> values = keyValuePairs.get(key); // all values for a single matching key are held in a list
             if (values == null) {
                 values = new ArrayList<>();
                 keyValuePairs.put(key, values);
             }
             values.add(inputTuple);
+            numberOfTuples++;
+            if (this.limit != -1 && numberOfTuples > this.limit) {
+                Map.Entry<FlworKey, List<FlworTuple>> lastEntry = keyValuePairs.lastEntry();
+                List<FlworTuple> lastValues = lastEntry.getValue();
+                lastValues.remove(lastValues.size() - 1);
+                if (lastValues.isEmpty()) {
+                    keyValuePairs.remove(lastEntry.getKey());
+                }
+                numberOfTuples--;
+            }
         }
         return keyValuePairs;
     }
@@ -242,107 +288,23 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
             this.expressionsWithIterator,
             allColumns,
             inputSchema,
-            context
+            context,
+            this.limit
         );
         if (nativeQueryResult != null) {
             return nativeQueryResult;
         }
 
-        df.sparkSession()
-            .udf()
-            .register(
-                "determineOrderingDataType",
-                new OrderClauseDetermineTypeUDF(this.expressionsWithIterator, context, inputSchema, UDFcolumns),
-                DataTypes.createArrayType(DataTypes.StringType)
-            );
-
-
         String UDFParameters = FlworDataFrameUtils.getUDFParameters(UDFcolumns);
 
         df.createOrReplaceTempView("input");
-        df.sparkSession().table("input").cache();
-        Dataset<Row> columnTypesDf = df.sparkSession()
-            .sql(
-                String.format(
-                    "select distinct(determineOrderingDataType(%s)) as `distinct-types` from input",
-                    UDFParameters
-                )
-            );
-
-        Object columnTypesObject = columnTypesDf.collect();
-        Row[] columnTypesOfRows = ((Row[]) columnTypesObject);
 
-        if (columnTypesOfRows.length == 0) {
-            // The input is empty, so we output this empty DF again.
-            return df;
-        }
-
-        // Every column represents an order by expression
-        // Check that every column contains a matching atomic type in all rows (nulls and empty-sequences are allowed)
-        Map<Integer, Name> typesForAllColumns = new LinkedHashMap<>();
-        for (Row columnTypesOfRow : columnTypesOfRows) {
-            List<Object> columnsTypesOfRowAsList = columnTypesOfRow.getList(0);
-            for (int columnIndex = 0; columnIndex < numberOfOrderingKeys; columnIndex++) {
-                String typeString = (String) columnsTypesOfRowAsList.get(columnIndex);
-                boolean isEmptySequence = typeString.contentEquals(StringFlagForEmptySequence);
-                if (!isEmptySequence) {
-                    Name columnType = BuiltinTypesCatalogue.getItemTypeByName(
-                        Name.createVariableInDefaultTypeNamespace(typeString)
-                    ).getName();
-                    if (
-                        !columnType.equals(BuiltinTypesCatalogue.nullItem.getName())
-                    ) {
-                        Name currentColumnType = typesForAllColumns.get(columnIndex);
-                        if (currentColumnType == null) {
-                            typesForAllColumns.put(columnIndex, columnType);
-                        } else if (
-                            (currentColumnType.equals(BuiltinTypesCatalogue.integerItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.intItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.floatItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.decimalItem.getName()))
-                                && (columnType.equals(BuiltinTypesCatalogue.integerItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.intItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.floatItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.decimalItem.getName()))
-                        ) {
-                            // the numeric type calculation is identical to Item::getNumericResultType()
-                            if (
-                                currentColumnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
-                            ) {
-                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.floatItem.getName());
-                            } else if (
-                                currentColumnType.equals(BuiltinTypesCatalogue.floatItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.floatItem.getName())
-                            ) {
-                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.doubleItem.getName());
-                            } else if (
-                                currentColumnType.equals(BuiltinTypesCatalogue.decimalItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.decimalItem.getName())
-                            ) {
-                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.decimalItem.getName());
-                            } else {
-                                // do nothing, type is already set to integer
-                            }
-                        } else if (
-                            (currentColumnType.equals(BuiltinTypesCatalogue.dayTimeDurationItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.yearMonthDurationItem.getName())
-                                || currentColumnType.equals(BuiltinTypesCatalogue.durationItem.getName()))
-                                && (columnType.equals(BuiltinTypesCatalogue.dayTimeDurationItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.yearMonthDurationItem.getName())
-                                    || columnType.equals(BuiltinTypesCatalogue.durationItem.getName()))
-                        ) {
-                            typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.durationItem.getName());
-                        } else if (!currentColumnType.equals(columnType)) {
-                            throw new UnexpectedTypeException(
-                                    "Order by variable must contain values of a single type.",
-                                    getMetadata()
-                            );
-                        }
-                    }
-                }
+        Map<Integer, Name> typesForAllColumns = getStaticSortingKeyTypes();
+        if (typesForAllColumns == null) {
+            typesForAllColumns = determineSortingKeyTypes(df, context, inputSchema, UDFcolumns, UDFParameters);
+            if (typesForAllColumns == null) {
+                // The input is empty, so we output this empty DF again.
+                return df;
             }
         }
 
@@ -447,16 +409,170 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
         return df.sparkSession()
             .sql(
                 String.format(
-                    "select %s from (select %s createOrderingColumns(%s) as `%s` from input order by %s)",
+                    "select %s from (select %s createOrderingColumns(%s) as `%s` from input order by %s%s)",
                     projectSQL,
                     selectSQL,
                     UDFParameters,
                     appendedOrderingColumnsName,
-                    orderingSQL
+                    orderingSQL,
+                    getLimitSQL(this.limit)
                 )
             );
     }
 
+    /**
+     * Returns the limit clause to append to an order by clause in SQL. Spark executes an order by followed by a limit
+     * as a top-k query, keeping the first tuples of each partition in a bounded priority queue and merging them,
+     * instead of sorting the whole input.
+     *
+     * @param limit the maximum number of tuples to output, or -1 if there is no limit.
+     * @return the limit clause, or an empty string.
+     */
+    private static String getLimitSQL(int limit) {
+        if (limit == -1) {
+            return "";
+        }
+        return " limit " + limit;
+    }
+
+    /**
+     * Determines the types of the sorting keys from their static types. This is only possible if every sorting key is
+     * statically known to be at most one item of a single sortable atomic type, in which case no job is needed to
+     * find out the actual types in the data.
+     *
+     * @return the types of the sorting keys, or null if they need to be determined from the data.
+     */
+    private Map<Integer, Name> getStaticSortingKeyTypes() {
+        Map<Integer, Name> result = new LinkedHashMap<>();
+        for (int columnIndex = 0; columnIndex < this.expressionsWithIterator.size(); columnIndex++) {
+            SequenceType staticType = this.expressionsWithIterator.get(columnIndex).getStaticType();
+            if (staticType == null) {
+                return null;
+            }
+            if (staticType.isEmptySequence()) {
+                continue;
+            }
+            if (!staticType.isAritySubtypeOf(SequenceType.Arity.OneOrZero)) {
+                return null;
+            }
+            ItemType itemType = staticType.getItemType();
+            if (!staticallySortableTypes.contains(itemType)) {
+                return null;
+            }
+            result.put(columnIndex, itemType.getName());
+        }
+        return result;
+    }
+
+    /**
+     * Determines the types of the sorting keys with a pass over the data, checking that each sorting key has values
+     * of a single type (or of compatible numeric or duration types).
+     *
+     * @return the types of the sorting keys, or null if the input is empty.
+     */
+    private Map<Integer, Name> determineSortingKeyTypes(
+            Dataset<Row> df,
+            DynamicContext context,
+            StructType inputSchema,
+            List<String> UDFcolumns,
+            String UDFParameters
+    ) {
+        int numberOfOrderingKeys = this.expressionsWithIterator.size();
+        df.sparkSession()
+            .udf()
+            .register(
+                "determineOrderingDataType",
+                new OrderClauseDetermineTypeUDF(this.expressionsWithIterator, context, inputSchema, UDFcolumns),
+                DataTypes.createArrayType(DataTypes.StringType)
+            );
+
+        df.sparkSession().table("input").cache();
+        Dataset<Row> columnTypesDf = df.sparkSession()
+            .sql(
+                String.format(
+                    "select distinct(determineOrderingDataType(%s)) as `distinct-types` from input",
+                    UDFParameters
+                )
+            );
+
+        Object columnTypesObject = columnTypesDf.collect();
+        Row[] columnTypesOfRows = ((Row[]) columnTypesObject);
+
+        if (columnTypesOfRows.length == 0) {
+            return null;
+        }
+
+        // Every column represents an order by expression
+        // Check that every column contains a matching atomic type in all rows (nulls and empty-sequences are allowed)
+        Map<Integer, Name> typesForAllColumns = new LinkedHashMap<>();
+        for (Row columnTypesOfRow : columnTypesOfRows) {
+            List<Object> columnsTypesOfRowAsList = columnTypesOfRow.getList(0);
+            for (int columnIndex = 0; columnIndex < numberOfOrderingKeys; columnIndex++) {
+                String typeString = (String) columnsTypesOfRowAsList.get(columnIndex);
+                boolean isEmptySequence = typeString.contentEquals(StringFlagForEmptySequence);
+                if (!isEmptySequence) {
+                    Name columnType = BuiltinTypesCatalogue.getItemTypeByName(
+                        Name.createVariableInDefaultTypeNamespace(typeString)
+                    ).getName();
+                    if (
+                        !columnType.equals(BuiltinTypesCatalogue.nullItem.getName())
+                    ) {
+                        Name currentColumnType = typesForAllColumns.get(columnIndex);
+                        if (currentColumnType == null) {
+                            typesForAllColumns.put(columnIndex, columnType);
+                        } else if (
+                            (currentColumnType.equals(BuiltinTypesCatalogue.integerItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.intItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.floatItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.decimalItem.getName()))
+                                && (columnType.equals(BuiltinTypesCatalogue.integerItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.intItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.floatItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.decimalItem.getName()))
+                        ) {
+                            // the numeric type calculation is identical to Item::getNumericResultType()
+                            if (
+                                currentColumnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.doubleItem.getName())
+                            ) {
+                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.floatItem.getName());
+                            } else if (
+                                currentColumnType.equals(BuiltinTypesCatalogue.floatItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.floatItem.getName())
+                            ) {
+                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.doubleItem.getName());
+                            } else if (
+                                currentColumnType.equals(BuiltinTypesCatalogue.decimalItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.decimalItem.getName())
+                            ) {
+                                typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.decimalItem.getName());
+                            } else {
+                                // do nothing, type is already set to integer
+                            }
+                        } else if (
+                            (currentColumnType.equals(BuiltinTypesCatalogue.dayTimeDurationItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.yearMonthDurationItem.getName())
+                                || currentColumnType.equals(BuiltinTypesCatalogue.durationItem.getName()))
+                                && (columnType.equals(BuiltinTypesCatalogue.dayTimeDurationItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.yearMonthDurationItem.getName())
+                                    || columnType.equals(BuiltinTypesCatalogue.durationItem.getName()))
+                        ) {
+                            typesForAllColumns.put(columnIndex, BuiltinTypesCatalogue.durationItem.getName());
+                        } else if (!currentColumnType.equals(columnType)) {
+                            throw new UnexpectedTypeException(
+                                    "Order by variable must contain values of a single type.",
+                                    getMetadata()
+                            );
+                        }
+                    }
+                }
+            }
+        }
+        return typesForAllColumns;
+    }
+
     public Map<Name, DynamicContext.VariableDependency> getDynamicContextVariableDependencies() {
         Map<Name, DynamicContext.VariableDependency> result = new TreeMap<>();
         for (OrderByClauseAnnotatedChildIterator expressionWithIterator : this.expressionsWithIterator) {
@@ -518,6 +634,7 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
      * @param allColumns other columns required in following clauses
      * @param inputSchema input schema of the dataframe
      * @param context current dynamic context of the dataframe
+     * @param limit maximum number of tuples to output, or -1 if there is no limit
      * @return resulting dataframe of the order by clause if successful, null otherwise
      */
     public static Dataset<Row> tryNativeQuery(
@@ -525,7 +642,8 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
             List<OrderByClauseAnnotatedChildIterator> expressionsWithIterator,
             List<FlworDataFrameColumn> allColumns,
             StructType inputSchema,
-            DynamicContext context
+            DynamicContext context,
+            int limit
     ) {
         NativeClauseContext orderContext = new NativeClauseContext(FLWOR_CLAUSES.ORDER_BY, inputSchema, context);
         StringBuilder orderSql = new StringBuilder();
@@ -571,9 +689,10 @@ public class OrderByClauseSparkIterator extends RuntimeTupleIterator {
         return dataFrame.sparkSession()
             .sql(
                 String.format(
-                    "select %s from input order by %s",
+                    "select %s from input order by %s%s",
                     selectSQL,
-                    orderSql
+                    orderSql,
+                    getLimitSQL(limit)
                 )
             );
     }
@@ -358,6 +358,7 @@ public class WhereClauseSparkIterator extends RuntimeTupleIterator {
                 this.expression,
                 false,
                 null,
+                false,
                 getMetadata()
             );
             // result.show();
@@ -145,7 +145,7 @@ public class SimpleMapExpressionIterator extends HybridRuntimeIterator {
             new TreeMap<Name, DynamicContext.VariableDependency>();
         result.putAll(this.rightIterator.getVariableDependencies());
         result.remove(Name.CONTEXT_ITEM);
-        result.putAll(this.leftIterator.getVariableDependencies());
+        DynamicContext.mergeVariableDependencies(result, this.leftIterator.getVariableDependencies());
         return result;
     }
 }
@@ -22,30 +22,51 @@ package org.rumbledb.runtime.flwor.udfs;
 
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.api.java.UDF1;
+import org.apache.spark.sql.types.DataType;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.exceptions.JobWithinAJobException;
 import org.rumbledb.runtime.RuntimeIterator;
 import org.rumbledb.runtime.flwor.FlworDataFrameColumn;
 import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.typing.ValidateTypeIterator;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class ForClauseUDF implements UDF1<Row, List<byte[]>> {
+public class ForClauseUDF implements UDF1<Row, List<Object>> {
 
     private static final long serialVersionUID = 1L;
 
     private DataFrameContext dataFrameContext;
     private RuntimeIterator expression;
+    private DataType nativeType;
 
     private List<Item> nextResult;
-    private List<byte[]> results;
+    private List<Object> results;
 
     public ForClauseUDF(
             RuntimeIterator expression,
             DynamicContext context,
             List<FlworDataFrameColumn> columnNames
+    ) {
+        this(expression, context, columnNames, null);
+    }
+
+    /**
+     * Builds a new for clause UDF.
+     *
+     * @param expression the expression of the for clause.
+     * @param context the dynamic context.
+     * @param columnNames the columns on which the expression depends.
+     * @param nativeType the native SQL type into which the items are converted, or null to serialize them in binary
+     *        format.
+     */
+    public ForClauseUDF(
+            RuntimeIterator expression,
+            DynamicContext context,
+            List<FlworDataFrameColumn> columnNames,
+            DataType nativeType
     ) {
         this.dataFrameContext = new DataFrameContext(context, columnNames);
         this.expression = expression;
@@ -55,21 +76,32 @@ public class ForClauseUDF implements UDF1<Row, List<byte[]>> {
                     this.expression.getMetadata()
             );
         }
+        this.nativeType = nativeType;
 
         this.nextResult = new ArrayList<>();
         this.results = new ArrayList<>();
     }
 
     @Override
-    public List<byte[]> call(Row row) {
+    public List<Object> call(Row row) {
         this.dataFrameContext.setFromRow(row);
 
         this.results.clear();
         // apply expression in the dynamic context
         this.expression.open(this.dataFrameContext.getContext());
         while (this.expression.hasNext()) {
-            this.nextResult.clear();
             Item nextItem = this.expression.next();
+            if (this.nativeType != null) {
+                this.results.add(
+                    ValidateTypeIterator.getRowColumnFromItemUsingDataType(
+                        nextItem,
+                        this.nativeType,
+                        this.dataFrameContext.getContext()
+                    )
+                );
+                continue;
+            }
+            this.nextResult.clear();
             this.nextResult.add(nextItem);
             this.results.add(
                 FlworDataFrameUtils.serializeItemList(
@@ -170,7 +170,7 @@ public class DynamicFunctionCallIterator extends HybridRuntimeIterator {
     public void closeLocal() {
         // ensure that recursive function calls terminate gracefully
         // the function call in the body of the deepest recursion call is never visited, never opened and never closed
-        if (this.isOpen) {
+        if (this.functionCallIterator != null && this.functionCallIterator.isOpen()) {
             this.functionCallIterator.close();
         }
     }
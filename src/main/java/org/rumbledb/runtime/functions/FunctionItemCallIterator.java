@@ -169,7 +169,7 @@ public class FunctionItemCallIterator extends HybridRuntimeIterator {
             this.functionBodyIterator = generatePartiallyAppliedFunction(this.currentDynamicContextForLocalExecution);
         } else {
             if (this.functionBodyIterator == null) {
-                this.functionBodyIterator = this.functionItem.getBodyIterator().deepCopy();
+                this.functionBodyIterator = this.functionItem.getBodyIterator().acquireCopy();
             }
             this.populateDynamicContextWithArguments(
                 this.currentDynamicContextForLocalExecution
@@ -294,6 +294,11 @@ public class FunctionItemCallIterator extends HybridRuntimeIterator {
         if (this.functionBodyIterator != null && this.functionBodyIterator.isOpen()) {
             this.functionBodyIterator.close();
         }
+        // the copy of the body can be reused by the next call of the function.
+        if (!this.isPartialApplication && this.functionBodyIterator != null) {
+            this.functionItem.getBodyIterator().releaseCopy(this.functionBodyIterator);
+            this.functionBodyIterator = null;
+        }
     }
 
     public void setNextResult() {
@@ -319,8 +324,8 @@ public class FunctionItemCallIterator extends HybridRuntimeIterator {
         }
 
         this.populateDynamicContextWithArguments(dynamicContext);
-        this.functionBodyIterator = this.functionItem.getBodyIterator();
-        return this.functionBodyIterator.getRDD(this.dynamicContextForCalls);
+        // only local calls need copies of the body, which is not kept open once the RDD is created.
+        return this.functionItem.getBodyIterator().getRDD(this.dynamicContextForCalls);
     }
 
     @Override
@@ -337,7 +342,7 @@ public class FunctionItemCallIterator extends HybridRuntimeIterator {
         }
 
         populateDynamicContextWithArguments(dynamicContext);
-        this.functionBodyIterator = this.functionItem.getBodyIterator();
-        return this.functionBodyIterator.getDataFrame(this.dynamicContextForCalls);
+        // only local calls need copies of the body, which is not kept open once the DataFrame is created.
+        return this.functionItem.getBodyIterator().getDataFrame(this.dynamicContextForCalls);
     }
 }
@@ -57,13 +57,13 @@ public class FunctionRuntimeIterator extends AtMostOneItemLocalRuntimeIterator {
 
     @Override
     public Item materializeFirstItemOrNull(DynamicContext dynamicContext) {
-        RuntimeIterator bodyIteratorCopy = ((RuntimeIterator) this.bodyIterator).deepCopy();
+        // the body is not copied, as function calls evaluate copies of it, see RuntimeIterator.acquireCopy().
         FunctionItem function = new FunctionItem(
                 this.functionName,
                 this.paramNameToSequenceTypes,
                 this.returnType,
                 dynamicContext.getModuleContext(),
-                bodyIteratorCopy
+                this.bodyIterator
         );
         function.populateClosureFromDynamicContext(dynamicContext, getMetadata());
         return function;
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.functions.datetime;
+
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.StructType;
+import org.rumbledb.context.Name;
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.ItemType;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.util.TimeZone;
+
+/**
+ * Helpers for the translation of date and time functions to Spark SQL expressions.
+ *
+ * Timestamp columns are read as dateTime items in the default time zone of the JVM, whereas Spark SQL computes the
+ * fields of timestamps in the session time zone. The translations that depend on these fields are only made if both
+ * time zones are the same.
+ *
+ * Time items are not translated: Spark SQL has no type for a time of day, so they are never stored in native columns,
+ * and the functions on them, e.g., hours-from-time(), keep being evaluated item by item.
+ */
+public class NativeDateTimeQueries {
+
+    private static final String SESSION_TIME_ZONE = "spark.sql.session.timeZone";
+
+    private NativeDateTimeQueries() {
+    }
+
+    public static boolean isSessionTimeZoneConsistent() {
+        String sessionTimeZone = SparkSessionManager.getInstance()
+            .getOrCreateSession()
+            .conf()
+            .get(SESSION_TIME_ZONE, TimeZone.getDefault().getID());
+        return TimeZone.getDefault().getID().equals(sessionTimeZone);
+    }
+
+    /**
+     * Translates the argument of a component function, e.g., year-from-dateTime().
+     *
+     * Constant arguments are not translated, as their fields are those of their own time zone.
+     *
+     * @param iterator the argument.
+     * @param nativeClauseContext the context of the native query.
+     * @param type the expected type, dateTime or date.
+     * @return the context with the query of the argument, or NoNativeQuery if it cannot be translated.
+     */
+    public static NativeClauseContext getComponentArgument(
+            RuntimeIterator iterator,
+            NativeClauseContext nativeClauseContext,
+            ItemType type
+    ) {
+        if (!dependsOnTuple(iterator, nativeClauseContext)) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        if (type.equals(BuiltinTypesCatalogue.dateTimeItem) && !isSessionTimeZoneConsistent()) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext value = iterator.generateNativeQuery(nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery || !type.equals(value.getResultingType())) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        return value;
+    }
+
+    /**
+     * Creates the query of a component function that returns an int, e.g., year-from-dateTime().
+     *
+     * @param iterator the argument.
+     * @param nativeClauseContext the context of the native query.
+     * @param type the expected type of the argument, dateTime or date.
+     * @param function the SQL function extracting the component.
+     * @return the context with the query, or NoNativeQuery if the argument cannot be translated.
+     */
+    public static NativeClauseContext createComponentQuery(
+            RuntimeIterator iterator,
+            NativeClauseContext nativeClauseContext,
+            ItemType type,
+            String function
+    ) {
+        NativeClauseContext value = getComponentArgument(iterator, nativeClauseContext, type);
+        if (value == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String resultingQuery = function + "( " + value.getResultingQuery() + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.intItem);
+    }
+
+    private static boolean dependsOnTuple(RuntimeIterator iterator, NativeClauseContext nativeClauseContext) {
+        DataType schema = nativeClauseContext.getSchema();
+        if (!(schema instanceof StructType)) {
+            return true;
+        }
+        for (Name variable : iterator.getVariableDependencies().keySet()) {
+            if (
+                variable.equals(Name.CONTEXT_ITEM)
+                    || FlworDataFrameUtils.hasColumnForVariable((StructType) schema, variable)
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,6 +7,9 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.functions.datetime.NativeDateTimeQueries;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -32,4 +35,13 @@ public class DayFromDateFunctionIterator extends AtMostOneItemLocalRuntimeIterat
         return ItemFactory.getInstance().createIntItem(this.dateItem.getDateTimeValue().getDayOfMonth());
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        return NativeDateTimeQueries.createComponentQuery(
+            this.children.get(0),
+            nativeClauseContext,
+            BuiltinTypesCatalogue.dateItem,
+            "DAYOFMONTH"
+        );
+    }
 }
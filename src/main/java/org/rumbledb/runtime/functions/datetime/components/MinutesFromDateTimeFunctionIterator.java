@@ -7,6 +7,9 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.functions.datetime.NativeDateTimeQueries;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -33,4 +36,13 @@ public class MinutesFromDateTimeFunctionIterator extends AtMostOneItemLocalRunti
         return ItemFactory.getInstance().createIntItem(this.dateTimeItem.getDateTimeValue().getMinuteOfHour());
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        return NativeDateTimeQueries.createComponentQuery(
+            this.children.get(0),
+            nativeClauseContext,
+            BuiltinTypesCatalogue.dateTimeItem,
+            "MINUTE"
+        );
+    }
 }
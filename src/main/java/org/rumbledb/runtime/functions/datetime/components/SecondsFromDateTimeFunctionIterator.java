@@ -7,6 +7,9 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.functions.datetime.NativeDateTimeQueries;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -40,4 +43,22 @@ public class SecondsFromDateTimeFunctionIterator extends AtMostOneItemLocalRunti
             );
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        NativeClauseContext value = NativeDateTimeQueries.getComponentArgument(
+            this.children.get(0),
+            nativeClauseContext,
+            BuiltinTypesCatalogue.dateTimeItem
+        );
+        if (value == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        // dateTime items have a precision of milliseconds.
+        String resultingQuery = "( SECOND( "
+            + value.getResultingQuery()
+            + " ) + CAST( PMOD( UNIX_MILLIS( "
+            + value.getResultingQuery()
+            + " ), 1000 ) AS DECIMAL(3, 0) ) / 1000 )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.decimalItem);
+    }
 }
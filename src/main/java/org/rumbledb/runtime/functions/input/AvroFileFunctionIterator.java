@@ -29,7 +29,6 @@ import org.rumbledb.exceptions.CannotRetrieveResourceException;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.exceptions.UnexpectedTypeException;
 import org.rumbledb.expressions.ExecutionMode;
-import org.rumbledb.items.ObjectItem;
 import org.rumbledb.items.structured.JSoundDataFrame;
 import org.rumbledb.runtime.DataFrameRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
@@ -64,7 +63,7 @@ public class AvroFileFunctionIterator extends DataFrameRuntimeIterator {
         DataFrameReader dfr = SparkSessionManager.getInstance().getOrCreateSession().read();
         try {
             if (this.children.size() > 1 && ((optionsObjectItem = getObjectItem(context)) != null)) {
-                ObjectItem options = (ObjectItem) optionsObjectItem;
+                Item options = optionsObjectItem;
                 List<String> keys = options.getKeys();
                 List<Item> values = options.getValues();
                 for (int i = 0; i < keys.size(); i++) {
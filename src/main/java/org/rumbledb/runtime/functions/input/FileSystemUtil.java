@@ -22,6 +22,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -238,6 +239,26 @@ public class FileSystemUtil {
         }
     }
 
+    public static OutputStream getDataOutputStream(
+            URI locator,
+            RumbleRuntimeConfiguration conf,
+            ExceptionMetadata metadata
+    ) {
+        checkForAbsoluteAndNoWildcards(locator, metadata);
+        checkAllowed(locator, conf, metadata);
+        try {
+            FileContext fileContext = FileContext.getFileContext();
+            Path path = new Path(locator);
+            return fileContext.create(
+                path,
+                EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE)
+            );
+        } catch (Exception e) {
+            handleException(e, locator, metadata);
+            return null;
+        }
+    }
+
     public static void append(
             URI locator,
             List<String> content,
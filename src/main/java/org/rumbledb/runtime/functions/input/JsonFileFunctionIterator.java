@@ -20,12 +20,17 @@
 
 package org.rumbledb.runtime.functions.input;
 
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.exceptions.CannotRetrieveResourceException;
 import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.ExecutionMode;
+import org.rumbledb.items.parsing.JSONLinesToItemMapper;
 import org.rumbledb.items.parsing.JSONSyntaxToItemMapper;
 import org.rumbledb.runtime.RDDRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
@@ -63,8 +68,8 @@ public class JsonFileFunctionIterator extends RDDRuntimeIterator {
             partitions = this.children.get(1).materializeFirstItemOrNull(context).getIntValue();
         }
 
-        JavaRDD<String> strings;
         if (uri.getScheme().equals("http") || uri.getScheme().equals("https")) {
+            JavaRDD<String> strings;
             InputStream is = FileSystemUtil.getDataInputStream(
                 uri,
                 context.getRumbleRuntimeConfiguration(),
@@ -92,6 +97,7 @@ public class JsonFileFunctionIterator extends RDDRuntimeIterator {
                         partitions
                     );
             }
+            return strings.mapPartitions(new JSONSyntaxToItemMapper(getMetadata()));
         } else {
             if (!FileSystemUtil.exists(uri, context.getRumbleRuntimeConfiguration(), getMetadata())) {
                 throw new CannotRetrieveResourceException("File " + uri + " not found.", getMetadata());
@@ -102,19 +108,25 @@ public class JsonFileFunctionIterator extends RDDRuntimeIterator {
                 path = path.replaceAll("%20", " ");
             }
 
+            // The lines are read as raw Hadoop records and parsed from their bytes, rather than with textFile(),
+            // which would first decode each of them to a String.
+            JavaPairRDD<LongWritable, Text> lines;
             if (partitions == -1) {
-                strings = SparkSessionManager.getInstance()
+                lines = SparkSessionManager.getInstance()
                     .getJavaSparkContext()
-                    .textFile(path);
+                    .hadoopFile(path, TextInputFormat.class, LongWritable.class, Text.class);
             } else {
-                strings = SparkSessionManager.getInstance()
+                lines = SparkSessionManager.getInstance()
                     .getJavaSparkContext()
-                    .textFile(
+                    .hadoopFile(
                         path,
+                        TextInputFormat.class,
+                        LongWritable.class,
+                        Text.class,
                         partitions
                     );
             }
+            return lines.values().mapPartitions(new JSONLinesToItemMapper(getMetadata()));
         }
-        return strings.mapPartitions(new JSONSyntaxToItemMapper(getMetadata()));
     }
 }
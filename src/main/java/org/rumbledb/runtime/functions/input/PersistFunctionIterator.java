@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.functions.input;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.storage.StorageLevel;
+import org.rumbledb.api.Item;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.CastException;
+import org.rumbledb.expressions.ExecutionMode;
+import org.rumbledb.items.structured.JSoundDataFrame;
+import org.rumbledb.runtime.HybridRuntimeIterator;
+import org.rumbledb.runtime.RuntimeIterator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Persists a big sequence, with the storage level given as second argument or, by default, the one of the
+ * --persist-level option (memory-and-disk if it is none). Local sequences are returned as they are. The persisted
+ * RDDs and DataFrames are unpersisted when the iterator is reset or closed.
+ */
+public class PersistFunctionIterator extends HybridRuntimeIterator {
+
+    private static final long serialVersionUID = 1L;
+    private RuntimeIterator iterator;
+    // unpersists the RDDs or DataFrames persisted since the iterator was last reset or closed
+    private transient Deque<Runnable> unpersistActions;
+
+    public PersistFunctionIterator(
+            List<RuntimeIterator> inputIterators,
+            ExecutionMode executionMode,
+            ExceptionMetadata iteratorMetadata
+    ) {
+        super(inputIterators, executionMode, iteratorMetadata);
+        this.iterator = inputIterators.get(0);
+    }
+
+    @Override
+    public void openLocal() {
+        this.iterator.open(this.currentDynamicContextForLocalExecution);
+    }
+
+    @Override
+    protected boolean hasNextLocal() {
+        return this.iterator.hasNext();
+    }
+
+    @Override
+    public Item nextLocal() {
+        return this.iterator.next();
+    }
+
+    @Override
+    protected void resetLocal() {
+        this.iterator.reset(this.currentDynamicContextForLocalExecution);
+    }
+
+    @Override
+    protected void closeLocal() {
+        this.iterator.close();
+    }
+
+    @Override
+    public void reset(DynamicContext context) {
+        super.reset(context);
+        unpersistAll();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        unpersistAll();
+    }
+
+    private void addUnpersistAction(Runnable unpersistAction) {
+        if (this.unpersistActions == null) {
+            this.unpersistActions = new ArrayDeque<>();
+        }
+        this.unpersistActions.addLast(unpersistAction);
+    }
+
+    private void unpersistAll() {
+        if (this.unpersistActions == null) {
+            return;
+        }
+        while (!this.unpersistActions.isEmpty()) {
+            this.unpersistActions.removeFirst().run();
+        }
+    }
+
+    private StorageLevel getStorageLevel(DynamicContext context) {
+        if (this.children.size() == 1) {
+            StorageLevel storageLevel = context.getRumbleRuntimeConfiguration().getPersistLevel();
+            return storageLevel.equals(StorageLevel.NONE()) ? StorageLevel.MEMORY_AND_DISK() : storageLevel;
+        }
+        String name = this.children.get(1).materializeFirstItemOrNull(context).getStringValue();
+        StorageLevel storageLevel = RumbleRuntimeConfiguration.parseStorageLevel(name);
+        if (storageLevel == null) {
+            throw new CastException(
+                    "Unknown storage level: "
+                        + name
+                        + ". Allowed values are none, memory, memory-serialized, memory-and-disk, memory-and-disk-serialized and disk.",
+                    getMetadata()
+            );
+        }
+        return storageLevel;
+    }
+
+    @Override
+    public JavaRDD<Item> getRDDAux(DynamicContext dynamicContext) {
+        JavaRDD<Item> childRDD = this.iterator.getRDD(dynamicContext);
+        StorageLevel storageLevel = getStorageLevel(dynamicContext);
+        if (!storageLevel.equals(StorageLevel.NONE()) && childRDD.getStorageLevel().equals(StorageLevel.NONE())) {
+            childRDD.persist(storageLevel);
+            addUnpersistAction(() -> childRDD.unpersist(false));
+        }
+        return childRDD;
+    }
+
+    @Override
+    public boolean implementsDataFrames() {
+        return true;
+    }
+
+    @Override
+    public JSoundDataFrame getDataFrame(DynamicContext context) {
+        JSoundDataFrame childDataFrame = this.iterator.getDataFrame(context);
+        StorageLevel storageLevel = getStorageLevel(context);
+        if (
+            !storageLevel.equals(StorageLevel.NONE())
+                && childDataFrame.getStorageLevel().equals(StorageLevel.NONE())
+        ) {
+            childDataFrame.persist(storageLevel);
+            addUnpersistAction(childDataFrame::unpersist);
+        }
+        return childDataFrame;
+    }
+}
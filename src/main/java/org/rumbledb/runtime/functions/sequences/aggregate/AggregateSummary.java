@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.functions.sequences.aggregate;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.BooleanType;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DateType;
+import org.apache.spark.sql.types.NumericType;
+import org.apache.spark.sql.types.StringType;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.types.TimestampType;
+import org.rumbledb.api.Item;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.context.Name;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.InvalidArgumentTypeException;
+import org.rumbledb.items.ItemComparator;
+import org.rumbledb.items.ItemFactory;
+import org.rumbledb.items.parsing.ItemParser;
+import org.rumbledb.items.structured.JSoundDataFrame;
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.arithmetics.AdditiveOperationIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.primary.VariableReferenceIterator;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The count, sum, minimum and maximum of a big sequence, computed in a single Spark job so that avg(), as well as
+ * several aggregates of the same variable (as in { "n" : count($s), "min" : min($s), "max" : max($s) }), do not
+ * evaluate the sequence again. The summary of a variable is kept in the dynamic context next to its value.
+ *
+ * The aggregates that fail, e.g., the sum of strings, are only reported when they are asked for.
+ */
+public class AggregateSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final ItemComparator minComparator = new ItemComparator(
+            true,
+            new InvalidArgumentTypeException("Min expression input error", ExceptionMetadata.EMPTY_METADATA)
+    );
+    private static final ItemComparator maxComparator = new ItemComparator(
+            false,
+            new InvalidArgumentTypeException("Max expression input error", ExceptionMetadata.EMPTY_METADATA)
+    );
+
+    private long count;
+    // The sum without any zero element, null for an empty sequence or if it is not available.
+    private Item sum;
+    private boolean isSumAvailable;
+    private boolean sumFailed;
+    private Item min;
+    private Item max;
+    private boolean extremaFailed;
+
+    private AggregateSummary(boolean isSumAvailable) {
+        this.count = 0;
+        this.sum = null;
+        this.isSumAvailable = isSumAvailable;
+        this.sumFailed = false;
+        this.min = null;
+        this.max = null;
+        this.extremaFailed = false;
+    }
+
+    /**
+     * Returns the summary of the sequence returned by an iterator, computing it if needed.
+     *
+     * @param iterator the iterator, which must be evaluated as an RDD or a DataFrame.
+     * @param context the dynamic context.
+     * @return the summary, or null if the items of a DataFrame cannot be aggregated natively.
+     */
+    public static AggregateSummary getSummary(RuntimeIterator iterator, DynamicContext context) {
+        Name variable = null;
+        if (iterator instanceof VariableReferenceIterator) {
+            variable = ((VariableReferenceIterator) iterator).getVariableName();
+            AggregateSummary summary = context.getVariableValues().getAggregateSummary(variable);
+            if (summary != null) {
+                return summary;
+            }
+        }
+        AggregateSummary summary;
+        if (iterator.isDataFrame()) {
+            summary = computeDataFrame(iterator.getDataFrame(context));
+        } else {
+            summary = iterator.getRDD(context)
+                .aggregate(
+                    new AggregateSummary(true),
+                    AggregateSummary::add,
+                    AggregateSummary::merge
+                );
+        }
+        if (variable != null && summary != null) {
+            context.getVariableValues().setAggregateSummary(variable, summary);
+        }
+        return summary;
+    }
+
+    private static AggregateSummary computeDataFrame(JSoundDataFrame df) {
+        StructType schema = df.getDataFrame().schema();
+        String column = SparkSessionManager.atomicJSONiqItemColumnName;
+        if (!Arrays.asList(schema.fieldNames()).contains(column)) {
+            return null;
+        }
+        DataType type = schema.fields()[schema.fieldIndex(column)].dataType();
+        boolean isSumAvailable = type instanceof NumericType;
+        if (
+            !(isSumAvailable
+                || type instanceof StringType
+                || type instanceof BooleanType
+                || type instanceof DateType
+                || type instanceof TimestampType)
+        ) {
+            return null;
+        }
+        String input = FlworDataFrameUtils.createTempView(df.getDataFrame());
+        StringBuilder query = new StringBuilder("SELECT COUNT(*)");
+        if (isSumAvailable) {
+            query.append(String.format(", SUM(`%s`)", column));
+        }
+        query.append(String.format(", MIN(`%s`), MAX(`%s`) FROM %s", column, column, input));
+        Row row = df.getDataFrame().sparkSession().sql(query.toString()).takeAsList(1).get(0);
+        StructType resultSchema = row.schema();
+
+        AggregateSummary summary = new AggregateSummary(isSumAvailable);
+        summary.count = row.getLong(0);
+        if (summary.count == 0) {
+            return summary;
+        }
+        int index = 1;
+        if (isSumAvailable) {
+            summary.sum = convert(row, index++, resultSchema, df);
+        }
+        summary.min = convert(row, index++, resultSchema, df);
+        summary.max = convert(row, index, resultSchema, df);
+        return summary;
+    }
+
+    private static Item convert(Row row, int index, StructType resultSchema, JSoundDataFrame df) {
+        return ItemParser.convertValueToItem(
+            row.get(index),
+            resultSchema.fields()[index].dataType(),
+            ExceptionMetadata.EMPTY_METADATA,
+            df.getItemType()
+        );
+    }
+
+    private static AggregateSummary add(AggregateSummary summary, Item item) {
+        summary.count++;
+        if (!summary.sumFailed) {
+            summary.addToSum(item);
+        }
+        if (!summary.extremaFailed) {
+            summary.addToExtrema(item, item);
+        }
+        return summary;
+    }
+
+    private static AggregateSummary merge(AggregateSummary left, AggregateSummary right) {
+        if (right.count == 0) {
+            return left;
+        }
+        if (left.count == 0) {
+            return right;
+        }
+        left.count += right.count;
+        if (!left.sumFailed) {
+            if (right.sumFailed) {
+                left.sumFailed = true;
+            } else {
+                left.addToSum(right.sum);
+            }
+        }
+        if (!left.extremaFailed) {
+            if (right.extremaFailed) {
+                left.extremaFailed = true;
+            } else {
+                left.addToExtrema(right.min, right.max);
+            }
+        }
+        return left;
+    }
+
+    private void addToSum(Item item) {
+        if (this.sum == null) {
+            this.sum = item;
+            return;
+        }
+        Item result = AdditiveOperationIterator.processItem(this.sum, item, false);
+        if (result == null) {
+            // the sum is then computed again by the sum() or avg() call, which reports the error.
+            this.sumFailed = true;
+            return;
+        }
+        this.sum = result;
+    }
+
+    private void addToExtrema(Item min, Item max) {
+        try {
+            if (this.min == null || minComparator.compare(min, this.min) < 0) {
+                this.min = min;
+            }
+            if (this.max == null || maxComparator.compare(max, this.max) > 0) {
+                this.max = max;
+            }
+        } catch (RuntimeException e) {
+            // the comparison is not possible, or the comparator could not chain its exception again.
+            this.extremaFailed = true;
+        }
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Tells whether the sum could be computed, i.e., whether the items can be summed natively in the case of a
+     * DataFrame, and whether they could all be added together.
+     *
+     * @return true if getSum returns the sum.
+     */
+    public boolean isSumAvailable() {
+        return this.isSumAvailable && !this.sumFailed;
+    }
+
+    /**
+     * Returns the sum of the items, if it is available.
+     *
+     * @return the sum, without zero element, or null for an empty sequence.
+     */
+    public Item getSum() {
+        return this.sum;
+    }
+
+    /**
+     * Returns the smallest item, as min() on an RDD.
+     *
+     * @param metadata the metadata of the calling aggregate.
+     * @return the smallest item, or null for an empty sequence.
+     */
+    public Item getMin(ExceptionMetadata metadata) {
+        if (this.extremaFailed) {
+            throw new InvalidArgumentTypeException(
+                    "Min expression input error. Input has to be non-null atomics of matching types",
+                    metadata
+            );
+        }
+        return this.min;
+    }
+
+    /**
+     * Returns the largest item, as max() on an RDD.
+     *
+     * @param metadata the metadata of the calling aggregate.
+     * @return the largest item, or null for an empty sequence.
+     */
+    public Item getMax(ExceptionMetadata metadata) {
+        if (this.extremaFailed) {
+            throw new InvalidArgumentTypeException(
+                    "Max expression input error. Input has to be non-null atomics of matching types",
+                    metadata
+            );
+        }
+        return this.max;
+    }
+
+    /**
+     * Promotes the minimum or maximum of a DataFrame column to the type that min() and max() return for these items.
+     * The items of a column all have the same type, so that only anyURIs are promoted, to strings, and numbers keep
+     * their type.
+     *
+     * @param item the minimum or maximum.
+     * @return the promoted item.
+     */
+    static Item itemTypePromotion(Item item) {
+        if (item.isAnyURI()) {
+            return ItemFactory.getInstance().createStringItem(item.getStringValue());
+        }
+        return item;
+    }
+}
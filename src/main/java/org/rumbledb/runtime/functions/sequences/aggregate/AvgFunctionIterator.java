@@ -53,6 +53,28 @@ public class AvgFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
     @Override
     public Item materializeFirstItemOrNull(DynamicContext context) {
+        if (this.children.get(0).isRDDOrDataFrame()) {
+            // the count and the sum are computed in the same job.
+            AggregateSummary summary = AggregateSummary.getSummary(this.children.get(0), context);
+            if (summary != null && summary.isSumAvailable()) {
+                if (summary.getCount() == 0) {
+                    return null;
+                }
+                Item sum = SumFunctionIterator.computeFromSummary(
+                    ItemFactory.getInstance().createIntegerItem(BigInteger.ZERO),
+                    summary,
+                    this.children.get(0).isDataFrame(),
+                    getMetadata()
+                );
+                this.item = MultiplicativeOperationIterator.processItem(
+                    sum,
+                    ItemFactory.getInstance().createLongItem(summary.getCount()),
+                    MultiplicativeExpression.MultiplicativeOperator.DIV,
+                    getMetadata()
+                );
+                return this.item;
+            }
+        }
         Item count = CountFunctionIterator.computeCount(
             this.children.get(0),
             context,
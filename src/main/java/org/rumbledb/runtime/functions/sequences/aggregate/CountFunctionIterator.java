@@ -60,6 +60,15 @@ public class CountFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
         if (iterator instanceof VariableReferenceIterator) {
             VariableReferenceIterator expr = (VariableReferenceIterator) iterator;
             // this.hasNext = false;
+            if (iterator.isRDDOrDataFrame()) {
+                // the summary computed by another aggregate of the same variable is reused, but none is computed
+                // for the count alone, which is cheaper.
+                AggregateSummary summary = context.getVariableValues()
+                    .getAggregateSummary(expr.getVariableName());
+                if (summary != null) {
+                    return ItemFactory.getInstance().createLongItem(summary.getCount());
+                }
+            }
             return context.getVariableValues()
                 .getVariableCount(expr.getVariableName(), getMetadata());
         }
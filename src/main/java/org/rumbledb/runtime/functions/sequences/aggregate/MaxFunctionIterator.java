@@ -466,6 +466,18 @@ public class MaxFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
         }
 
+        if (this.iterator instanceof VariableReferenceIterator) {
+            // other aggregates of the same variable are computed in the same job.
+            AggregateSummary summary = AggregateSummary.getSummary(this.iterator, context);
+            if (summary != null) {
+                if (summary.getCount() == 0) {
+                    return null;
+                }
+                Item result = summary.getMax(getMetadata());
+                return this.iterator.isDataFrame() ? AggregateSummary.itemTypePromotion(result) : result;
+            }
+        }
+
         if (this.iterator.isDataFrame()) {
             JSoundDataFrame df = this.iterator.getDataFrame(context);
             if (df.isEmptySequence()) {
@@ -481,7 +493,7 @@ public class MaxFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
                 ),
                 df.getItemType()
             );
-            return itemTypePromotion(maxDF.getExactlyOneItem());
+            return AggregateSummary.itemTypePromotion(maxDF.getExactlyOneItem());
         }
 
         JavaRDD<Item> rdd = this.iterator.getRDD(context);
@@ -504,17 +516,4 @@ public class MaxFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
             return super.getVariableDependencies();
         }
     }
-
-    private Item itemTypePromotion(Item item) {
-        if (item.isAnyURI()) {
-            return ItemFactory.getInstance().createStringItem(item.getStringValue());
-        }
-        if (item.isFloat()) {
-            return ItemFactory.getInstance().createDoubleItem(item.castToDoubleValue());
-        }
-        if (item.isDecimal()) {
-            return ItemFactory.getInstance().createDoubleItem(item.castToDoubleValue());
-        }
-        return item;
-    }
 }
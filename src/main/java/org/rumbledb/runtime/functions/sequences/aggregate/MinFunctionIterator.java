@@ -460,6 +460,18 @@ public class MinFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
         }
 
+        if (this.iterator instanceof VariableReferenceIterator) {
+            // other aggregates of the same variable are computed in the same job.
+            AggregateSummary summary = AggregateSummary.getSummary(this.iterator, context);
+            if (summary != null) {
+                if (summary.getCount() == 0) {
+                    return null;
+                }
+                Item result = summary.getMin(getMetadata());
+                return this.iterator.isDataFrame() ? AggregateSummary.itemTypePromotion(result) : result;
+            }
+        }
+
         if (this.iterator.isDataFrame()) {
             JSoundDataFrame df = this.iterator.getDataFrame(context);
             if (df.isEmptySequence()) {
@@ -475,7 +487,7 @@ public class MinFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
                 ),
                 df.getItemType()
             );
-            return minDF.getExactlyOneItem();
+            return AggregateSummary.itemTypePromotion(minDF.getExactlyOneItem());
         }
 
         JavaRDD<Item> rdd = this.iterator.getRDD(context);
@@ -34,6 +34,7 @@ import org.rumbledb.runtime.RuntimeIterator;
 import org.rumbledb.runtime.arithmetics.AdditiveOperationIterator;
 import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
 import org.rumbledb.runtime.primary.VariableReferenceIterator;
+import org.rumbledb.runtime.typing.TypePromotionIterator;
 
 import sparksoniq.spark.SparkSessionManager;
 
@@ -84,6 +85,17 @@ public class SumFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
             DynamicContext context,
             ExceptionMetadata metadata
     ) {
+        // the argument is promoted to atomic*, which always succeeds if the items could be summed.
+        RuntimeIterator variableReference = iterator instanceof TypePromotionIterator
+            ? ((TypePromotionIterator) iterator).getChildIterator()
+            : iterator;
+        if (variableReference instanceof VariableReferenceIterator && variableReference.isRDDOrDataFrame()) {
+            // other aggregates of the same variable are computed in the same job.
+            AggregateSummary summary = AggregateSummary.getSummary(variableReference, context);
+            if (summary != null && summary.isSumAvailable()) {
+                return computeFromSummary(zeroElement, summary, variableReference.isDataFrame(), metadata);
+            }
+        }
         if (iterator.isDataFrame()) {
             return computeDataFrame(
                 zeroElement,
@@ -108,6 +120,42 @@ public class SumFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
         }
     }
 
+    /**
+     * Computes the sum of a big sequence from its aggregate summary, with the same result as a separate job.
+     *
+     * @param zeroElement the zero element.
+     * @param summary the summary of the sequence.
+     * @param isDataFrame whether the sequence is a DataFrame, the native sum of which ignores the zero element.
+     * @param metadata the metadata.
+     * @return the sum.
+     */
+    static Item computeFromSummary(
+            Item zeroElement,
+            AggregateSummary summary,
+            boolean isDataFrame,
+            ExceptionMetadata metadata
+    ) {
+        if (summary.getCount() == 0) {
+            return zeroElement;
+        }
+        Item sum = summary.getSum();
+        if (isDataFrame) {
+            return sum;
+        }
+        Item result = AdditiveOperationIterator.processItem(zeroElement, sum, false);
+        if (result == null) {
+            throw new InvalidArgumentTypeException(
+                    " \"+\": operation not possible with parameters of type \""
+                        + zeroElement.getDynamicType().toString()
+                        + "\" and \""
+                        + sum.getDynamicType().toString()
+                        + "\"",
+                    metadata
+            );
+        }
+        return result;
+    }
+
     private static Item computeLocally(
             Item zeroElement,
             RuntimeIterator iterator,
@@ -27,7 +27,10 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ConcatFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
@@ -58,4 +61,17 @@ public class ConcatFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
         return ItemFactory.getInstance().createStringItem(builder.toString());
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        List<String> arguments = new ArrayList<>();
+        for (RuntimeIterator iterator : this.children) {
+            String argument = NativeStringQueries.getStringValueQuery(iterator, nativeClauseContext);
+            if (argument == null) {
+                return NativeClauseContext.NoNativeQuery;
+            }
+            arguments.add(argument);
+        }
+        String resultingQuery = "CONCAT( " + String.join(", ", arguments) + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.stringItem);
+    }
 }
@@ -28,6 +28,8 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -68,4 +70,33 @@ public class EndsWithFunctionIterator extends AtMostOneItemLocalRuntimeIterator
         return ItemFactory.getInstance().createBooleanItem(result);
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        if (this.children.size() != 2) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext string = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (string == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String literal = NativeStringQueries.getStringLiteral(this.children.get(1));
+        String resultingQuery;
+        if (literal != null) {
+            resultingQuery = NativeStringQueries.createLikeQuery(string.getResultingQuery(), "%", literal, "");
+        } else {
+            NativeClauseContext substring = NativeStringQueries.getStringArgument(
+                this.children.get(1),
+                nativeClauseContext
+            );
+            if (substring == NativeClauseContext.NoNativeQuery) {
+                return NativeClauseContext.NoNativeQuery;
+            }
+            resultingQuery = String.format(
+                "( RIGHT(%1$s, CHAR_LENGTH(%2$s)) = %2$s )",
+                NativeStringQueries.coalesceToEmptyString(string.getResultingQuery()),
+                NativeStringQueries.coalesceToEmptyString(substring.getResultingQuery())
+            );
+        }
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.booleanItem);
+    }
 }
@@ -27,6 +27,9 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 import java.util.regex.Matcher;
@@ -35,6 +38,8 @@ import java.util.regex.Pattern;
 public class MatchesFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
     private static final long serialVersionUID = 1L;
+    // The pattern, if it is given as a literal.
+    private Pattern pattern;
 
     public MatchesFunctionIterator(
             List<RuntimeIterator> arguments,
@@ -42,21 +47,65 @@ public class MatchesFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
             ExceptionMetadata iteratorMetadata
     ) {
         super(arguments, executionMode, iteratorMetadata);
+        this.pattern = RegularExpressions.compileLiterals(
+            this.children.get(1),
+            this.children.size() == 3 ? this.children.get(2) : null
+        );
     }
 
     @Override
     public Item materializeFirstItemOrNull(DynamicContext context) {
-        Item regexpItem = this.children.get(1)
-            .materializeFirstItemOrNull(context);
+        Pattern pattern = this.pattern;
+        if (pattern == null) {
+            Item regexpItem = this.children.get(1)
+                .materializeFirstItemOrNull(context);
+            Item flagsItem = this.children.size() == 3
+                ? this.children.get(2).materializeFirstItemOrNull(context)
+                : null;
+            pattern = RegularExpressions.compile(
+                regexpItem.getStringValue(),
+                flagsItem == null ? null : flagsItem.getStringValue(),
+                getMetadata()
+            );
+        }
         Item stringItem = this.children.get(0)
             .materializeFirstItemOrNull(context);
         if (stringItem == null) {
             stringItem = ItemFactory.getInstance().createStringItem("");
         }
 
-        Matcher matcher = Pattern.compile(regexpItem.getStringValue()).matcher(stringItem.getStringValue());
+        Matcher matcher = pattern.matcher(stringItem.getStringValue());
         boolean result = matcher.find();
         return ItemFactory.getInstance().createBooleanItem(result);
 
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        if (this.pattern == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String embeddedFlags = RegularExpressions.getEmbeddedFlags(
+            this.children.size() == 3 ? NativeStringQueries.getStringLiteral(this.children.get(2)) : null
+        );
+        if (embeddedFlags == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext string = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (string == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        // RLIKE also finds the pattern anywhere in the string, with Java regular expressions, and the empty sequence
+        // matches like the empty string.
+        String resultingQuery = "COALESCE( "
+            + string.getResultingQuery()
+            + " RLIKE "
+            + FlworDataFrameUtils.createSQLStringLiteral(
+                embeddedFlags + NativeStringQueries.getStringLiteral(this.children.get(1))
+            )
+            + ", "
+            + (this.pattern.matcher("").find() ? "TRUE" : "FALSE")
+            + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.booleanItem);
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.functions.strings;
+
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.primary.StringRuntimeIterator;
+import org.rumbledb.runtime.typing.AtMostOneItemTypePromotionIterator;
+import org.rumbledb.types.BuiltinTypesCatalogue;
+import org.rumbledb.types.ItemType;
+
+/**
+ * Helpers for the translation of string functions to Spark SQL expressions.
+ *
+ * The SQL string functions count characters in codepoints, like the XPath functions. The XPath functions take the
+ * empty sequence (an absent field, i.e., a null column) as the empty string. The string arguments are kept as they
+ * are, so that the comparisons with literals are still pushed down to the data sources on bare columns, and each
+ * function deals with null columns itself, e.g., by coalescing its result.
+ */
+public class NativeStringQueries {
+
+    private NativeStringQueries() {
+    }
+
+    /**
+     * Translates a string argument.
+     *
+     * @param iterator the argument.
+     * @param nativeClauseContext the context of the native query.
+     * @return the context with the query of the argument, which is null for the empty sequence, or NoNativeQuery if it
+     *         is not a native string.
+     */
+    public static NativeClauseContext getStringArgument(
+            RuntimeIterator iterator,
+            NativeClauseContext nativeClauseContext
+    ) {
+        NativeClauseContext value = iterator.generateNativeQuery(nativeClauseContext);
+        if (
+            value == NativeClauseContext.NoNativeQuery
+                || value.getResultingType() == null
+                || !value.getResultingType().equals(BuiltinTypesCatalogue.stringItem)
+        ) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        return value;
+    }
+
+    /**
+     * Translates an integer argument, e.g., a position.
+     *
+     * @param iterator the argument.
+     * @param nativeClauseContext the context of the native query.
+     * @return the context with the query of the argument, or NoNativeQuery if it is not a native integer.
+     */
+    public static NativeClauseContext getIntegerArgument(
+            RuntimeIterator iterator,
+            NativeClauseContext nativeClauseContext
+    ) {
+        NativeClauseContext value = iterator.generateNativeQuery(nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery || !isInteger(value.getResultingType())) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        return value;
+    }
+
+    /**
+     * Translates an atomic value to its string value, as in concat() and the || operator. Only strings and integers
+     * are supported, as their SQL string values are the same as in JSONiq.
+     *
+     * @param iterator the argument.
+     * @param nativeClauseContext the context of the native query.
+     * @return the query of the string value of the argument, or null if it is not supported.
+     */
+    public static String getStringValueQuery(RuntimeIterator iterator, NativeClauseContext nativeClauseContext) {
+        NativeClauseContext value = iterator.generateNativeQuery(nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery || value.getResultingType() == null) {
+            return null;
+        }
+        if (value.getResultingType().equals(BuiltinTypesCatalogue.stringItem)) {
+            return coalesceToEmptyString(value.getResultingQuery());
+        }
+        if (isInteger(value.getResultingType())) {
+            return coalesceToEmptyString("CAST( " + value.getResultingQuery() + " AS STRING )");
+        }
+        return null;
+    }
+
+    /**
+     * Takes a null string, i.e., the empty sequence, as the empty string.
+     *
+     * @param query the query of the string.
+     * @return the query of the string, which is never null.
+     */
+    public static String coalesceToEmptyString(String query) {
+        return "COALESCE( " + query + ", '' )";
+    }
+
+    private static boolean isInteger(ItemType type) {
+        return type != null
+            && (type.equals(BuiltinTypesCatalogue.integerItem)
+                || type.equals(BuiltinTypesCatalogue.longItem)
+                || type.equals(BuiltinTypesCatalogue.intItem));
+    }
+
+    /**
+     * Returns the value of an argument that is a string literal.
+     *
+     * @param iterator the argument.
+     * @return the string value, or null if the argument is not a literal.
+     */
+    public static String getStringLiteral(RuntimeIterator iterator) {
+        if (iterator instanceof AtMostOneItemTypePromotionIterator) {
+            iterator = ((AtMostOneItemTypePromotionIterator) iterator).getChildIterator();
+        }
+        if (iterator instanceof StringRuntimeIterator) {
+            return ((StringRuntimeIterator) iterator).getStringValue();
+        }
+        return null;
+    }
+
+    /**
+     * Creates a LIKE expression, which Spark turns into a StartsWith, EndsWith or Contains filter that can be pushed
+     * down to the data sources. The string is compared as a bare column, and a null string, i.e., the empty sequence,
+     * only contains the empty value.
+     *
+     * @param query the query of the string.
+     * @param prefix the wildcard before the value, % or empty.
+     * @param value the value, matched literally.
+     * @param suffix the wildcard after the value, % or empty.
+     * @return the LIKE expression.
+     */
+    public static String createLikeQuery(String query, String prefix, String value, String suffix) {
+        if (value.isEmpty()) {
+            return "TRUE";
+        }
+        String escapedValue = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "( "
+            + query
+            + " IS NOT NULL AND "
+            + query
+            + " LIKE "
+            + FlworDataFrameUtils.createSQLStringLiteral(prefix + escapedValue + suffix)
+            + " )";
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.functions.strings;
+
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.exceptions.InvalidRegexFlagsException;
+import org.rumbledb.exceptions.InvalidRegexPatternException;
+import org.rumbledb.exceptions.MatchesEmptyStringException;
+import org.rumbledb.runtime.RuntimeIterator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the regular expressions of matches(), replace() and tokenize(), together with their flags.
+ *
+ * Patterns given as literals are compiled once when the function call is translated. The other ones are kept in a
+ * small cache per thread, so that a pattern that is the same for all tuples, e.g., a variable bound outside of a FLWOR
+ * expression, is not compiled again for each tuple.
+ */
+public class RegularExpressions {
+
+    private static final int CACHE_SIZE = 256;
+
+    private static final ThreadLocal<Map<String, Pattern>> cache = ThreadLocal.withInitial(
+        () -> new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    private RegularExpressions() {
+    }
+
+    /**
+     * Compiles a pattern, or gets it from the cache.
+     *
+     * @param pattern the regular expression.
+     * @param flags the flags, or null if there are none.
+     * @param metadata the metadata to report errors with.
+     * @return the compiled pattern.
+     */
+    public static Pattern compile(String pattern, String flags, ExceptionMetadata metadata) {
+        // the flags themselves are part of the key, as some of them (e.g., x) change the pattern rather than the
+        // Java flags. Valid flags are letters, so that the keys of different flags never collide.
+        String key = (flags == null ? "" : flags) + "/" + pattern;
+        Map<String, Pattern> patterns = cache.get();
+        Pattern result = patterns.get(key);
+        if (result == null) {
+            int javaFlags = translateFlags(flags, metadata);
+            result = compile(pattern, flags, javaFlags, metadata);
+            patterns.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles a pattern given as a literal, with flags given as a literal, if any.
+     *
+     * @param pattern the iterator of the regular expression.
+     * @param flags the iterator of the flags, or null if there are none.
+     * @return the compiled pattern, or null if the arguments are not literals or are invalid, in which case the error
+     *         is reported when the function is evaluated.
+     */
+    public static Pattern compileLiterals(RuntimeIterator pattern, RuntimeIterator flags) {
+        String patternLiteral = NativeStringQueries.getStringLiteral(pattern);
+        String flagsLiteral = flags == null ? null : NativeStringQueries.getStringLiteral(flags);
+        if (patternLiteral == null || (flags != null && flagsLiteral == null)) {
+            return null;
+        }
+        try {
+            return compile(patternLiteral, flagsLiteral, ExceptionMetadata.EMPTY_METADATA);
+        } catch (InvalidRegexPatternException | InvalidRegexFlagsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks that a pattern does not match the empty string, as required by replace() and tokenize().
+     *
+     * @param pattern the compiled pattern.
+     * @param metadata the metadata to report errors with.
+     */
+    public static void checkDoesNotMatchEmptyString(Pattern pattern, ExceptionMetadata metadata) {
+        if (pattern.matcher("").matches()) {
+            throw new MatchesEmptyStringException(
+                    "'" + pattern.pattern() + "' matches empty string",
+                    metadata
+            );
+        }
+    }
+
+    /**
+     * Translates the flags to the embedded flags of a Java regular expression, e.g., for the RLIKE operator of Spark
+     * SQL, which does not take any flags.
+     *
+     * @param flags the flags, or null if there are none.
+     * @return the prefix to add to the pattern, or null if the flags cannot be embedded.
+     */
+    public static String getEmbeddedFlags(String flags) {
+        if (flags == null || flags.isEmpty()) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder("(?");
+        for (char flag : flags.toCharArray()) {
+            switch (flag) {
+                case 's':
+                case 'm':
+                    result.append(flag);
+                    break;
+                case 'i':
+                    result.append("iu");
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return result.append(")").toString();
+    }
+
+    private static int translateFlags(String flags, ExceptionMetadata metadata) {
+        int result = 0;
+        if (flags == null) {
+            return result;
+        }
+        for (char flag : flags.toCharArray()) {
+            switch (flag) {
+                case 's':
+                    result |= Pattern.DOTALL;
+                    break;
+                case 'm':
+                    result |= Pattern.MULTILINE;
+                    break;
+                case 'i':
+                    result |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                    break;
+                case 'x':
+                    // whitespace is removed from the pattern, see removeWhitespace().
+                    break;
+                case 'q':
+                    result |= Pattern.LITERAL;
+                    break;
+                default:
+                    throw new InvalidRegexFlagsException("Invalid regular expression flags: " + flags, metadata);
+            }
+        }
+        return result;
+    }
+
+    private static Pattern compile(String pattern, String flags, int javaFlags, ExceptionMetadata metadata) {
+        if ((javaFlags & Pattern.LITERAL) == 0 && flags != null && flags.indexOf('x') != -1) {
+            pattern = removeWhitespace(pattern);
+        }
+        try {
+            return Pattern.compile(pattern, javaFlags);
+        } catch (PatternSyntaxException e) {
+            throw new InvalidRegexPatternException(e.getDescription(), metadata);
+        }
+    }
+
+    /**
+     * Removes the whitespace characters outside of character class expressions, as the x flag requires. Unlike the
+     * COMMENTS flag of Java, # does not start a comment.
+     */
+    private static String removeWhitespace(String pattern) {
+        StringBuilder result = new StringBuilder(pattern.length());
+        boolean inCharacterClass = false;
+        for (int i = 0; i < pattern.length(); ++i) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                result.append(c).append(pattern.charAt(++i));
+                continue;
+            }
+            if (c == '[') {
+                inCharacterClass = true;
+            } else if (c == ']') {
+                inCharacterClass = false;
+            } else if (!inCharacterClass && (c == ' ' || c == '\t' || c == '\n' || c == '\r')) {
+                continue;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+}
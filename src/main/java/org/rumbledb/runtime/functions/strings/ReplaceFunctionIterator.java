@@ -23,22 +23,24 @@ package org.rumbledb.runtime.functions.strings;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.exceptions.ExceptionMetadata;
-import org.rumbledb.exceptions.InvalidRegexPatternException;
-import org.rumbledb.exceptions.MatchesEmptyStringException;
 import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.exceptions.InvalidReplacementStringException;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
-import java.util.regex.PatternSyntaxException;
 
 public class ReplaceFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
     private static final long serialVersionUID = 1L;
+    // The pattern, if it is given as a literal.
+    private Pattern pattern;
 
     public ReplaceFunctionIterator(
             List<RuntimeIterator> arguments,
@@ -46,40 +48,46 @@ public class ReplaceFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
             ExceptionMetadata iteratorMetadata
     ) {
         super(arguments, executionMode, iteratorMetadata);
+        this.pattern = RegularExpressions.compileLiterals(
+            this.children.get(1),
+            this.children.size() == 4 ? this.children.get(3) : null
+        );
+        if (this.pattern != null && this.pattern.matcher("").matches()) {
+            // the error is reported by the evaluation of the function.
+            this.pattern = null;
+        }
     }
 
     @Override
     public Item materializeFirstItemOrNull(DynamicContext context) {
         Item stringItem = this.children.get(0)
             .materializeFirstItemOrNull(context);
-        Item patternStringItem = this.children.get(1)
-            .materializeFirstItemOrNull(context);
-
-        if (patternStringItem == null) {
-            return null;
-        }
-        String pattern = patternStringItem.getStringValue();
-        Pattern p;
+        Pattern p = this.pattern;
+        if (p == null) {
+            Item patternStringItem = this.children.get(1)
+                .materializeFirstItemOrNull(context);
 
-        try {
-            p = Pattern.compile(pattern);
-        } catch (PatternSyntaxException e) {
-            throw new InvalidRegexPatternException(
-                    e.getDescription(),
-                    getMetadata()
-            );
-        }
-        if ("".matches(pattern)) {
-            throw new MatchesEmptyStringException(
-                    "'" + pattern + "' matches empty string",
-                    getMetadata()
+            if (patternStringItem == null) {
+                return null;
+            }
+            Item flagsItem = this.children.size() == 4
+                ? this.children.get(3).materializeFirstItemOrNull(context)
+                : null;
+            p = RegularExpressions.compile(
+                patternStringItem.getStringValue(),
+                flagsItem == null ? null : flagsItem.getStringValue(),
+                getMetadata()
             );
+            RegularExpressions.checkDoesNotMatchEmptyString(p, getMetadata());
         }
 
         Item replacementStringItem = this.children.get(2)
             .materializeFirstItemOrNull(context);
         String replacement = replacementStringItem.getStringValue();
-        if (!(checkReplacementStringForValidity(replacement))) {
+        if ((p.flags() & Pattern.LITERAL) != 0) {
+            // with the q flag, the replacement string is also taken literally.
+            replacement = Matcher.quoteReplacement(replacement);
+        } else if (!(checkReplacementStringForValidity(replacement))) {
             throw new InvalidReplacementStringException(
                     "'" + replacement + "' contains a disallowed sequence of characters",
                     getMetadata()
@@ -98,9 +106,39 @@ public class ReplaceFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
 
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        if (this.pattern == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String embeddedFlags = RegularExpressions.getEmbeddedFlags(
+            this.children.size() == 4 ? NativeStringQueries.getStringLiteral(this.children.get(3)) : null
+        );
+        String replacement = NativeStringQueries.getStringLiteral(this.children.get(2));
+        if (embeddedFlags == null || replacement == null || !checkReplacementStringForValidity(replacement)) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext string = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (string == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        // REGEXP_REPLACE uses Java regular expressions and replacement strings as well.
+        String resultingQuery = "REGEXP_REPLACE( "
+            + string.getResultingQuery()
+            + ", "
+            + FlworDataFrameUtils.createSQLStringLiteral(
+                embeddedFlags + NativeStringQueries.getStringLiteral(this.children.get(1))
+            )
+            + ", "
+            + FlworDataFrameUtils.createSQLStringLiteral(replacement)
+            + " )";
+        // the empty sequence is replaced with the empty string.
+        resultingQuery = NativeStringQueries.coalesceToEmptyString(resultingQuery);
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.stringItem);
+    }
+
     private static boolean checkReplacementStringForValidity(String repl) {
         int i = 0;
-        Pattern p = Pattern.compile("\\d");
 
         while (i < repl.length()) {
             if (repl.charAt(i) == '\\') { // '\' must be followed by another '\' or '$'
@@ -109,7 +147,7 @@ public class ReplaceFunctionIterator extends AtMostOneItemLocalRuntimeIterator {
                 }
                 i += 2;
             } else if (repl.charAt(i) == '$') { // '$' must always be followed by a digit
-                if ((i + 1 >= repl.length()) || !(p.matcher(String.valueOf(repl.charAt(i + 1))).matches())) {
+                if ((i + 1 >= repl.length()) || repl.charAt(i + 1) < '0' || repl.charAt(i + 1) > '9') {
                     return false;
                 }
                 i += 2;
@@ -28,6 +28,8 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -47,7 +49,7 @@ public class StringLengthFunctionIterator extends AtMostOneItemLocalRuntimeItera
     public Item materializeFirstItemOrNull(DynamicContext context) {
         if (this.children.size() == 0) {
             List<Item> items = context.getVariableValues().getLocalVariableValue(Name.CONTEXT_ITEM, getMetadata());
-            return ItemFactory.getInstance().createIntItem(items.get(0).getStringValue().length());
+            return ItemFactory.getInstance().createIntItem(getLength(items.get(0).getStringValue()));
         }
         Item stringItem = this.children.get(0)
             .materializeFirstItemOrNull(context);
@@ -56,7 +58,29 @@ public class StringLengthFunctionIterator extends AtMostOneItemLocalRuntimeItera
             return ItemFactory.getInstance().createIntItem(0);
         }
 
-        return ItemFactory.getInstance().createIntItem(stringItem.getStringValue().length());
+        return ItemFactory.getInstance().createIntItem(getLength(stringItem.getStringValue()));
     }
 
+    /**
+     * Counts the characters of a string in codepoints, as the native CHAR_LENGTH does, so that a character outside
+     * the Basic Multilingual Plane is counted once.
+     */
+    private static int getLength(String value) {
+        return value.codePointCount(0, value.length());
+    }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        if (this.children.size() != 1) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext value = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String resultingQuery = "CHAR_LENGTH( "
+            + NativeStringQueries.coalesceToEmptyString(value.getResultingQuery())
+            + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.integerItem);
+    }
 }
@@ -28,6 +28,8 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -92,4 +94,44 @@ public class SubstringFunctionIterator extends AtMostOneItemLocalRuntimeIterator
         // char indexing starts from 1 in JSONiq
         return Math.min(stringItem.getStringValue().length(), startIndex + endIndexItem.getDoubleValue());
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        NativeClauseContext string = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (string == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        NativeClauseContext start = NativeStringQueries.getIntegerArgument(this.children.get(1), nativeClauseContext);
+        if (start == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        // the characters at the positions p with start <= p < start + length are kept, positions starting at 1.
+        String from = "GREATEST(" + start.getResultingQuery() + ", 1)";
+        String resultingQuery;
+        if (this.children.size() > 2) {
+            NativeClauseContext length = NativeStringQueries.getIntegerArgument(
+                this.children.get(2),
+                nativeClauseContext
+            );
+            if (length == NativeClauseContext.NoNativeQuery) {
+                return NativeClauseContext.NoNativeQuery;
+            }
+            resultingQuery = "SUBSTRING( "
+                + string.getResultingQuery()
+                + ", "
+                + from
+                + ", GREATEST("
+                + start.getResultingQuery()
+                + " + "
+                + length.getResultingQuery()
+                + " - "
+                + from
+                + ", 0) )";
+        } else {
+            resultingQuery = "SUBSTRING( " + string.getResultingQuery() + ", " + from + " )";
+        }
+        // the substring of the empty sequence is the empty string.
+        resultingQuery = NativeStringQueries.coalesceToEmptyString(resultingQuery);
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.stringItem);
+    }
 }
@@ -31,14 +31,17 @@ import org.rumbledb.runtime.RuntimeIterator;
 import org.rumbledb.runtime.functions.base.LocalFunctionCallIterator;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class TokenizeFunctionIterator extends LocalFunctionCallIterator {
 
     private static final long serialVersionUID = 1L;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // The pattern, if it is given as a literal.
+    private Pattern pattern;
     private String[] results;
     private Item nextResult;
     private int currentPosition;
-    private boolean lastEmptyString;
 
     public TokenizeFunctionIterator(
             List<RuntimeIterator> arguments,
@@ -46,6 +49,16 @@ public class TokenizeFunctionIterator extends LocalFunctionCallIterator {
             ExceptionMetadata iteratorMetadata
     ) {
         super(arguments, executionMode, iteratorMetadata);
+        if (this.children.size() > 1) {
+            this.pattern = RegularExpressions.compileLiterals(
+                this.children.get(1),
+                this.children.size() == 3 ? this.children.get(2) : null
+            );
+            if (this.pattern != null && this.pattern.matcher("").matches()) {
+                // the error is reported by the evaluation of the function.
+                this.pattern = null;
+            }
+        }
     }
 
     @Override
@@ -71,7 +84,6 @@ public class TokenizeFunctionIterator extends LocalFunctionCallIterator {
             // Getting first parameter
             RuntimeIterator stringIterator = this.children.get(0);
             String input = null;
-            String separator = null;
             Item stringItem = stringIterator.materializeFirstItemOrNull(this.currentDynamicContextForLocalExecution);
             if (stringItem == null) {
                 this.hasNext = false;
@@ -81,44 +93,52 @@ public class TokenizeFunctionIterator extends LocalFunctionCallIterator {
 
             // Getting second parameter
             if (this.children.size() == 1) {
-                separator = "\\s+";
-            } else {
-                RuntimeIterator separatorIterator = this.children.get(1);
-                separatorIterator.open(this.currentDynamicContextForLocalExecution);
-                if (!separatorIterator.hasNext()) {
-                    throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
-                }
-                stringItem = separatorIterator.next();
-                if (separatorIterator.hasNext()) {
-                    throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
+                this.results = WHITESPACE.split(input);
+                this.currentPosition = 0;
+                if (this.results.length != 0 && this.results[0].equals("")) {
+                    this.currentPosition++;
                 }
-                separatorIterator.close();
-                if (!stringItem.isString()) {
-                    throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
-                }
-                try {
-                    separator = stringItem.getStringValue();
-                } catch (Exception e) {
-                    throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
+            } else {
+                Pattern separator = this.pattern;
+                if (separator == null) {
+                    separator = getSeparator();
                 }
+                // a negative limit keeps the trailing empty strings, e.g., after a separator at the end.
+                this.results = input.isEmpty() ? new String[0] : separator.split(input, -1);
+                this.currentPosition = 0;
             }
-            this.results = input.split(separator);
-            this.currentPosition = 0;
-            if (this.children.size() == 1 && this.results.length != 0 && this.results[0].equals("")) {
-                this.currentPosition++;
-            }
-            this.lastEmptyString = this.children.size() == 2 && input.matches(".*" + separator + "$");
         }
         if (this.currentPosition < this.results.length) {
             this.nextResult = ItemFactory.getInstance().createStringItem(this.results[this.currentPosition]);
             this.currentPosition++;
             this.hasNext = true;
-        } else if (this.lastEmptyString) {
-            this.nextResult = ItemFactory.getInstance().createStringItem(new String(""));
-            this.hasNext = true;
-            this.lastEmptyString = false;
         } else {
             this.hasNext = false;
         }
     }
+
+    private Pattern getSeparator() {
+        RuntimeIterator separatorIterator = this.children.get(1);
+        separatorIterator.open(this.currentDynamicContextForLocalExecution);
+        if (!separatorIterator.hasNext()) {
+            throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
+        }
+        Item stringItem = separatorIterator.next();
+        if (separatorIterator.hasNext()) {
+            throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
+        }
+        separatorIterator.close();
+        if (!stringItem.isString()) {
+            throw new UnexpectedTypeException("Second parameter of tokenize must be a string.", getMetadata());
+        }
+        String flags = null;
+        if (this.children.size() == 3) {
+            Item flagsItem = this.children.get(2)
+                .materializeFirstItemOrNull(this.currentDynamicContextForLocalExecution);
+            flags = flagsItem == null ? null : flagsItem.getStringValue();
+        }
+        Pattern separator = RegularExpressions.compile(stringItem.getStringValue(), flags, getMetadata());
+        RegularExpressions.checkDoesNotMatchEmptyString(separator, getMetadata());
+        return separator;
+    }
 }
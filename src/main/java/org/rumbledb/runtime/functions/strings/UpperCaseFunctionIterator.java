@@ -27,6 +27,8 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 import java.util.List;
 
@@ -53,4 +55,16 @@ public class UpperCaseFunctionIterator extends AtMostOneItemLocalRuntimeIterator
             return ItemFactory.getInstance().createStringItem(input.toUpperCase());
         }
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        NativeClauseContext value = NativeStringQueries.getStringArgument(this.children.get(0), nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String resultingQuery = NativeStringQueries.coalesceToEmptyString(
+            "UPPER( " + value.getResultingQuery() + " )"
+        );
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.stringItem);
+    }
 }
@@ -22,6 +22,9 @@ package org.rumbledb.runtime.misc;
 
 import java.util.Arrays;
 
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
 import org.rumbledb.exceptions.ExceptionMetadata;
@@ -29,10 +32,13 @@ import org.rumbledb.exceptions.IteratorFlowException;
 import org.rumbledb.exceptions.UnexpectedTypeException;
 import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
-import org.rumbledb.runtime.LocalRuntimeIterator;
+import org.rumbledb.items.structured.JSoundDataFrame;
+import org.rumbledb.runtime.HybridRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.types.BuiltinTypesCatalogue;
+import sparksoniq.spark.SparkSessionManager;
 
-public class RangeOperationIterator extends LocalRuntimeIterator {
+public class RangeOperationIterator extends HybridRuntimeIterator {
 
 
     private static final long serialVersionUID = 1L;
@@ -53,12 +59,18 @@ public class RangeOperationIterator extends LocalRuntimeIterator {
         this.rightIterator = rightiterator;
     }
 
-    public boolean hasNext() {
+    @Override
+    protected boolean implementsDataFrames() {
+        return true;
+    }
+
+    @Override
+    protected boolean hasNextLocal() {
         return this.hasNext;
     }
 
     @Override
-    public Item next() {
+    protected Item nextLocal() {
         if (this.hasNext) {
             if (this.index == this.right) {
                 this.hasNext = false;
@@ -68,12 +80,36 @@ public class RangeOperationIterator extends LocalRuntimeIterator {
         throw new IteratorFlowException("Invalid next call in Range Operation", getMetadata());
     }
 
-    public void open(DynamicContext context) {
-        super.open(context);
-
+    @Override
+    protected void openLocal() {
         this.index = 0;
-        this.leftIterator.open(this.currentDynamicContextForLocalExecution);
-        this.rightIterator.open(this.currentDynamicContextForLocalExecution);
+        if (computeBounds(this.currentDynamicContextForLocalExecution)) {
+            this.index = this.left;
+            this.hasNext = true;
+        } else {
+            this.hasNext = false;
+        }
+    }
+
+    @Override
+    protected void resetLocal() {
+        openLocal();
+    }
+
+    @Override
+    protected void closeLocal() {
+    }
+
+    /**
+     * Evaluates the bounds of the range.
+     *
+     * @param context the dynamic context.
+     * @return false if the range is empty.
+     */
+    private boolean computeBounds(DynamicContext context) {
+        this.leftIterator.open(context);
+        this.rightIterator.open(context);
+        boolean result = false;
         if (this.leftIterator.hasNext() && this.rightIterator.hasNext()) {
             Item left = this.leftIterator.next();
             Item right = this.rightIterator.next();
@@ -99,18 +135,38 @@ public class RangeOperationIterator extends LocalRuntimeIterator {
             } catch (IteratorFlowException e) {
                 throw new IteratorFlowException(e.getJSONiqErrorMessage(), getMetadata());
             }
-            if (this.right < this.left) {
-                this.hasNext = false;
-            } else {
-                this.index = this.left;
-                this.hasNext = true;
-            }
-        } else {
-            this.hasNext = false;
+            result = this.right >= this.left;
         }
 
         this.leftIterator.close();
         this.rightIterator.close();
+        return result;
+    }
+
+    @Override
+    protected JavaRDD<Item> getRDDAux(DynamicContext context) {
+        return dataFrameToRDDOfItems(getDataFrame(context), getMetadata());
+    }
 
+    /**
+     * Big ranges are generated by Spark, so that they are neither enumerated on the driver nor sent to the executors.
+     * The numbers are stored as integers, that is, as decimals without fractional digits.
+     */
+    @Override
+    public JSoundDataFrame getDataFrame(DynamicContext context) {
+        long start = 0;
+        long end = 0;
+        if (computeBounds(context)) {
+            start = this.left;
+            // the range of Spark excludes its end, which cannot be greater than the greatest long.
+            end = this.right == Long.MAX_VALUE ? this.right : this.right + 1;
+        }
+        Dataset<Row> df = SparkSessionManager.getInstance()
+            .getOrCreateSession()
+            .range(start, end)
+            .selectExpr(
+                String.format("CAST(id AS DECIMAL(38, 0)) AS `%s`", SparkSessionManager.atomicJSONiqItemColumnName)
+            );
+        return new JSoundDataFrame(df, BuiltinTypesCatalogue.integerItem);
     }
 }
@@ -31,6 +31,9 @@ import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.functions.strings.NativeStringQueries;
+import org.rumbledb.types.BuiltinTypesCatalogue;
 
 public class StringConcatIterator extends AtMostOneItemLocalRuntimeIterator {
 
@@ -90,4 +93,15 @@ public class StringConcatIterator extends AtMostOneItemLocalRuntimeIterator {
         String rightStringValue = right.getStringValue();
         return ItemFactory.getInstance().createStringItem(leftStringValue.concat(rightStringValue));
     }
+
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        String left = NativeStringQueries.getStringValueQuery(this.leftIterator, nativeClauseContext);
+        String right = NativeStringQueries.getStringValueQuery(this.rightIterator, nativeClauseContext);
+        if (left == null || right == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        String resultingQuery = "CONCAT( " + left + ", " + right + " )";
+        return new NativeClauseContext(nativeClauseContext, resultingQuery, BuiltinTypesCatalogue.stringItem);
+    }
 }
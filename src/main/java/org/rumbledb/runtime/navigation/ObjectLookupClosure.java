@@ -22,6 +22,7 @@ package org.rumbledb.runtime.navigation;
 
 import org.apache.spark.api.java.function.FlatMapFunction;
 import org.rumbledb.api.Item;
+import org.rumbledb.items.ObjectShape;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -30,10 +31,10 @@ import java.util.List;
 public class ObjectLookupClosure implements FlatMapFunction<Item, Item> {
 
     private static final long serialVersionUID = 1L;
-    private final String key;
+    private final ObjectShape.KeyLookup keyLookup;
 
     public ObjectLookupClosure(String key) {
-        this.key = key;
+        this.keyLookup = new ObjectShape.KeyLookup(key);
     }
 
     public Iterator<Item> call(Item arg0) throws Exception {
@@ -43,7 +44,7 @@ public class ObjectLookupClosure implements FlatMapFunction<Item, Item> {
             return results.iterator();
         }
 
-        Item item = arg0.getItemByKey(this.key);
+        Item item = this.keyLookup.getItemByKey(arg0);
         if (item != null) {
             results.add(item);
         }
@@ -33,6 +33,7 @@ import org.rumbledb.exceptions.*;
 import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.expressions.flowr.FLWOR_CLAUSES;
 import org.rumbledb.items.ItemFactory;
+import org.rumbledb.items.ObjectShape;
 import org.rumbledb.items.structured.JSoundDataFrame;
 import org.rumbledb.runtime.HybridRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
@@ -56,6 +57,7 @@ public class ObjectLookupIterator extends HybridRuntimeIterator {
     private static final long serialVersionUID = 1L;
     private RuntimeIterator iterator;
     private Item lookupKey;
+    private ObjectShape.KeyLookup keyLookup;
     private boolean contextLookup;
     private Item nextResult;
 
@@ -124,6 +126,9 @@ public class ObjectLookupIterator extends HybridRuntimeIterator {
                         getMetadata()
                 );
             }
+            if (this.keyLookup == null || !this.keyLookup.getKey().equals(this.lookupKey.getStringValue())) {
+                this.keyLookup = new ObjectShape.KeyLookup(this.lookupKey.getStringValue());
+            }
         }
     }
 
@@ -167,7 +172,7 @@ public class ObjectLookupIterator extends HybridRuntimeIterator {
             Item item = this.iterator.next();
             if (item.isObject()) {
                 if (!this.contextLookup) {
-                    Item result = item.getItemByKey(this.lookupKey.getStringValue());
+                    Item result = this.keyLookup.getItemByKey(item);
                     if (result != null) {
                         this.nextResult = result;
                         break;
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.navigation;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.rumbledb.api.Item;
+import org.rumbledb.expressions.comparison.ComparisonExpression.ComparisonOperator;
+import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.arithmetics.AdditiveOperationIterator;
+import org.rumbledb.runtime.functions.context.LastFunctionIterator;
+import org.rumbledb.runtime.functions.context.PositionFunctionIterator;
+import org.rumbledb.runtime.logics.AndOperationIterator;
+import org.rumbledb.runtime.misc.ComparisonIterator;
+import org.rumbledb.runtime.primary.IntegerRuntimeIterator;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
+
+/**
+ * A predicate that selects the items at a constant range of positions, e.g., [3], [position() le 10], [last()],
+ * [last() - 1] or [position() ge 5 and position() le 10]. Such predicates are executed on an RDD without evaluating
+ * the filter on each item, and with at most one job over the whole input:
+ * - the first positions are taken from the first partitions,
+ * - the last positions are taken from the last partitions,
+ * - otherwise, the sizes of the partitions are computed once, and each partition keeps the items in the range.
+ */
+public class PositionalPredicate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Ranges of at most this many items are collected on the driver.
+    static final long MAX_COLLECTED_ITEMS = 100000;
+
+    private final Bound from;
+    private final Bound to;
+
+    /**
+     * A position, relative to the last position (last() + offset) or not.
+     */
+    private static class Bound implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Bound NONE = new Bound(Long.MAX_VALUE, false);
+
+        private final long offset;
+        private final boolean isRelativeToLast;
+
+        private Bound(long offset, boolean isRelativeToLast) {
+            this.offset = offset;
+            this.isRelativeToLast = isRelativeToLast;
+        }
+
+        private Bound plus(long value) {
+            return new Bound(this.offset + value, this.isRelativeToLast);
+        }
+
+        private long getPosition(long last) {
+            return this.isRelativeToLast ? last + this.offset : this.offset;
+        }
+    }
+
+    private PositionalPredicate(Bound from, Bound to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Recognizes a positional predicate.
+     *
+     * @param filter the iterator of the predicate.
+     * @return the positional predicate, or null if the filter is not a constant range of positions.
+     */
+    public static PositionalPredicate of(RuntimeIterator filter) {
+        Bound bound = getBound(filter);
+        if (bound != null) {
+            return new PositionalPredicate(bound, bound);
+        }
+        if (filter instanceof AndOperationIterator) {
+            PositionalPredicate left = of(((AndOperationIterator) filter).getLeftIterator());
+            PositionalPredicate right = of(((AndOperationIterator) filter).getRightIterator());
+            return left == null || right == null ? null : left.intersect(right);
+        }
+        if (!(filter instanceof ComparisonIterator)) {
+            return null;
+        }
+        ComparisonIterator comparison = (ComparisonIterator) filter;
+        ComparisonOperator operator = comparison.getComparisonOperator();
+        if (!operator.isValueComparison()) {
+            operator = operator.getCorrespondingValueComparison();
+        }
+        if (comparison.getLeftIterator() instanceof PositionFunctionIterator) {
+            bound = getBound(comparison.getRightIterator());
+        } else if (comparison.getRightIterator() instanceof PositionFunctionIterator) {
+            bound = getBound(comparison.getLeftIterator());
+            operator = swap(operator);
+        }
+        if (bound == null) {
+            return null;
+        }
+        switch (operator) {
+            case VC_EQ:
+                return new PositionalPredicate(bound, bound);
+            case VC_LT:
+                return new PositionalPredicate(new Bound(1, false), bound.plus(-1));
+            case VC_LE:
+                return new PositionalPredicate(new Bound(1, false), bound);
+            case VC_GT:
+                return new PositionalPredicate(bound.plus(1), Bound.NONE);
+            case VC_GE:
+                return new PositionalPredicate(bound, Bound.NONE);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Intersects two ranges, e.g., [position() ge 5 and position() le 10], as long as their bounds can be compared
+     * without knowing the last position.
+     */
+    private PositionalPredicate intersect(PositionalPredicate other) {
+        Bound from;
+        if (!this.from.isRelativeToLast && this.from.offset <= 1) {
+            from = other.from;
+        } else if (!other.from.isRelativeToLast && other.from.offset <= 1) {
+            from = this.from;
+        } else if (this.from.isRelativeToLast == other.from.isRelativeToLast) {
+            from = this.from.offset >= other.from.offset ? this.from : other.from;
+        } else {
+            return null;
+        }
+        Bound to;
+        if (this.to == Bound.NONE) {
+            to = other.to;
+        } else if (other.to == Bound.NONE) {
+            to = this.to;
+        } else if (this.to.isRelativeToLast == other.to.isRelativeToLast) {
+            to = this.to.offset <= other.to.offset ? this.to : other.to;
+        } else {
+            return null;
+        }
+        return new PositionalPredicate(from, to);
+    }
+
+    private static ComparisonOperator swap(ComparisonOperator operator) {
+        switch (operator) {
+            case VC_LT:
+                return ComparisonOperator.VC_GT;
+            case VC_LE:
+                return ComparisonOperator.VC_GE;
+            case VC_GT:
+                return ComparisonOperator.VC_LT;
+            case VC_GE:
+                return ComparisonOperator.VC_LE;
+            default:
+                return operator;
+        }
+    }
+
+    private static Bound getBound(RuntimeIterator iterator) {
+        if (iterator instanceof IntegerRuntimeIterator) {
+            Long value = getLongLiteral(iterator);
+            return value == null ? null : new Bound(value, false);
+        }
+        if (iterator instanceof LastFunctionIterator) {
+            return new Bound(0, true);
+        }
+        if (iterator instanceof AdditiveOperationIterator) {
+            AdditiveOperationIterator additive = (AdditiveOperationIterator) iterator;
+            if (!(additive.getLeftIterator() instanceof LastFunctionIterator)) {
+                return null;
+            }
+            Long value = getLongLiteral(additive.getRightIterator());
+            if (value == null) {
+                return null;
+            }
+            return new Bound(additive.isMinus() ? -value : value, true);
+        }
+        return null;
+    }
+
+    private static Long getLongLiteral(RuntimeIterator iterator) {
+        if (!(iterator instanceof IntegerRuntimeIterator)) {
+            return null;
+        }
+        Item item = iterator.materializeFirstItemOrNull(null);
+        if (item.getIntegerValue().bitLength() >= Long.SIZE - 1) {
+            return null;
+        }
+        return item.getIntegerValue().longValue();
+    }
+
+    public boolean dependsOnLast() {
+        return this.from.isRelativeToLast || this.to.isRelativeToLast;
+    }
+
+    /**
+     * Returns the first position of the range.
+     *
+     * @param last the number of items, only used if the predicate depends on it.
+     * @return the first position, at least 1.
+     */
+    public long getFirstPosition(long last) {
+        return Math.max(1, this.from.getPosition(last));
+    }
+
+    /**
+     * Returns the last position of the range.
+     *
+     * @param last the number of items, only used if the predicate depends on it.
+     * @return the last position, Long.MAX_VALUE if there is no upper bound.
+     */
+    public long getLastPosition(long last) {
+        return this.to.getPosition(last);
+    }
+
+    /**
+     * Filters an RDD, e.g., of items or of the rows of a DataFrame.
+     *
+     * @param rdd the RDD.
+     * @param <T> the type of the elements of the RDD.
+     * @return the elements of the RDD at the positions of the range.
+     */
+    public <T> JavaRDD<T> filter(JavaRDD<T> rdd) {
+        JavaSparkContext sparkContext = SparkSessionManager.getInstance().getJavaSparkContext();
+        if (!dependsOnLast()) {
+            long firstPosition = getFirstPosition(0);
+            long lastPosition = getLastPosition(0);
+            if (lastPosition < firstPosition) {
+                return sparkContext.emptyRDD();
+            }
+            if (lastPosition <= MAX_COLLECTED_ITEMS) {
+                // take() only computes as many partitions as needed.
+                List<T> items = rdd.take((int) lastPosition);
+                int start = (int) Math.min(firstPosition - 1, items.size());
+                return sparkContext.parallelize(new ArrayList<>(items.subList(start, items.size())));
+            }
+        } else if (this.from.isRelativeToLast && this.to.isRelativeToLast && this.to.offset <= 0) {
+            long count = -this.from.offset + 1;
+            if (count <= MAX_COLLECTED_ITEMS) {
+                return sparkContext.parallelize(takeLast(rdd, count));
+            }
+        }
+        return filterWithPartitionSizes(rdd);
+    }
+
+    /**
+     * Collects the items of the range, where both bounds are relative to the last position, from the last partitions.
+     */
+    private <T> List<T> takeLast(JavaRDD<T> rdd, long count) {
+        List<T> items = new ArrayList<>();
+        for (int partition = rdd.getNumPartitions() - 1; partition >= 0 && items.size() < count; --partition) {
+            // only the last items of the partition are sent to the driver.
+            long missing = count - items.size();
+            List<T> partitionItems = rdd.mapPartitions(iterator -> {
+                ArrayDeque<T> lastItems = new ArrayDeque<>();
+                while (iterator.hasNext()) {
+                    lastItems.addLast(iterator.next());
+                    if (lastItems.size() > missing) {
+                        lastItems.removeFirst();
+                    }
+                }
+                return lastItems.iterator();
+            }, true).collectPartitions(new int[] { partition })[0];
+            items.addAll(0, partitionItems);
+        }
+        long last = items.size();
+        // the positions of the collected items are relative to the last one.
+        int start = (int) Math.min(Math.max(0, last - 1 + this.from.offset), last);
+        int end = (int) Math.min(Math.max(start, last + this.to.offset), last);
+        return new ArrayList<>(items.subList(start, end));
+    }
+
+    private <T> JavaRDD<T> filterWithPartitionSizes(JavaRDD<T> rdd) {
+        List<Long> sizes = rdd.mapPartitions(iterator -> {
+            long size = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                ++size;
+            }
+            return Collections.singletonList(size).iterator();
+        }).collect();
+        long[] offsets = new long[sizes.size()];
+        long last = 0;
+        for (int i = 0; i < sizes.size(); ++i) {
+            offsets[i] = last;
+            last += sizes.get(i);
+        }
+        long firstPosition = getFirstPosition(last);
+        long lastPosition = getLastPosition(last);
+        return rdd.mapPartitionsWithIndex((partitionIndex, iterator) -> {
+            // the elements are streamed, as the range may cover most of the partition.
+            long offset = offsets[partitionIndex];
+            long skipped = Math.max(0, firstPosition - 1 - offset);
+            long kept = Math.max(0, lastPosition - offset - skipped);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .skip(skipped)
+                .limit(kept)
+                .iterator();
+        }, true);
+    }
+}
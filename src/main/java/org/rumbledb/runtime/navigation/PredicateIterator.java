@@ -23,6 +23,8 @@ package org.rumbledb.runtime.navigation;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.function.Function;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
 import org.apache.spark.sql.types.DataTypes;
 import org.rumbledb.api.Item;
 import org.rumbledb.context.DynamicContext;
@@ -44,6 +46,7 @@ import org.rumbledb.runtime.misc.ComparisonIterator;
 import org.rumbledb.runtime.primary.BooleanRuntimeIterator;
 
 import scala.Tuple2;
+import sparksoniq.spark.SparkSessionManager;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -62,6 +65,7 @@ public class PredicateIterator extends HybridRuntimeIterator {
     private boolean mustMaintainPosition;
     private DynamicContext filterDynamicContext;
     private boolean isBooleanOnlyFilter;
+    private PositionalPredicate positionalPredicate;
 
 
     public PredicateIterator(
@@ -75,6 +79,7 @@ public class PredicateIterator extends HybridRuntimeIterator {
         this.filter = filterExpression;
         this.filterDynamicContext = null;
         this.isBooleanOnlyFilter = isBooleanOnlyFilter();
+        this.positionalPredicate = PositionalPredicate.of(filterExpression);
     }
 
     public RuntimeIterator sequenceIterator() {
@@ -216,6 +221,8 @@ public class PredicateIterator extends HybridRuntimeIterator {
             Function<Item, Boolean> transformation = new PredicateClosure(filter, dynamicContext);
             JavaRDD<Item> resultRDD = childRDD.filter(transformation);
             return resultRDD;
+        } else if (this.positionalPredicate != null) {
+            return this.positionalPredicate.filter(childRDD);
         } else {
             JavaPairRDD<Item, Long> zippedChildRDD = childRDD.zipWithIndex();
             long last = 0;
@@ -240,12 +247,23 @@ public class PredicateIterator extends HybridRuntimeIterator {
     public JSoundDataFrame getDataFrame(DynamicContext context) {
         JSoundDataFrame childDataFrame = this.children.get(0).getDataFrame(context);
         RuntimeIterator filter = this.children.get(1);
+        if (this.positionalPredicate != null) {
+            return getDataFrameAtPositions(childDataFrame);
+        }
         NativeClauseContext nativeClauseContext = new NativeClauseContext(
                 FLWOR_CLAUSES.FILTER,
                 childDataFrame.getDataFrame().schema(),
                 context
         );
         NativeClauseContext nativeQuery = filter.generateNativeQuery(nativeClauseContext);
+        if (
+            nativeQuery != NativeClauseContext.NoNativeQuery
+                && nativeQuery.getResultingType() != null
+                && nativeQuery.getResultingType().isNumeric()
+        ) {
+            // a number selects a position, which the native query cannot compare with.
+            nativeQuery = NativeClauseContext.NoNativeQuery;
+        }
         if (nativeQuery == NativeClauseContext.NoNativeQuery) {
             if (this.isBooleanOnlyFilter) {
                 String left = FlworDataFrameUtils.createTempView(childDataFrame.getDataFrame());
@@ -274,13 +292,15 @@ public class PredicateIterator extends HybridRuntimeIterator {
                     childDataFrame.getItemType()
                 );
             } else {
-                JSoundDataFrame zippedChildDataFrame = FlworDataFrameUtils.zipWithIndex(
-                    childDataFrame,
-                    1L
+                // the Dataset is zipped directly, as the item type of atomic items is not an object type.
+                Dataset<Row> zippedChildDataFrame = FlworDataFrameUtils.zipWithIndex(
+                    childDataFrame.getDataFrame(),
+                    1L,
+                    SparkSessionManager.countColumnName
                 );
-                String left = FlworDataFrameUtils.createTempView(zippedChildDataFrame.getDataFrame());
+                String left = FlworDataFrameUtils.createTempView(zippedChildDataFrame);
                 List<String> UDFcolumns = FlworDataFrameUtils.getColumnNames(
-                    zippedChildDataFrame.getDataFrame().schema(),
+                    zippedChildDataFrame.schema(),
                     null,
                     null,
                     null
@@ -335,12 +355,38 @@ public class PredicateIterator extends HybridRuntimeIterator {
 
     }
 
+    /**
+     * Filters a DataFrame with a positional predicate, without evaluating the filter on each row. The first rows are
+     * taken from the first partitions, the other ranges are selected from the rows of the DataFrame like in an RDD,
+     * i.e., from the last partitions or with the sizes of the partitions.
+     */
+    private JSoundDataFrame getDataFrameAtPositions(JSoundDataFrame childDataFrame) {
+        Dataset<Row> df = childDataFrame.getDataFrame();
+        if (!this.positionalPredicate.dependsOnLast()) {
+            long firstPosition = this.positionalPredicate.getFirstPosition(0);
+            long lastPosition = Math.max(firstPosition - 1, this.positionalPredicate.getLastPosition(0));
+            if (lastPosition <= PositionalPredicate.MAX_COLLECTED_ITEMS) {
+                List<Row> rows = df.takeAsList((int) lastPosition);
+                rows = rows.subList((int) Math.min(firstPosition - 1, rows.size()), rows.size());
+                return new JSoundDataFrame(
+                        df.sparkSession().createDataFrame(new ArrayList<>(rows), df.schema()),
+                        childDataFrame.getItemType()
+                );
+            }
+        }
+        JavaRDD<Row> rows = this.positionalPredicate.filter(df.javaRDD());
+        return new JSoundDataFrame(
+                df.sparkSession().createDataFrame(rows, df.schema()),
+                childDataFrame.getItemType()
+        );
+    }
+
     public Map<Name, DynamicContext.VariableDependency> getVariableDependencies() {
         Map<Name, DynamicContext.VariableDependency> result =
             new TreeMap<Name, DynamicContext.VariableDependency>();
         result.putAll(this.filter.getVariableDependencies());
         result.remove(Name.CONTEXT_ITEM);
-        result.putAll(this.iterator.getVariableDependencies());
+        DynamicContext.mergeVariableDependencies(result, this.iterator.getVariableDependencies());
         return result;
     }
 }
@@ -65,7 +65,21 @@ public class PredicateWithZipUDF implements UDF1<Row, Boolean> {
     public Boolean call(Row row) {
         this.dynamicContext.getVariableValues().removeAllVariables();
         this.currentItems.clear();
-        Item item = ItemParser.getItemFromRow(row, this.metadata, this.itemType);
+        Item item;
+        Option<Object> atomicIndex = row.schema().getFieldIndex(SparkSessionManager.atomicJSONiqItemColumnName);
+        if (atomicIndex.isDefined()) {
+            // the row of an atomic item also has the count column.
+            int i = (int) atomicIndex.get();
+            item = ItemParser.convertFieldToItem(
+                row,
+                i,
+                row.schema().fields()[i].dataType(),
+                this.metadata,
+                this.itemType
+            );
+        } else {
+            item = ItemParser.getItemFromRow(row, this.metadata, this.itemType);
+        }
         this.currentItems.add(item);
         this.dynamicContext.getVariableValues().addVariableValue(Name.CONTEXT_ITEM, this.currentItems);
         Option<Object> opt = row.schema().getFieldIndex(SparkSessionManager.countColumnName);
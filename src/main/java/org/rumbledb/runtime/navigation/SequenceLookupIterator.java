@@ -55,7 +55,7 @@ public class SequenceLookupIterator extends AtMostOneItemLocalRuntimeIterator {
             materializedItems,
             this.position
         );
-        if (materializedItems.size() >= this.position) {
+        if (this.position >= 1 && materializedItems.size() >= this.position) {
             return materializedItems.get(this.position - 1);
         } else {
             return null;
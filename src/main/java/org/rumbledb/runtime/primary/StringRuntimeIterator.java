@@ -27,6 +27,7 @@ import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.expressions.ExecutionMode;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
 import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 
@@ -45,11 +46,15 @@ public class StringRuntimeIterator extends AtMostOneItemLocalRuntimeIterator {
         return this.item;
     }
 
+    public String getStringValue() {
+        return this.item.getStringValue();
+    }
+
     @Override
     public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
         return new NativeClauseContext(
                 nativeClauseContext,
-                '"' + this.item.getStringValue() + '"',
+                FlworDataFrameUtils.createSQLStringLiteral(this.item.getStringValue()),
                 BuiltinTypesCatalogue.stringItem
         );
     }
@@ -55,6 +55,10 @@ public class AtMostOneItemTypePromotionIterator extends AtMostOneItemLocalRuntim
         }
     }
 
+    public RuntimeIterator getChildIterator() {
+        return this.iterator;
+    }
+
     @Override
     public Item materializeFirstItemOrNull(DynamicContext context) {
         if (!this.sequenceType.isResolved()) {
@@ -125,6 +129,23 @@ public class AtMostOneItemTypePromotionIterator extends AtMostOneItemLocalRuntim
         if (value.equals(NativeClauseContext.NoNativeQuery)) {
             return NativeClauseContext.NoNativeQuery;
         }
+        if (value.getResultingType() == null) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        if (
+            !value.getResultingType().equals(BuiltinTypesCatalogue.floatItem)
+                && value.getResultingType().isSubtypeOf(this.itemType)
+        ) {
+            // a column holds exactly one item, which already has the expected type.
+            return value;
+        }
+        if (
+            this.itemType.equals(BuiltinTypesCatalogue.doubleItem)
+                && value.getResultingType().isSubtypeOf(BuiltinTypesCatalogue.decimalItem)
+        ) {
+            // the promotion to double is left to the consumer, e.g., substring() uses integer positions as they are.
+            return value;
+        }
         if (!value.getResultingType().equals(BuiltinTypesCatalogue.floatItem)) {
             return NativeClauseContext.NoNativeQuery;
         }
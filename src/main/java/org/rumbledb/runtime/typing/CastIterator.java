@@ -12,6 +12,8 @@ import org.rumbledb.items.DurationItem;
 import org.rumbledb.items.ItemFactory;
 import org.rumbledb.runtime.AtMostOneItemLocalRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
+import org.rumbledb.runtime.primary.StringRuntimeIterator;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.types.ItemType;
 import org.rumbledb.types.SequenceType;
@@ -104,6 +106,26 @@ public class CastIterator extends AtMostOneItemLocalRuntimeIterator {
         return result;
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        // constructors of literals, e.g., dateTime("2024-01-01T00:00:00Z"), are cast once and embedded in the query.
+        if (!(this.child instanceof StringRuntimeIterator) || !this.sequenceType.isResolved()) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        ItemType itemType = this.sequenceType.getItemType();
+        if (!itemType.isAtomicItemType()) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        Item item = ItemFactory.getInstance()
+            .createStringItem(((StringRuntimeIterator) this.child).getStringValue());
+        Item result = castItemToType(item, itemType, getMetadata());
+        if (result == null) {
+            // the error is reported by the evaluation of the cast.
+            return NativeClauseContext.NoNativeQuery;
+        }
+        return result.generateNativeQuery(nativeClauseContext);
+    }
+
     public static Item castItemToType(Item item, ItemType targetType, ExceptionMetadata metadata) {
         Item result = null;
         try {
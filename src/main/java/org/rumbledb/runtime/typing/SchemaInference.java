@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.runtime.typing;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.rumbledb.api.Item;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.exceptions.FunctionsNonSerializableException;
+import org.rumbledb.serialization.Serializer;
+import org.rumbledb.types.ItemType;
+import org.rumbledb.types.SequenceType;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts an RDD of items to a DataFrame without a user-provided schema, e.g., to write the output of a query to
+ * Parquet or Avro.
+ *
+ * If the static type of the items can be converted to a DataFrame schema, it is used as in annotate(). Otherwise, the
+ * schema is inferred from the items themselves in one pass:
+ * - booleans and strings are mapped to boolean and string columns,
+ * - integers are mapped to long columns, other numbers (or mixed integers and other numbers) to double columns,
+ * - the other atomic items (dates, durations...) are mapped to string columns with their lexical value,
+ * - objects are mapped to structs with the union of their keys, arrays to arrays,
+ * - fields with items of different kinds, e.g., strings and objects, fall back to string columns with the JSON
+ * serialization of the items.
+ * The RDD is then converted to rows in another pass.
+ */
+public class SchemaInference {
+
+    private SchemaInference() {
+    }
+
+    /**
+     * Converts an RDD of items to a DataFrame.
+     *
+     * @param rdd the items, which are computed twice if the schema is inferred and should be persisted.
+     * @param staticType the static type of the items, or null if static typing is not activated.
+     * @param configuration the configuration.
+     * @return the DataFrame.
+     */
+    public static Dataset<Row> convertRDDToDataFrame(
+            JavaRDD<Item> rdd,
+            SequenceType staticType,
+            RumbleRuntimeConfiguration configuration
+    ) {
+        if (staticType != null && !staticType.isEmptySequence()) {
+            ItemType itemType = staticType.getItemType();
+            if (
+                itemType.isCompatibleWithDataFrames(configuration)
+                    && (itemType.isAtomicItemType()
+                        || (itemType.isObjectItemType() && itemType.getObjectContentFacet() != null))
+            ) {
+                return ValidateTypeIterator.convertRDDToValidDataFrame(
+                    rdd,
+                    itemType,
+                    new DynamicContext(configuration)
+                ).getDataFrame();
+            }
+        }
+        InferredType type = rdd.treeAggregate(
+            InferredType.NONE,
+            (result, item) -> result.merge(InferredType.of(item)),
+            InferredType::merge
+        );
+        boolean isObject = type.kind == Kind.OBJECT;
+        StructType schema = isObject
+            ? (StructType) type.toDataType()
+            : DataTypes.createStructType(
+                new StructField[] {
+                    DataTypes.createStructField(
+                        SparkSessionManager.atomicJSONiqItemColumnName,
+                        type.toDataType(),
+                        true
+                    ) }
+            );
+        JavaRDD<Row> rows = rdd.map(item -> isObject ? type.convertToRow(item) : RowFactory.create(type.convert(item)));
+        return SparkSessionManager.getInstance().getOrCreateSession().createDataFrame(rows, schema);
+    }
+
+    private enum Kind {
+        // no item yet, e.g., the members of an empty array.
+        NONE,
+        NULL,
+        BOOLEAN,
+        LONG,
+        DOUBLE,
+        STRING,
+        ARRAY,
+        OBJECT,
+        JSON
+    }
+
+    /**
+     * The type inferred from the items seen so far.
+     */
+    private static class InferredType implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final InferredType NONE = new InferredType(Kind.NONE, null, null);
+
+        private final Kind kind;
+        private final InferredType memberType;
+        private final Map<String, InferredType> fieldTypes;
+
+        private InferredType(Kind kind, InferredType memberType, Map<String, InferredType> fieldTypes) {
+            this.kind = kind;
+            this.memberType = memberType;
+            this.fieldTypes = fieldTypes;
+        }
+
+        private static InferredType of(Item item) {
+            if (item.isFunction()) {
+                throw new FunctionsNonSerializableException();
+            }
+            if (item.isArray()) {
+                InferredType memberType = NONE;
+                for (Item member : item.getItems()) {
+                    memberType = memberType.merge(of(member));
+                }
+                return new InferredType(Kind.ARRAY, memberType, null);
+            }
+            if (item.isObject()) {
+                Map<String, InferredType> fieldTypes = new LinkedHashMap<>();
+                for (String key : item.getKeys()) {
+                    fieldTypes.put(key, of(item.getItemByKey(key)));
+                }
+                return new InferredType(Kind.OBJECT, null, fieldTypes);
+            }
+            if (item.isNull()) {
+                return new InferredType(Kind.NULL, null, null);
+            }
+            if (item.isBoolean()) {
+                return new InferredType(Kind.BOOLEAN, null, null);
+            }
+            if (item.isInt() || (item.isInteger() && item.getIntegerValue().bitLength() < Long.SIZE)) {
+                return new InferredType(Kind.LONG, null, null);
+            }
+            if (item.isNumeric()) {
+                return new InferredType(Kind.DOUBLE, null, null);
+            }
+            return new InferredType(Kind.STRING, null, null);
+        }
+
+        private InferredType merge(InferredType other) {
+            if (this.kind == Kind.NONE) {
+                return other;
+            }
+            if (other.kind == Kind.NONE) {
+                return this;
+            }
+            if (this.kind == Kind.NULL) {
+                return other;
+            }
+            if (other.kind == Kind.NULL) {
+                return this;
+            }
+            if (this.kind != other.kind) {
+                if (
+                    (this.kind == Kind.LONG && other.kind == Kind.DOUBLE)
+                        || (this.kind == Kind.DOUBLE && other.kind == Kind.LONG)
+                ) {
+                    return new InferredType(Kind.DOUBLE, null, null);
+                }
+                return new InferredType(Kind.JSON, null, null);
+            }
+            switch (this.kind) {
+                case ARRAY:
+                    return new InferredType(Kind.ARRAY, this.memberType.merge(other.memberType), null);
+                case OBJECT:
+                    Map<String, InferredType> fieldTypes = new LinkedHashMap<>(this.fieldTypes);
+                    for (Map.Entry<String, InferredType> entry : other.fieldTypes.entrySet()) {
+                        fieldTypes.merge(entry.getKey(), entry.getValue(), InferredType::merge);
+                    }
+                    return new InferredType(Kind.OBJECT, null, fieldTypes);
+                default:
+                    return this;
+            }
+        }
+
+        private DataType toDataType() {
+            switch (this.kind) {
+                case BOOLEAN:
+                    return DataTypes.BooleanType;
+                case LONG:
+                    return DataTypes.LongType;
+                case DOUBLE:
+                    return DataTypes.DoubleType;
+                case ARRAY:
+                    return DataTypes.createArrayType(this.memberType.toDataType(), true);
+                case OBJECT:
+                    List<StructField> fields = new ArrayList<>();
+                    for (Map.Entry<String, InferredType> entry : this.fieldTypes.entrySet()) {
+                        fields.add(DataTypes.createStructField(entry.getKey(), entry.getValue().toDataType(), true));
+                    }
+                    return DataTypes.createStructType(fields);
+                default:
+                    // fields with only nulls are also string columns, as Parquet does not support columns of nulls.
+                    return DataTypes.StringType;
+            }
+        }
+
+        /**
+         * Converts a top-level item of an object type to a row. A null, which the object type absorbs, becomes a row
+         * of nulls, as rows themselves cannot be null.
+         */
+        private Row convertToRow(Item item) {
+            if (item.isNull()) {
+                return RowFactory.create(new Object[this.fieldTypes.size()]);
+            }
+            return (Row) convert(item);
+        }
+
+        private Object convert(Item item) {
+            if (item == null || item.isNull()) {
+                return null;
+            }
+            switch (this.kind) {
+                case BOOLEAN:
+                    return item.getBooleanValue();
+                case LONG:
+                    return item.isInt() ? (long) item.getIntValue() : item.getIntegerValue().longValue();
+                case DOUBLE:
+                    return item.castToDoubleValue();
+                case STRING:
+                    return item.getStringValue();
+                case ARRAY:
+                    List<Item> members = item.getItems();
+                    Object[] result = new Object[members.size()];
+                    for (int i = 0; i < result.length; ++i) {
+                        result[i] = this.memberType.convert(members.get(i));
+                    }
+                    return result;
+                case OBJECT:
+                    Object[] values = new Object[this.fieldTypes.size()];
+                    int i = 0;
+                    for (Map.Entry<String, InferredType> entry : this.fieldTypes.entrySet()) {
+                        values[i++] = entry.getValue().convert(item.getItemByKey(entry.getKey()));
+                    }
+                    return RowFactory.create(values);
+                default:
+                    return new Serializer("UTF-8", Serializer.Method.JSON, false, "\n").serialize(item);
+            }
+        }
+    }
+}
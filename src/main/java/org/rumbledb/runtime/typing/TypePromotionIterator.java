@@ -13,6 +13,7 @@ import org.rumbledb.items.structured.JSoundDataFrame;
 import org.rumbledb.runtime.HybridRuntimeIterator;
 import org.rumbledb.runtime.RuntimeIterator;
 import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+import org.rumbledb.runtime.flwor.NativeClauseContext;
 import org.rumbledb.runtime.functions.sequences.general.TypePromotionClosure;
 import org.rumbledb.types.BuiltinTypesCatalogue;
 import org.rumbledb.types.ItemType;
@@ -58,6 +59,10 @@ public class TypePromotionIterator extends HybridRuntimeIterator {
         }
     }
 
+    public RuntimeIterator getChildIterator() {
+        return this.iterator;
+    }
+
     @Override
     public boolean hasNextLocal() {
         return this.hasNext;
@@ -201,6 +206,19 @@ public class TypePromotionIterator extends HybridRuntimeIterator {
         );
     }
 
+    @Override
+    public NativeClauseContext generateNativeQuery(NativeClauseContext nativeClauseContext) {
+        NativeClauseContext value = this.iterator.generateNativeQuery(nativeClauseContext);
+        if (value == NativeClauseContext.NoNativeQuery) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        // a column holds exactly one item, which is only passed on if it does not need any promotion.
+        if (value.getResultingType() == null || !value.getResultingType().isSubtypeOf(this.itemType)) {
+            return NativeClauseContext.NoNativeQuery;
+        }
+        return value;
+    }
+
     private void checkTypePromotion() {
         if (this.nextResult.isFunction()) {
             return;
@@ -168,7 +168,7 @@ public class ValidateTypeIterator extends HybridRuntimeIterator {
         return DataTypes.createStructField(columnName, type, nullable);
     }
 
-    private static DataType convertToDataType(ItemType itemType) {
+    public static DataType convertToDataType(ItemType itemType) {
         if (itemType.isArrayItemType()) {
             ItemType arrayContentsTypeItemType = itemType.getArrayContentFacet();
             DataType arrayContentsType = convertToDataType(arrayContentsTypeItemType);
@@ -234,7 +234,7 @@ public class ValidateTypeIterator extends HybridRuntimeIterator {
         );
     }
 
-    private static Object getRowColumnFromItemUsingDataType(
+    public static Object getRowColumnFromItemUsingDataType(
             Item item,
             DataType dataType,
             DynamicContext context
@@ -298,7 +298,8 @@ public class ValidateTypeIterator extends HybridRuntimeIterator {
                         throw new DatesWithTimezonesNotSupported(ExceptionMetadata.EMPTY_METADATA);
                     }
                 }
-                return new Date(item.getDateTimeValue().getMillis());
+                // dates are read back in the default time zone, so they are stored at the start of their day there.
+                return new Date(item.getDateTimeValue().toLocalDate().toDateTimeAtStartOfDay().getMillis());
             }
             if (dataType.equals(DataTypes.TimestampType)) {
                 return new Timestamp(item.getDateTimeValue().getMillis());
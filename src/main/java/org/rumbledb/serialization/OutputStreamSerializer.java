@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.rumbledb.serialization;
+
+import org.rumbledb.api.Item;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes items one after the other to an output stream, encoded in UTF-8.
+ *
+ * Each item is serialized into a buffer that is reused for the next items and then encoded directly to the stream, so
+ * that no string is built for an item, let alone for the whole output.
+ */
+public class OutputStreamSerializer implements Flushable, Closeable {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Serializer serializer;
+    private final Writer writer;
+    private final StringBuilder buffer;
+    private final char[] chunk;
+
+    public OutputStreamSerializer(Serializer serializer, OutputStream outputStream) {
+        this.serializer = serializer;
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        this.buffer = new StringBuilder();
+        this.chunk = new char[CHUNK_SIZE];
+    }
+
+    /**
+     * Writes an item.
+     *
+     * @param item the item to serialize.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void write(Item item) throws IOException {
+        this.buffer.setLength(0);
+        this.serializer.serialize(item, this.buffer, "", true);
+        int length = this.buffer.length();
+        for (int start = 0; start < length; start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, length);
+            this.buffer.getChars(start, end, this.chunk, 0);
+            this.writer.write(this.chunk, 0, end - start);
+        }
+    }
+
+    /**
+     * Writes an item followed by a new line, as in JSON Lines.
+     *
+     * @param item the item to serialize.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void writeLine(Item item) throws IOException {
+        write(item);
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
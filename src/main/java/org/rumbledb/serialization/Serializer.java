@@ -48,12 +48,12 @@ public class Serializer {
     }
 
     public String serialize(Item i) {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         serialize(i, sb, "", true);
         return sb.toString();
     }
 
-    public void serialize(Item item, StringBuffer sb, String indent, boolean isTopLevel) {
+    public void serialize(Item item, StringBuilder sb, String indent, boolean isTopLevel) {
         if (this.method.equals(Method.YAML)) {
             YAMLFactory yamlFactory = new YAMLFactory();
             // yamlFactory.disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER);
@@ -191,7 +191,7 @@ public class Serializer {
         }
     }
 
-    private void appendJSONAtomicItem(Item item, StringBuffer sb) {
+    private void appendJSONAtomicItem(Item item, StringBuilder sb) {
         boolean isStringValue = item.isAtomic() && !item.isNumeric() && !item.isBoolean() && !item.isNull();
         if (item.isDouble()) {
             if (Double.isNaN(item.getDoubleValue()) || Double.isInfinite(item.getDoubleValue())) {
@@ -0,0 +1,58 @@
+package org.rumbledb.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+
+import org.rumbledb.api.Item;
+import org.rumbledb.items.ItemFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Cancels the running query whose identifier is given with the query-id parameter, or lists the identifiers of the
+ * running queries if there is no such parameter.
+ */
+@SuppressWarnings("restriction")
+public class CancelQueryHandler implements HttpHandler {
+
+    private RunningQueries runningQueries;
+
+    public CancelQueryHandler(RunningQueries runningQueries) {
+        this.runningQueries = runningQueries;
+    }
+
+    private static String getQueryId(String query) throws IOException {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf("=");
+            if (index != -1 && URLDecoder.decode(pair.substring(0, index), "UTF-8").equals("query-id")) {
+                return URLDecoder.decode(pair.substring(index + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String queryId = getQueryId(exchange.getRequestURI().getQuery());
+        Item output = ItemFactory.getInstance().createObjectItem();
+        if (queryId == null) {
+            output.putItemByKey("running-queries", this.runningQueries.getQueryIds());
+        } else {
+            output.putItemByKey("query-id", ItemFactory.getInstance().createStringItem(queryId));
+            output.putItemByKey(
+                "cancelled",
+                ItemFactory.getInstance().createBooleanItem(this.runningQueries.cancel(queryId))
+            );
+        }
+        String response = output.serialize();
+        exchange.sendResponseHeaders(200, response.getBytes().length);
+        OutputStream stream = exchange.getResponseBody();
+        stream.write(response.getBytes());
+        stream.close();
+    }
+}
@@ -0,0 +1,125 @@
+package org.rumbledb.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.rumbledb.api.Item;
+import org.rumbledb.api.SequenceOfItems;
+import org.rumbledb.compiler.VisitorHelpers;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.context.DynamicContext;
+import org.rumbledb.expressions.module.MainModule;
+import org.rumbledb.items.ItemFactory;
+import org.rumbledb.runtime.RuntimeIterator;
+
+/**
+ * A least-recently-used cache of compiled query plans, used by the HTTP server so that queries that are sent over and
+ * over again are only parsed, analyzed and translated to runtime iterators once.
+ *
+ * Plans are keyed on the query text and on the compilation signature of the configuration. The cached runtime
+ * iterator tree is never executed directly: each execution works on a deep copy, and the dynamic context (with the
+ * values of the external variables) is built anew from the configuration of the request.
+ */
+public class QueryPlanCache {
+
+    private static class QueryPlan {
+        private final MainModule mainModule;
+        private final RuntimeIterator iterator;
+
+        private QueryPlan(MainModule mainModule, RuntimeIterator iterator) {
+            this.mainModule = mainModule;
+            this.iterator = iterator;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, QueryPlan> plans;
+    private long hits;
+    private long misses;
+
+    public QueryPlanCache(int capacity) {
+        this.capacity = capacity;
+        this.plans = new LinkedHashMap<String, QueryPlan>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+                return size() > QueryPlanCache.this.capacity;
+            }
+        };
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Compiles the query, or retrieves its plan from the cache, and prepares it for execution.
+     *
+     * @param query the content of the JSONiq main module.
+     * @param configuration the configuration of the request, used to bind external variables.
+     * @return the resulting sequence of items, not yet evaluated.
+     */
+    public SequenceOfItems runQuery(String query, RumbleRuntimeConfiguration configuration) {
+        QueryPlan plan = getPlan(query, configuration);
+        DynamicContext dynamicContext = VisitorHelpers.createDynamicContext(plan.mainModule, configuration);
+        return new SequenceOfItems(plan.iterator.deepCopy(), dynamicContext, configuration);
+    }
+
+    private QueryPlan getPlan(String query, RumbleRuntimeConfiguration configuration) {
+        if (this.capacity <= 0) {
+            synchronized (this) {
+                this.misses++;
+            }
+            return compile(query, configuration);
+        }
+        String key = configuration.getCompilationSignature() + "\n" + query;
+        synchronized (this) {
+            QueryPlan plan = this.plans.get(key);
+            if (plan != null) {
+                this.hits++;
+                return plan;
+            }
+            this.misses++;
+        }
+        QueryPlan plan = compile(query, configuration);
+        synchronized (this) {
+            this.plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    private static QueryPlan compile(String query, RumbleRuntimeConfiguration configuration) {
+        MainModule mainModule = VisitorHelpers.parseMainModuleFromQuery(query, configuration);
+        RuntimeIterator iterator = VisitorHelpers.generateRuntimeIterator(mainModule, configuration);
+        return new QueryPlan(mainModule, iterator);
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized int size() {
+        return this.plans.size();
+    }
+
+    public synchronized void clear() {
+        this.plans.clear();
+    }
+
+    /**
+     * Returns the statistics of the cache as an object item with the capacity, size, hits and misses.
+     *
+     * @return the statistics object.
+     */
+    public synchronized Item getStatistics() {
+        Item output = ItemFactory.getInstance().createObjectItem();
+        output.putItemByKey("capacity", ItemFactory.getInstance().createIntItem(this.capacity));
+        output.putItemByKey("size", ItemFactory.getInstance().createIntItem(this.plans.size()));
+        output.putItemByKey("hits", ItemFactory.getInstance().createLongItem(this.hits));
+        output.putItemByKey("misses", ItemFactory.getInstance().createLongItem(this.misses));
+        return output;
+    }
+}
@@ -0,0 +1,26 @@
+package org.rumbledb.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+@SuppressWarnings("restriction")
+public class QueryPlanCacheHandler implements HttpHandler {
+
+    private QueryPlanCache queryPlanCache;
+
+    public QueryPlanCacheHandler(QueryPlanCache queryPlanCache) {
+        this.queryPlanCache = queryPlanCache;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String response = this.queryPlanCache.getStatistics().serialize();
+        exchange.sendResponseHeaders(200, response.getBytes().length);
+        OutputStream stream = exchange.getResponseBody();
+        stream.write(response.getBytes());
+        stream.close();
+    }
+}
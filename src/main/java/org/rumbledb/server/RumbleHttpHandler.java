@@ -1,42 +1,59 @@
 package org.rumbledb.server;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.ConnectException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import javassist.CannotCompileException;
 import org.apache.spark.SparkException;
 import org.rumbledb.api.Item;
+import org.rumbledb.api.SequenceOfItems;
 import org.rumbledb.cli.JsoniqQueryExecutor;
 import org.rumbledb.config.RumbleRuntimeConfiguration;
 import org.rumbledb.errorcodes.ErrorCode;
+import org.rumbledb.exceptions.ExceptionMetadata;
 import org.rumbledb.exceptions.OurBadException;
+import org.rumbledb.exceptions.QueryCancelledException;
 import org.rumbledb.exceptions.RumbleException;
 import org.rumbledb.items.ItemFactory;
+import org.rumbledb.serialization.Serializer;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
-import sparksoniq.spark.SparkSessionManager;
-
 @SuppressWarnings("restriction")
 public class RumbleHttpHandler implements HttpHandler {
 
     private RumbleRuntimeConfiguration rumbleRuntimeConfiguration;
+    private QueryPlanCache queryPlanCache;
+    private RunningQueries runningQueries;
+
+    private static final Serializer streamingSerializer = new Serializer(
+            "UTF-8",
+            Serializer.Method.XML_JSON_HYBRID,
+            false,
+            "\n"
+    );
 
     private enum StatusCode {
         SUCCESS(200),
         METHOD_NOT_SUPPORTED(405),
-        SERVER_ERROR(500);
+        SERVER_ERROR(500),
+        SERVICE_UNAVAILABLE(503);
 
         private int code;
 
@@ -49,8 +66,14 @@ public class RumbleHttpHandler implements HttpHandler {
         }
     }
 
-    public RumbleHttpHandler(RumbleRuntimeConfiguration rumbleRuntimeConfiguration) {
+    public RumbleHttpHandler(
+            RumbleRuntimeConfiguration rumbleRuntimeConfiguration,
+            QueryPlanCache queryPlanCache,
+            RunningQueries runningQueries
+    ) {
         this.rumbleRuntimeConfiguration = rumbleRuntimeConfiguration;
+        this.queryPlanCache = queryPlanCache;
+        this.runningQueries = runningQueries;
     }
 
     private void sendResponse(HttpExchange exchange, StatusCode code, String response) throws IOException {
@@ -83,8 +106,21 @@ public class RumbleHttpHandler implements HttpHandler {
         return args;
     }
 
+    private int getQueryTimeout(RumbleRuntimeConfiguration configuration) {
+        int serverTimeout = this.rumbleRuntimeConfiguration.getQueryTimeout();
+        int requestTimeout = configuration.getQueryTimeout();
+        if (serverTimeout <= 0) {
+            return requestTimeout;
+        }
+        if (requestTimeout <= 0) {
+            return serverTimeout;
+        }
+        return Math.min(serverTimeout, requestTimeout);
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
+        String queryId = null;
         try {
             URI uri = exchange.getRequestURI();
             validateRequest(exchange);
@@ -94,7 +130,18 @@ public class RumbleHttpHandler implements HttpHandler {
             RumbleRuntimeConfiguration configuration = new RumbleRuntimeConfiguration(args);
             configuration.setAllowedURIPrefixes(this.rumbleRuntimeConfiguration.getAllowedURIPrefixes());
             validateConfiguration(exchange, configuration);
-            SparkSessionManager.COLLECT_ITEM_LIMIT = configuration.getResultSizeCap();
+
+            queryId = this.runningQueries.admit(configuration.getQueryId());
+            if (queryId == null) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                this.sendResponse(
+                    exchange,
+                    StatusCode.SERVICE_UNAVAILABLE,
+                    "The server is already running the maximum number of queries, or a query with the same query-id."
+                );
+                return;
+            }
+            this.runningQueries.start(queryId, configuration.getSchedulerPool(), getQueryTimeout(configuration));
 
             JsoniqQueryExecutor translator = new JsoniqQueryExecutor(configuration);
             List<Item> items = null;
@@ -111,16 +158,142 @@ public class RumbleHttpHandler implements HttpHandler {
                     sb.append("\n");
                 }
                 String JSONiqQuery = sb.toString();
+                SequenceOfItems sequence = this.queryPlanCache.runQuery(JSONiqQuery, configuration);
+                if (configuration.getStreaming() && configuration.getOutputPath() == null) {
+                    streamResponse(exchange, configuration, queryId, sequence);
+                    return;
+                }
                 items = new ArrayList<Item>();
-                count = translator.runInteractive(JSONiqQuery, items);
+                count = translator.runInteractive(sequence, items);
             }
 
-            Item output = assembleResponse(configuration, items, count);
+            Item output = assembleResponse(configuration, queryId, items, count);
 
             this.sendResponse(exchange, StatusCode.SUCCESS, output.serialize());
         } catch (Exception e) {
-            Item output = handleException(e);
+            Item output = getErrorResponse(queryId, e);
             this.sendResponse(exchange, StatusCode.SUCCESS, output.serialize());
+        } finally {
+            if (queryId != null) {
+                this.runningQueries.finish(queryId);
+            }
+        }
+    }
+
+    private Item getErrorResponse(String queryId, Exception e) {
+        if (queryId != null && this.runningQueries.isCancelled(queryId)) {
+            return handleException(
+                new QueryCancelledException(
+                        "Query " + queryId + " was cancelled.",
+                        ExceptionMetadata.EMPTY_METADATA
+                )
+            );
+        }
+        return handleException(e);
+    }
+
+    private static Iterator<Item> getItemIterator(SequenceOfItems sequence) {
+        if (sequence.availableAsRDD()) {
+            // fetches one partition at a time instead of collecting the whole RDD.
+            return sequence.getAsRDD().toLocalIterator();
+        }
+        sequence.open();
+        return new Iterator<Item>() {
+            @Override
+            public boolean hasNext() {
+                return sequence.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                return sequence.next();
+            }
+        };
+    }
+
+    /**
+     * Sends the response object with chunked transfer encoding, serializing the items of its values array as they
+     * are pulled from the sequence, so that the results are never materialized as a whole on the driver. At most as
+     * many items as the materialization cap are written. Errors that occur once the response has started are
+     * reported in the fields that follow the values array. If the client goes away, the query is cancelled.
+     */
+    private void streamResponse(
+            HttpExchange exchange,
+            RumbleRuntimeConfiguration configuration,
+            String queryId,
+            SequenceOfItems sequence
+    )
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(StatusCode.SUCCESS.getCode(), 0);
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)
+        );
+        try {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{ \"query-id\" : ");
+            streamingSerializer.serialize(ItemFactory.getInstance().createStringItem(queryId), sb, "", false);
+            sb.append(", \"values\" : [");
+            int cap = configuration.getResultSizeCap();
+            long count = 0;
+            Item trailer = null;
+            try {
+                Iterator<Item> items = getItemIterator(sequence);
+                while (items.hasNext() && (cap <= 0 || count < cap)) {
+                    // the item is pulled first, so that no separator is left if this fails.
+                    Item item = items.next();
+                    sb.append(count == 0 ? " " : ", ");
+                    streamingSerializer.serialize(item, sb, "", false);
+                    count++;
+                    writer.write(sb.toString());
+                    sb.setLength(0);
+                }
+                if (items.hasNext()) {
+                    trailer = ItemFactory.getInstance().createObjectItem();
+                    trailer.putItemByKey(
+                        "warning",
+                        ItemFactory.getInstance()
+                            .createStringItem(
+                                "Warning! The output sequence contains more than "
+                                    + cap
+                                    + " items but its materialization was capped at "
+                                    + cap
+                                    + " items. This value can be configured with the result-size parameter in the query string of the HTTP request."
+                            )
+                    );
+                }
+            } catch (IOException e) {
+                this.runningQueries.cancel(queryId);
+                return;
+            } catch (Exception e) {
+                trailer = getErrorResponse(queryId, e);
+            } finally {
+                if (sequence.isOpen()) {
+                    sequence.close();
+                }
+            }
+            sb.append(" ]");
+            if (trailer != null) {
+                for (String key : trailer.getKeys()) {
+                    sb.append(", ");
+                    streamingSerializer.serialize(ItemFactory.getInstance().createStringItem(key), sb, "", false);
+                    sb.append(" : ");
+                    streamingSerializer.serialize(trailer.getItemByKey(key), sb, "", false);
+                }
+            }
+            sb.append(" }");
+            writer.write(sb.toString());
+            writer.flush();
+        } catch (IOException e) {
+            // the client went away after the last item.
+        } finally {
+            // also releases the exchange if the client went away, in which case closing the writer fails.
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // nothing more can be sent to the client.
+            }
+            exchange.close();
         }
     }
 
@@ -146,8 +319,14 @@ public class RumbleHttpHandler implements HttpHandler {
         }
     }
 
-    private static Item assembleResponse(RumbleRuntimeConfiguration configuration, List<Item> results, long count) {
+    private static Item assembleResponse(
+            RumbleRuntimeConfiguration configuration,
+            String queryId,
+            List<Item> results,
+            long count
+    ) {
         Item output = ItemFactory.getInstance().createObjectItem();
+        output.putItemByKey("query-id", ItemFactory.getInstance().createStringItem(queryId));
         if (configuration.getOutputPath() != null) {
             output.putItemByKey(
                 "output-path",
@@ -170,7 +349,7 @@ public class RumbleHttpHandler implements HttpHandler {
                         "Warning! The output sequence contains "
                             + count
                             + " items but its materialization was capped at "
-                            + SparkSessionManager.COLLECT_ITEM_LIMIT
+                            + configuration.getResultSizeCap()
                             + " items. This value can be configured with the result-size parameter in the query string of the HTTP request."
                     )
             );
@@ -2,6 +2,7 @@ package org.rumbledb.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
 
 import org.rumbledb.config.RumbleRuntimeConfiguration;
 import org.rumbledb.exceptions.ExceptionMetadata;
@@ -31,8 +32,23 @@ public class RumbleServer {
                 ),
                 0
             );
+            QueryPlanCache queryPlanCache = new QueryPlanCache(
+                    this.rumbleRuntimeConfiguration.getQueryPlanCacheSize()
+            );
+            RunningQueries runningQueries = new RunningQueries(
+                    this.rumbleRuntimeConfiguration.getMaxConcurrentQueries()
+            );
+            // requests are served by a bounded pool of threads, with the number of concurrent queries limited by
+            // admission control so that threads remain available for cancellations and the other paths.
+            server.setExecutor(Executors.newFixedThreadPool(this.rumbleRuntimeConfiguration.getServerThreads()));
             HttpContext context = server.createContext("/jsoniq");
-            context.setHandler(new RumbleHttpHandler(this.rumbleRuntimeConfiguration));
+            context.setHandler(
+                new RumbleHttpHandler(this.rumbleRuntimeConfiguration, queryPlanCache, runningQueries)
+            );
+            context = server.createContext("/query-plan-cache");
+            context.setHandler(new QueryPlanCacheHandler(queryPlanCache));
+            context = server.createContext("/cancel");
+            context.setHandler(new CancelQueryHandler(runningQueries));
             context = server.createContext("/public.html");
             context.setHandler(new MainPageHandler());
             context = server.createContext("/jsound-validator.html");
@@ -0,0 +1,138 @@
+package org.rumbledb.server;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.spark.api.java.JavaSparkContext;
+import org.rumbledb.api.Item;
+import org.rumbledb.items.ItemFactory;
+
+import sparksoniq.spark.SparkSessionManager;
+
+/**
+ * The queries that the HTTP server is currently executing.
+ *
+ * At most a fixed number of queries are admitted at the same time, so that the other requests are turned down
+ * instead of queuing up jobs on a saturated cluster. Each admitted query runs its Spark jobs in its own job group (and,
+ * if requested, in its own fair scheduler pool), so that they can be cancelled when its timeout elapses or when the
+ * client asks for it.
+ */
+public class RunningQueries {
+
+    private static class RunningQuery {
+        private volatile boolean cancelled;
+        private ScheduledFuture<?> timeout;
+    }
+
+    private static final String SCHEDULER_POOL_PROPERTY = "spark.scheduler.pool";
+
+    private final Semaphore permits;
+    private final Map<String, RunningQuery> queries;
+    private final ScheduledExecutorService timer;
+
+    public RunningQueries(int maxConcurrentQueries) {
+        this.permits = new Semaphore(maxConcurrentQueries);
+        this.queries = new ConcurrentHashMap<>();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rumble-query-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Admits a new query, if fewer queries than the maximum are running.
+     *
+     * @param queryId the identifier chosen by the client, or null to generate one.
+     * @return the identifier of the admitted query, or null if the server is saturated or if the identifier is
+     *         already taken by a running query.
+     */
+    public String admit(String queryId) {
+        if (!this.permits.tryAcquire()) {
+            return null;
+        }
+        String id = queryId != null ? queryId : UUID.randomUUID().toString();
+        if (this.queries.putIfAbsent(id, new RunningQuery()) != null) {
+            this.permits.release();
+            return null;
+        }
+        return id;
+    }
+
+    /**
+     * Makes the Spark jobs started by the current thread belong to the job group of an admitted query, and schedules
+     * their cancellation.
+     *
+     * @param queryId the identifier of the query.
+     * @param schedulerPool the fair scheduler pool in which the jobs run, or null for the default pool.
+     * @param timeout the number of seconds after which the query is cancelled, 0 meaning no timeout.
+     */
+    public void start(String queryId, String schedulerPool, int timeout) {
+        JavaSparkContext sparkContext = SparkSessionManager.getInstance().getJavaSparkContext();
+        sparkContext.setJobGroup(queryId, "RumbleDB query " + queryId, true);
+        sparkContext.setLocalProperty(SCHEDULER_POOL_PROPERTY, schedulerPool);
+        if (timeout > 0) {
+            this.queries.get(queryId).timeout = this.timer.schedule(
+                () -> cancel(queryId),
+                timeout,
+                TimeUnit.SECONDS
+            );
+        }
+    }
+
+    /**
+     * Cancels the Spark jobs of a running query.
+     *
+     * @param queryId the identifier of the query.
+     * @return true if the query was running.
+     */
+    public boolean cancel(String queryId) {
+        RunningQuery query = this.queries.get(queryId);
+        if (query == null) {
+            return false;
+        }
+        query.cancelled = true;
+        SparkSessionManager.getInstance().getJavaSparkContext().cancelJobGroup(queryId);
+        return true;
+    }
+
+    public boolean isCancelled(String queryId) {
+        RunningQuery query = this.queries.get(queryId);
+        return query != null && query.cancelled;
+    }
+
+    /**
+     * Releases an admitted query and resets the job group and scheduler pool of the current thread.
+     *
+     * @param queryId the identifier of the query.
+     */
+    public void finish(String queryId) {
+        RunningQuery query = this.queries.remove(queryId);
+        if (query != null && query.timeout != null) {
+            query.timeout.cancel(false);
+        }
+        JavaSparkContext sparkContext = SparkSessionManager.getInstance().getJavaSparkContext();
+        sparkContext.clearJobGroup();
+        sparkContext.setLocalProperty(SCHEDULER_POOL_PROPERTY, null);
+        this.permits.release();
+    }
+
+    /**
+     * Returns the identifiers of the running queries as an array item.
+     *
+     * @return the array of identifiers.
+     */
+    public Item getQueryIds() {
+        Item output = ItemFactory.getInstance().createArrayItem();
+        for (String queryId : this.queries.keySet()) {
+            output.append(ItemFactory.getInstance().createStringItem(queryId));
+        }
+        return output;
+    }
+}
@@ -33,8 +33,6 @@ import org.rumbledb.exceptions.OurBadException;
 import org.rumbledb.items.parsing.RowToItemMapper;
 import org.rumbledb.items.structured.JSoundDataFrame;
 
-import sparksoniq.spark.SparkSessionManager;
-
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -116,8 +114,8 @@ public class FlworTuple implements Serializable, KryoSerializable {
             return this.localVariables.get(key);
         }
         if (this.rddVariables.containsKey(key)) {
-            JavaRDD<Item> rdd = this.getRDDValue(key, metadata);
-            return SparkSessionManager.collectRDDwithLimit(rdd, metadata);
+            // callers go through getLocalKeys(): materializing an RDD here would bypass the cap of the query.
+            throw new OurBadException("FLWOR variable " + key + " is not bound to a local sequence", metadata);
         }
 
         throw new OurBadException("Undeclared FLOWR variable", metadata);
@@ -56,6 +56,7 @@ import org.rumbledb.items.FunctionItem;
 import org.rumbledb.items.HexBinaryItem;
 import org.rumbledb.items.IntItem;
 import org.rumbledb.items.IntegerItem;
+import org.rumbledb.items.ItemKryoRegistrator;
 import org.rumbledb.items.NullItem;
 import org.rumbledb.items.ObjectItem;
 import org.rumbledb.items.StringItem;
@@ -69,13 +70,14 @@ import org.rumbledb.types.SequenceType;
 import sparksoniq.jsoniq.tuple.FlworKey;
 import sparksoniq.jsoniq.tuple.FlworTuple;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class SparkSessionManager {
 
     private static final String APP_NAME = "Rumble application";
-    public static int COLLECT_ITEM_LIMIT = 0;
+    private static final String KRYO_REGISTRATOR_PROPERTY = "spark.kryo.registrator";
     private static SparkSessionManager instance;
     private static Level LOG_LEVEL = Level.FATAL;
     private SparkConf configuration;
@@ -92,10 +94,6 @@ public class SparkSessionManager {
     private SparkSessionManager() {
     }
 
-    public static boolean LIMIT_COLLECT() {
-        return COLLECT_ITEM_LIMIT > 0;
-    }
-
     public static SparkSessionManager getInstance() {
         if (instance == null) {
             instance = new SparkSessionManager();
@@ -199,6 +197,14 @@ public class SparkSessionManager {
             };
 
             this.configuration.registerKryoClasses(serializedClasses);
+            // the registrators given by the user, if any, are kept.
+            String registrators = this.configuration.get(KRYO_REGISTRATOR_PROPERTY, "").trim();
+            String registrator = ItemKryoRegistrator.class.getName();
+            if (registrators.isEmpty()) {
+                this.configuration.set(KRYO_REGISTRATOR_PROPERTY, registrator);
+            } else if (!Arrays.asList(registrators.split("\\s*,\\s*")).contains(registrator)) {
+                this.configuration.set(KRYO_REGISTRATOR_PROPERTY, registrators + "," + registrator);
+            }
         }
     }
 
@@ -224,16 +230,24 @@ public class SparkSessionManager {
         return this.javaSparkContext;
     }
 
-    public static <T> List<T> collectRDDwithLimit(JavaRDD<T> rdd, ExceptionMetadata metadata) {
-        if (SparkSessionManager.LIMIT_COLLECT()) {
-            List<T> result = rdd.take(SparkSessionManager.COLLECT_ITEM_LIMIT + 1);
-            if (result.size() == SparkSessionManager.COLLECT_ITEM_LIMIT + 1) {
+    /**
+     * Collects an RDD, unless it has more items than the materialization cap of the query.
+     *
+     * @param rdd the RDD to collect.
+     * @param limit the materialization cap of the query, 0 or less meaning no cap.
+     * @param metadata the metadata to report if the cap is exceeded.
+     * @return the items of the RDD.
+     */
+    public static <T> List<T> collectRDDwithLimit(JavaRDD<T> rdd, int limit, ExceptionMetadata metadata) {
+        if (limit > 0) {
+            List<T> result = rdd.take(limit + 1);
+            if (result.size() == limit + 1) {
                 long count = rdd.count();
                 throw new CannotMaterializeException(
                         "Cannot materialize a sequence of "
                             + count
                             + " items because the limit is set to "
-                            + SparkSessionManager.COLLECT_ITEM_LIMIT
+                            + limit
                             + ". This value can be configured with the --materialization-cap parameter at startup",
                         metadata
                 );
@@ -244,16 +258,24 @@ public class SparkSessionManager {
         }
     }
 
-    public static <T> long collectRDDwithLimitWarningOnly(JavaRDD<T> rdd, List<T> outputList) {
+    /**
+     * Collects at most the materialization cap of the query from an RDD into a list.
+     *
+     * @param rdd the RDD to collect.
+     * @param limit the materialization cap of the query, 0 or less meaning no cap.
+     * @param outputList the list to which the items are added.
+     * @return the total number of items if it exceeds the cap, -1 otherwise.
+     */
+    public static <T> long collectRDDwithLimitWarningOnly(JavaRDD<T> rdd, int limit, List<T> outputList) {
         outputList.clear();
         long count = -1;
-        if (SparkSessionManager.LIMIT_COLLECT()) {
-            List<T> result = rdd.take(SparkSessionManager.COLLECT_ITEM_LIMIT + 1);
-            if (result.size() == SparkSessionManager.COLLECT_ITEM_LIMIT + 1) {
+        if (limit > 0) {
+            List<T> result = rdd.take(limit + 1);
+            if (result.size() == limit + 1) {
                 count = rdd.count();
             }
             result.stream()
-                .limit(SparkSessionManager.COLLECT_ITEM_LIMIT)
+                .limit(limit)
                 .collect(Collectors.toCollection(() -> outputList));
             return count;
         } else {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package iq;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.spark.sql.catalyst.expressions.GenericRowWithSchema;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.joda.time.Period;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rumbledb.api.Item;
+import org.rumbledb.exceptions.ExceptionMetadata;
+import org.rumbledb.items.ItemFactory;
+import org.rumbledb.items.RowObjectItem;
+import org.rumbledb.runtime.flwor.FlworDataFrameUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ItemSerializerTest {
+
+    private static Item roundTrip(Item item) {
+        Kryo kryo = new Kryo();
+        kryo.setReferences(false);
+        FlworDataFrameUtils.registerKryoClassesKryo(kryo);
+        Output output = new Output(128, -1);
+        kryo.writeClassAndObject(output, item);
+        Input input = new Input(output.toBytes());
+        Item result = (Item) kryo.readClassAndObject(input);
+        Assert.assertEquals(output.position(), input.position());
+        return result;
+    }
+
+    private static void checkRoundTrip(Item item) {
+        Item result = roundTrip(item);
+        Assert.assertEquals(item.serialize(), result.serialize());
+        Assert.assertEquals(item.getDynamicType(), result.getDynamicType());
+        Assert.assertEquals(item, result);
+    }
+
+    @Test(timeout = 1000000)
+    public void testAtomicItems() {
+        ItemFactory factory = ItemFactory.getInstance();
+        List<Item> items = Arrays.asList(
+            factory.createNullItem(),
+            factory.createBooleanItem(true),
+            factory.createBooleanItem(false),
+            factory.createIntItem(-42),
+            factory.createIntItem(Integer.MAX_VALUE),
+            factory.createIntegerItem(BigInteger.valueOf(Long.MIN_VALUE)),
+            factory.createIntegerItem(new BigInteger("123456789012345678901234567890")),
+            factory.createDecimalItem(new BigDecimal("-3.14159265358979323846")),
+            factory.createDecimalItem(new BigDecimal("1E+3")),
+            factory.createDoubleItem(-0.5e300),
+            factory.createFloatItem(1.5f),
+            factory.createStringItem(""),
+            factory.createStringItem("foo"),
+            factory.createStringItem(String.join("", Collections.nCopies(100, "\u00e9"))),
+            factory.createAnyURIItem("http://www.rumbledb.org"),
+            factory.createHexBinaryItem("0FB7"),
+            factory.createBase64BinaryItem("AQID"),
+            factory.createDateItem("2001-02-03"),
+            factory.createDateTimeItem("2001-02-03T04:05:06.789+01:00"),
+            factory.createTimeItem("04:05:06Z"),
+            factory.createDurationItem(Period.parse("P1Y2M3DT4H5M6S")),
+            factory.createYearMonthDurationItem(Period.parse("P1Y2M")),
+            factory.createDayTimeDurationItem(Period.parse("P3DT4H"))
+        );
+        for (Item item : items) {
+            checkRoundTrip(item);
+        }
+    }
+
+    @Test(timeout = 1000000)
+    public void testStructuredItems() {
+        ItemFactory factory = ItemFactory.getInstance();
+        checkRoundTrip(factory.createArrayItem());
+        checkRoundTrip(factory.createObjectItem());
+
+        // the keys and the strings that are repeated are only written once.
+        List<Item> objects = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            Item object = factory.createObjectItem();
+            object.putItemByKey("id", factory.createIntItem(i));
+            object.putItemByKey("tag", factory.createStringItem("same"));
+            object.putItemByKey(
+                "values",
+                factory.createArrayItem(Arrays.asList(factory.createNullItem(), factory.createStringItem("same")))
+            );
+            objects.add(object);
+        }
+        Item array = factory.createArrayItem(objects);
+        checkRoundTrip(array);
+
+        Item lazyObject = factory.createLazyObjectItem();
+        lazyObject.putItemByKey("a", factory.createIntItem(1));
+        lazyObject.putItemByKey("b", array);
+        checkRoundTrip(lazyObject);
+
+        StructType schema = DataTypes.createStructType(
+            new StructField[] {
+                DataTypes.createStructField("name", DataTypes.StringType, true),
+                DataTypes.createStructField("count", DataTypes.LongType, true) }
+        );
+        Item rowObject = new RowObjectItem(
+                new GenericRowWithSchema(new Object[] { "x", 2L }, schema),
+                null,
+                ExceptionMetadata.EMPTY_METADATA
+        );
+        Item result = roundTrip(rowObject);
+        Assert.assertTrue(result.isObject());
+        Assert.assertEquals(rowObject.serialize(), result.serialize());
+    }
+}
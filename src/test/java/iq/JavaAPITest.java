@@ -22,17 +22,41 @@ package iq;
 
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.rumbledb.api.Item;
 import org.rumbledb.api.Rumble;
 import org.rumbledb.api.SequenceOfItems;
+import org.rumbledb.cli.JsoniqQueryExecutor;
 import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.runtime.typing.SchemaInference;
+import org.rumbledb.serialization.OutputStreamSerializer;
 
 import sparksoniq.spark.SparkSessionManager;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public class JavaAPITest {
 
@@ -122,4 +146,269 @@ public class JavaAPITest {
             Assert.assertTrue(value.getIntValue() == i);
         }
     }
+
+    @Test(timeout = 1000000)
+    public void testSchemaInference() throws Throwable {
+        RumbleRuntimeConfiguration configuration = RumbleRuntimeConfiguration.getDefaultConfiguration();
+        Rumble rumble = new Rumble(configuration);
+        SequenceOfItems sequence = rumble.runQuery(
+            "parallelize(({ \"a\" : 1, \"b\" : \"x\", \"n\" : null }, null, "
+                + "{ \"a\" : 2.5, \"c\" : [ [ 1 ], [ 2, 3 ] ], \"d\" : { \"e\" : true } }, "
+                + "{ \"b\" : { \"y\" : 1 }, \"c\" : [ ], \"d\" : { \"f\" : \"z\" } }))"
+        );
+        Assert.assertTrue(sequence.availableAsRDD());
+        Dataset<Row> df = SchemaInference.convertRDDToDataFrame(sequence.getAsRDD(), null, configuration);
+        StructType schema = df.schema();
+        Assert.assertEquals(DataTypes.DoubleType, schema.apply("a").dataType());
+        // strings and objects fall back to their JSON serialization.
+        Assert.assertEquals(DataTypes.StringType, schema.apply("b").dataType());
+        Assert.assertEquals(DataTypes.StringType, schema.apply("n").dataType());
+        Assert.assertEquals(
+            DataTypes.createArrayType(DataTypes.createArrayType(DataTypes.LongType)),
+            schema.apply("c").dataType()
+        );
+        Assert.assertEquals(
+            DataTypes.createStructType(
+                new StructField[] {
+                    DataTypes.createStructField("e", DataTypes.BooleanType, true),
+                    DataTypes.createStructField("f", DataTypes.StringType, true) }
+            ),
+            schema.apply("d").dataType()
+        );
+        List<Row> rows = df.collectAsList();
+        Assert.assertEquals(4, rows.size());
+        Assert.assertEquals(1.0, rows.get(0).getDouble(rows.get(0).fieldIndex("a")), 0);
+        Assert.assertEquals("\"x\"", rows.get(0).getString(rows.get(0).fieldIndex("b")));
+        Assert.assertTrue(rows.get(0).isNullAt(rows.get(0).fieldIndex("n")));
+        // a top-level null becomes a row of nulls.
+        for (int i = 0; i < rows.get(1).length(); ++i) {
+            Assert.assertTrue(rows.get(1).isNullAt(i));
+        }
+        Assert.assertEquals(2, rows.get(2).getList(rows.get(2).fieldIndex("c")).size());
+        Assert.assertEquals("{ \"y\" : 1 }", rows.get(3).getString(rows.get(3).fieldIndex("b")));
+        Assert.assertEquals("z", rows.get(3).getStruct(rows.get(3).fieldIndex("d")).getString(1));
+
+        String path = Files.createTempDirectory("schema-inference").resolve("output").toString();
+        df.write().parquet(path);
+        SequenceOfItems written = rumble.runQuery("count(parquet-file(\"" + path + "\"))");
+        written.open();
+        Assert.assertEquals(4, written.next().getIntValue());
+        written.close();
+    }
+
+    @Test(timeout = 1000000)
+    public void testSchemaInferenceOfAtomicItems() throws Throwable {
+        RumbleRuntimeConfiguration configuration = RumbleRuntimeConfiguration.getDefaultConfiguration();
+        Rumble rumble = new Rumble(configuration);
+        SequenceOfItems sequence = rumble.runQuery("parallelize((1, 2.5, \"x\", [ 1 ]))");
+        Dataset<Row> df = SchemaInference.convertRDDToDataFrame(sequence.getAsRDD(), null, configuration);
+        Assert.assertEquals(1, df.schema().fields().length);
+        Assert.assertEquals(DataTypes.StringType, df.schema().fields()[0].dataType());
+        List<Row> rows = df.collectAsList();
+        Assert.assertEquals("1", rows.get(0).getString(0));
+        Assert.assertEquals("2.5", rows.get(1).getString(0));
+        Assert.assertEquals("\"x\"", rows.get(2).getString(0));
+        Assert.assertEquals("[ 1 ]", rows.get(3).getString(0));
+
+        sequence = rumble.runQuery("parallelize((1, 2.5, 3))");
+        df = SchemaInference.convertRDDToDataFrame(sequence.getAsRDD(), null, configuration);
+        Assert.assertEquals(DataTypes.DoubleType, df.schema().fields()[0].dataType());
+        Assert.assertEquals(2.5, df.collectAsList().get(1).getDouble(0), 0);
+    }
+
+    @Test(timeout = 1000000)
+    public void testSchemaInferenceFromStaticType() throws Throwable {
+        RumbleRuntimeConfiguration configuration = RumbleRuntimeConfiguration.getDefaultConfiguration();
+        Rumble rumble = new Rumble(configuration);
+        SequenceOfItems sequence = rumble.runQuery("for $i in parallelize(1 to 3) return \"s\" || $i");
+        Assert.assertNotNull(sequence.getStaticType());
+        Assert.assertTrue(sequence.getStaticType().getItemType().isAtomicItemType());
+        Dataset<Row> df = SchemaInference.convertRDDToDataFrame(
+            sequence.getAsRDD(),
+            sequence.getStaticType(),
+            configuration
+        );
+        Assert.assertEquals(DataTypes.StringType, df.schema().fields()[0].dataType());
+        List<Row> rows = df.collectAsList();
+        Assert.assertEquals(3, rows.size());
+        Assert.assertEquals("s1", rows.get(0).getString(0));
+    }
+
+    @Test(timeout = 1000000)
+    public void testPushedDownStringFilters() throws Throwable {
+        Rumble rumble = new Rumble(RumbleRuntimeConfiguration.getDefaultConfiguration());
+        String[][] filters = new String[][] {
+            { "starts-with($e.string, \"he\")", "StringStartsWith(string,he)" },
+            { "ends-with($e.string, \"lo\")", "StringEndsWith(string,lo)" },
+            { "contains($e.string, \"ll\")", "StringContains(string,ll)" } };
+        for (String[] filter : filters) {
+            SequenceOfItems sequence = rumble.runQuery(
+                "for $e in parquet-file(\"src/test/resources/queries/sample-json.snappy.parquet\") "
+                    + "where "
+                    + filter[0]
+                    + " return $e.int64"
+            );
+            Assert.assertTrue(sequence.availableAsDataFrame());
+            Dataset<Row> df = sequence.getAsDataFrame();
+            // the comparison with the literal is pushed down to the Parquet reader.
+            String plan = df.queryExecution().executedPlan().toString();
+            Assert.assertTrue(plan, plan.contains("PushedFilters: [IsNotNull(string), " + filter[1] + "]"));
+            Assert.assertEquals(1, df.count());
+        }
+    }
+
+    @Test(timeout = 1000000)
+    public void testPersistedLetVariables() throws Throwable {
+        Rumble rumble = new Rumble(RumbleRuntimeConfiguration.getDefaultConfiguration());
+        Map<Integer, JavaRDD<?>> persistedRDDs = SparkSessionManager.getInstance()
+            .getJavaSparkContext()
+            .getPersistentRDDs();
+        Set<Integer> previouslyPersisted = new HashSet<>(persistedRDDs.keySet());
+
+        // referenced once per tuple of the for clause, so it is persisted while the FLWOR expression is evaluated.
+        SequenceOfItems sequence = rumble.runQuery(
+            "let $x := parallelize(1 to 10) for $i in 1 to 3 return count($x) + $i"
+        );
+        sequence.open();
+        Assert.assertEquals(11, sequence.next().getIntValue());
+        List<JavaRDD<?>> persisted = new ArrayList<>();
+        for (Map.Entry<Integer, JavaRDD<?>> entry : SparkSessionManager.getInstance()
+            .getJavaSparkContext()
+            .getPersistentRDDs()
+            .entrySet()) {
+            if (!previouslyPersisted.contains(entry.getKey())) {
+                persisted.add(entry.getValue());
+            }
+        }
+        Assert.assertEquals(1, persisted.size());
+        Assert.assertEquals(StorageLevel.MEMORY_AND_DISK(), persisted.get(0).getStorageLevel());
+        Assert.assertEquals(12, sequence.next().getIntValue());
+        Assert.assertEquals(13, sequence.next().getIntValue());
+        Assert.assertFalse(sequence.hasNext());
+        sequence.close();
+        // and unpersisted once it is closed.
+        Assert.assertEquals(StorageLevel.NONE(), persisted.get(0).getStorageLevel());
+        Assert.assertEquals(
+            previouslyPersisted,
+            SparkSessionManager.getInstance().getJavaSparkContext().getPersistentRDDs().keySet()
+        );
+
+        // referenced only once, so it is not persisted.
+        sequence = rumble.runQuery("let $x := parallelize(1 to 10) return count($x)");
+        sequence.open();
+        Assert.assertEquals(10, sequence.next().getIntValue());
+        Assert.assertEquals(
+            previouslyPersisted,
+            SparkSessionManager.getInstance().getJavaSparkContext().getPersistentRDDs().keySet()
+        );
+        sequence.close();
+    }
+
+    @Test(timeout = 1000000)
+    public void testPersistFunction() throws Throwable {
+        Rumble rumble = new Rumble(RumbleRuntimeConfiguration.getDefaultConfiguration());
+        Set<Integer> previouslyPersisted = new HashSet<>(
+                SparkSessionManager.getInstance().getJavaSparkContext().getPersistentRDDs().keySet()
+        );
+
+        SequenceOfItems sequence = rumble.runQuery("persist(parallelize(1 to 10), \"memory\")");
+        sequence.open();
+        Assert.assertTrue(sequence.hasNext());
+        Assert.assertEquals(1, sequence.next().getIntValue());
+        List<JavaRDD<?>> persisted = new ArrayList<>();
+        for (Map.Entry<Integer, JavaRDD<?>> entry : SparkSessionManager.getInstance()
+            .getJavaSparkContext()
+            .getPersistentRDDs()
+            .entrySet()) {
+            if (!previouslyPersisted.contains(entry.getKey())) {
+                persisted.add(entry.getValue());
+            }
+        }
+        Assert.assertEquals(1, persisted.size());
+        Assert.assertEquals(StorageLevel.MEMORY_ONLY(), persisted.get(0).getStorageLevel());
+        sequence.close();
+        // the persisted RDD is unpersisted once the query is closed.
+        Assert.assertEquals(StorageLevel.NONE(), persisted.get(0).getStorageLevel());
+        Assert.assertEquals(
+            previouslyPersisted,
+            SparkSessionManager.getInstance().getJavaSparkContext().getPersistentRDDs().keySet()
+        );
+    }
+
+    @Test(timeout = 1000000)
+    public void testOutputStreamSerializer() throws Throwable {
+        RumbleRuntimeConfiguration configuration = RumbleRuntimeConfiguration.getDefaultConfiguration();
+        Rumble rumble = new Rumble(configuration);
+        // the long string spans several chunks, with characters encoded on several bytes.
+        SequenceOfItems sequence = rumble.runQuery(
+            "(1, { \"foo\" : [ true, null ] }, string-join(for $i in 1 to 10000 return \"\u00e9\"))"
+        );
+        List<Item> items = new ArrayList<>();
+        sequence.populateList(items);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        OutputStreamSerializer serializer = new OutputStreamSerializer(configuration.getSerializer(), stream);
+        StringBuilder expected = new StringBuilder();
+        for (Item item : items) {
+            serializer.writeLine(item);
+            expected.append(configuration.getSerializer().serialize(item)).append("\n");
+        }
+        serializer.close();
+        Assert.assertEquals(expected.toString(), new String(stream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(timeout = 1000000)
+    public void testCompressedJsonLinesOutput() throws Throwable {
+        Path directory = Files.createTempDirectory("compressed-output");
+        // local output, written to a single file.
+        Path local = directory.resolve("local.json.gz");
+        new JsoniqQueryExecutor(
+                new RumbleRuntimeConfiguration(
+                        new String[] {
+                            "--query",
+                            "for $i in 1 to 3 return { \"foo\" : $i }",
+                            "--output-path",
+                            local.toString(),
+                            "--output-format-option:compression",
+                            "gzip" }
+                )
+        ).runQuery();
+        Assert.assertEquals(
+            Arrays.asList("{ \"foo\" : 1 }", "{ \"foo\" : 2 }", "{ \"foo\" : 3 }"),
+            readCompressedLines(local)
+        );
+
+        // RDD output, written to a directory of compressed part files.
+        Path rdd = directory.resolve("rdd");
+        new JsoniqQueryExecutor(
+                new RumbleRuntimeConfiguration(
+                        new String[] {
+                            "--query",
+                            "for $i in parallelize(1 to 3, 2) return { \"foo\" : $i }",
+                            "--output-path",
+                            rdd.toString(),
+                            "--output-format-option:compression",
+                            "gzip" }
+                )
+        ).runQuery();
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(rdd)) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                if (file.getFileName().toString().startsWith("part-")) {
+                    Assert.assertTrue(file.toString().endsWith(".gz"));
+                    lines.addAll(readCompressedLines(file));
+                }
+            }
+        }
+        Assert.assertEquals(Arrays.asList("{ \"foo\" : 1 }", "{ \"foo\" : 2 }", "{ \"foo\" : 3 }"), lines);
+    }
+
+    private static List<String> readCompressedLines(Path file) throws IOException {
+        try (
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)
+            )
+        ) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
 }
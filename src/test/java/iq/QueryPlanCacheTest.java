@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package iq;
+
+import org.apache.spark.SparkConf;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.rumbledb.api.SequenceOfItems;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.exceptions.RumbleException;
+import org.rumbledb.server.QueryPlanCache;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class QueryPlanCacheTest {
+
+    private static final String QUERY = "declare variable $x external := 0; for $i in 1 to 3 return $i * $x";
+
+    @BeforeClass
+    public static void setupSparkSession() {
+        SparkConf sparkConfiguration = new SparkConf();
+        sparkConfiguration.setMaster("local[*]");
+        sparkConfiguration.set("spark.submit.deployMode", "client");
+        sparkConfiguration.set("spark.executor.extraClassPath", "lib/");
+        sparkConfiguration.set("spark.driver.extraClassPath", "lib/");
+        sparkConfiguration.set("spark.driver.host", "127.0.0.1");
+        sparkConfiguration.set("spark.driver.bindAddress", "127.0.0.1");
+        SparkSessionManager.getInstance().initializeConfigurationAndSession(sparkConfiguration, true);
+    }
+
+    private static List<String> run(QueryPlanCache cache, String query, String... arguments) {
+        SequenceOfItems sequence = cache.runQuery(query, new RumbleRuntimeConfiguration(arguments));
+        List<String> result = new ArrayList<>();
+        sequence.open();
+        while (sequence.hasNext()) {
+            result.add(sequence.next().serialize());
+        }
+        sequence.close();
+        return result;
+    }
+
+    private static void checkStatistics(QueryPlanCache cache, long hits, long misses, int size) {
+        Assert.assertEquals(hits, cache.getHits());
+        Assert.assertEquals(misses, cache.getMisses());
+        Assert.assertEquals(size, cache.size());
+    }
+
+    @Test(timeout = 1000000)
+    public void testHitsAndMisses() {
+        QueryPlanCache cache = new QueryPlanCache(10);
+        Assert.assertEquals(Arrays.asList("2", "4", "6"), run(cache, QUERY, "--variable:x", "2"));
+        checkStatistics(cache, 0, 1, 1);
+
+        // the second lookup reuses the plan, with the value of the external variable of the request.
+        Assert.assertEquals(Arrays.asList("5", "10", "15"), run(cache, QUERY, "--variable:x", "5"));
+        checkStatistics(cache, 1, 1, 1);
+        Assert.assertEquals(Arrays.asList("0", "0", "0"), run(cache, QUERY));
+        checkStatistics(cache, 2, 1, 1);
+
+        // execution only options are not part of the key, but the other ones are.
+        Assert.assertEquals(
+            Arrays.asList("2", "4", "6"),
+            run(cache, QUERY, "--variable:x", "2", "--materialization-cap", "5")
+        );
+        checkStatistics(cache, 3, 1, 1);
+        Assert.assertEquals(
+            Arrays.asList("2", "4", "6"),
+            run(cache, QUERY, "--variable:x", "2", "--dates-with-timezone", "yes")
+        );
+        checkStatistics(cache, 3, 2, 2);
+        Assert.assertEquals(Arrays.asList("1"), run(cache, "1"));
+        checkStatistics(cache, 3, 3, 3);
+    }
+
+    @Test(timeout = 1000000)
+    public void testEviction() {
+        QueryPlanCache cache = new QueryPlanCache(2);
+        run(cache, "1");
+        run(cache, "2");
+        // the least recently used plan is evicted.
+        run(cache, "1");
+        run(cache, "3");
+        checkStatistics(cache, 1, 3, 2);
+        run(cache, "1");
+        checkStatistics(cache, 2, 3, 2);
+        run(cache, "2");
+        checkStatistics(cache, 2, 4, 2);
+
+        cache.clear();
+        run(cache, "1");
+        checkStatistics(cache, 2, 5, 1);
+    }
+
+    @Test(timeout = 1000000)
+    public void testNoCaching() {
+        QueryPlanCache cache = new QueryPlanCache(0);
+        run(cache, QUERY);
+        run(cache, QUERY);
+        checkStatistics(cache, 0, 2, 0);
+
+        // queries that fail to compile are not cached.
+        cache = new QueryPlanCache(10);
+        for (int i = 0; i < 2; ++i) {
+            try {
+                run(cache, "1 +");
+                Assert.fail();
+            } catch (RumbleException e) {
+                checkStatistics(cache, 0, i + 1, 0);
+            }
+        }
+    }
+}
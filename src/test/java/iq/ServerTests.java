@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package iq;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.spark.SparkConf;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.rumbledb.config.RumbleRuntimeConfiguration;
+import org.rumbledb.server.QueryPlanCache;
+import org.rumbledb.server.RumbleHttpHandler;
+import org.rumbledb.server.RunningQueries;
+import sparksoniq.spark.SparkSessionManager;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ServerTests {
+
+    private static HttpServer server;
+    private static final CountDownLatch cancelled = new CountDownLatch(1);
+    private static final CountDownLatch finished = new CountDownLatch(1);
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        SparkConf sparkConfiguration = new SparkConf();
+        sparkConfiguration.setMaster("local[*]");
+        sparkConfiguration.set("spark.submit.deployMode", "client");
+        sparkConfiguration.set("spark.executor.extraClassPath", "lib/");
+        sparkConfiguration.set("spark.driver.extraClassPath", "lib/");
+        sparkConfiguration.set("spark.driver.host", "127.0.0.1");
+        sparkConfiguration.set("spark.driver.bindAddress", "127.0.0.1");
+        SparkSessionManager.getInstance().initializeConfigurationAndSession(sparkConfiguration, true);
+
+        // records the cancellation and the end of the query that the client abandons.
+        RunningQueries runningQueries = new RunningQueries(4) {
+            @Override
+            public boolean cancel(String queryId) {
+                if (queryId.equals("abandoned")) {
+                    cancelled.countDown();
+                }
+                return super.cancel(queryId);
+            }
+
+            @Override
+            public void finish(String queryId) {
+                super.finish(queryId);
+                if (queryId.equals("abandoned")) {
+                    finished.countDown();
+                }
+            }
+        };
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+            "/jsoniq",
+            new RumbleHttpHandler(
+                    RumbleRuntimeConfiguration.getDefaultConfiguration(),
+                    new QueryPlanCache(10),
+                    runningQueries
+            )
+        );
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    private static HttpURLConnection post(String parameters, String query) throws Exception {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/jsoniq?" + parameters);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream stream = connection.getOutputStream()) {
+            stream.write(query.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static String getBody(HttpURLConnection connection) throws Exception {
+        try (InputStream stream = connection.getInputStream()) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test(timeout = 1000000)
+    public void testStreaming() throws Exception {
+        HttpURLConnection connection = post("streaming=yes&query-id=streamed", "1 to 5");
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+        Assert.assertEquals(
+            "{ \"query-id\" : \"streamed\", \"values\" : [ 1, 2, 3, 4, 5 ] }",
+            getBody(connection)
+        );
+    }
+
+    @Test(timeout = 1000000)
+    public void testStreamingCap() throws Exception {
+        HttpURLConnection connection = post("streaming=yes&query-id=capped&materialization-cap=3", "1 to 5");
+        String body = getBody(connection);
+        Assert.assertTrue(
+            body,
+            body.startsWith("{ \"query-id\" : \"capped\", \"values\" : [ 1, 2, 3 ], \"warning\" : ")
+        );
+        Assert.assertTrue(body, body.endsWith(" }"));
+    }
+
+    @Test(timeout = 1000000)
+    public void testStreamingError() throws Exception {
+        HttpURLConnection connection = post(
+            "streaming=yes&query-id=failed",
+            "for $i in 1 to 3 return 6 idiv (3 - $i)"
+        );
+        // the error is reported when the second item is pulled, as the next item is computed ahead.
+        String body = getBody(connection);
+        Assert.assertTrue(
+            body,
+            body.startsWith("{ \"query-id\" : \"failed\", \"values\" : [ 3 ], \"error-message\" : ")
+        );
+        Assert.assertTrue(body, body.contains("\"error-code\" : \"FOAR0001\""));
+        Assert.assertTrue(body, body.endsWith(" }"));
+    }
+
+    @Test(timeout = 1000000)
+    public void testStreamingClientDisconnect() throws Exception {
+        byte[] query = "for $i in 1 to 10000000 return \"abcdefghijklmnopqrstuvwxyz\""
+            .getBytes(StandardCharsets.UTF_8);
+        try (Socket socket = new Socket("127.0.0.1", server.getAddress().getPort())) {
+            OutputStream output = socket.getOutputStream();
+            output.write(
+                ("POST /jsoniq?streaming=yes&query-id=abandoned&materialization-cap=0 HTTP/1.1\r\n"
+                    + "Host: 127.0.0.1\r\n"
+                    + "Content-Length: "
+                    + query.length
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII)
+            );
+            output.write(query);
+            output.flush();
+            // the response has started.
+            Assert.assertTrue(socket.getInputStream().read(new byte[1024]) > 0);
+        }
+        Assert.assertTrue(cancelled.await(60, TimeUnit.SECONDS));
+        Assert.assertTrue(finished.await(60, TimeUnit.SECONDS));
+    }
+}
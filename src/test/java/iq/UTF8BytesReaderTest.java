@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package iq;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rumbledb.items.parsing.UTF8BytesReader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class UTF8BytesReaderTest {
+
+    private static final int[] BUFFER_SIZES = { 1, 2, 3, 1024 };
+
+    private static String read(byte[] bytes, int bufferSize) {
+        UTF8BytesReader reader = new UTF8BytesReader();
+        // the content is surrounded with other bytes to check the offset and the length.
+        byte[] content = new byte[bytes.length + 2];
+        content[0] = (byte) 0xF0;
+        System.arraycopy(bytes, 0, content, 1, bytes.length);
+        content[content.length - 1] = (byte) 0x80;
+        reader.reset(content, 1, bytes.length);
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int count;
+        while ((count = reader.read(buffer, 0, bufferSize)) != -1) {
+            result.append(buffer, 0, count);
+        }
+        return result.toString();
+    }
+
+    private static void checkDecoding(byte[] bytes) {
+        String expected = new Text(bytes).toString();
+        for (int bufferSize : BUFFER_SIZES) {
+            Assert.assertEquals(Arrays.toString(bytes), expected, read(bytes, bufferSize));
+        }
+    }
+
+    private static byte[] toBytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test(timeout = 1000000)
+    public void testWellFormed() {
+        checkDecoding(new byte[0]);
+        checkDecoding("{ \"foo\" : \"bar\" }".getBytes(StandardCharsets.UTF_8));
+        checkDecoding("\u00e9t\u00e9 \u20ac \uffff \ud83d\ude00\udbff\udfff".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(timeout = 1000000)
+    public void testMalformed() {
+        List<byte[]> inputs = Arrays.asList(
+            // overlong forms
+            toBytes(0xC0, 0xAF),
+            toBytes(0xC1, 0xBF, 0x41),
+            toBytes(0xE0, 0x80, 0x80),
+            toBytes(0xE0, 0x9F, 0xBF, 0x41),
+            toBytes(0xF0, 0x80, 0x80, 0x80),
+            toBytes(0xF0, 0x8F, 0xBF, 0xBF, 0x41),
+            // surrogates
+            toBytes(0xED, 0xA0, 0x80),
+            toBytes(0xED, 0xBF, 0xBF, 0x41),
+            toBytes(0xED, 0xA0, 0xBD, 0xED, 0xB8, 0x80),
+            // code points above U+10FFFF
+            toBytes(0xF4, 0x90, 0x80, 0x80),
+            toBytes(0xF5, 0x80, 0x80, 0x80),
+            toBytes(0xF8, 0x88, 0x80, 0x80, 0x80),
+            toBytes(0xFF, 0x41),
+            // unexpected continuation bytes
+            toBytes(0x80),
+            toBytes(0x41, 0xBF, 0x80, 0x42),
+            // sequences that are cut short
+            toBytes(0xC3, 0x41),
+            toBytes(0xE2, 0x82, 0x41),
+            toBytes(0xF0, 0x9F, 0x98, 0x41),
+            toBytes(0xF0, 0x9F, 0x41, 0x80),
+            // sequences that are truncated at the end
+            toBytes(0x41, 0xC3),
+            toBytes(0x41, 0xE2),
+            toBytes(0x41, 0xE2, 0x82),
+            toBytes(0x41, 0xE0, 0x80),
+            toBytes(0x41, 0xF0, 0x9F),
+            toBytes(0x41, 0xF0, 0x9F, 0x98),
+            toBytes(0x41, 0xF0, 0x80, 0x80),
+            toBytes(0x41, 0xF4, 0x90),
+            toBytes(0x41, 0xF5, 0x80)
+        );
+        for (byte[] input : inputs) {
+            checkDecoding(input);
+        }
+    }
+
+    @Test(timeout = 1000000)
+    public void testRandomBytes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; ++i) {
+            byte[] bytes = new byte[random.nextInt(12)];
+            for (int j = 0; j < bytes.length; ++j) {
+                // mostly lead and continuation bytes, as ASCII is not interesting.
+                bytes[j] = (byte) (random.nextInt(8) == 0 ? random.nextInt(0x80) : 0x80 + random.nextInt(0x80));
+            }
+            checkDecoding(bytes);
+        }
+    }
+}